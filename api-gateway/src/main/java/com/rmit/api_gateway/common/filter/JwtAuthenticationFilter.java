@@ -0,0 +1,109 @@
+package com.rmit.api_gateway.common.filter;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Verifies the Bearer JWT issued by auth-service before a request is routed.
+ * Invalid or missing tokens are rejected with 401 at the edge; for valid tokens the
+ * subject and role are forwarded as headers so downstream services do not re-parse it.
+ * Verification is a CPU-only HMAC check, so it runs inline on the event loop.
+ */
+@Slf4j
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    public static final String USER_SUBJECT_HEADER = "X-User-Subject";
+    public static final String USER_ROLE_HEADER = "X-User-Role";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String ROLE_CLAIM = "role";
+
+    private final JwtParser jwtParser;
+    private final List<String> publicPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public JwtAuthenticationFilter(
+            @Value("${jwt.secret}") String secret,
+            @Value("${gateway.auth.public-paths}") String[] publicPaths) {
+        this.jwtParser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        this.publicPaths = List.of(publicPaths);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+
+        // Identity headers are only ever set by this filter, never trusted from the client
+        ServerHttpRequest.Builder forwarded = request.mutate()
+                .headers(headers -> {
+                    headers.remove(USER_SUBJECT_HEADER);
+                    headers.remove(USER_ROLE_HEADER);
+                });
+
+        if (HttpMethod.OPTIONS.equals(request.getMethod()) || isPublic(request.getPath().value())) {
+            return chain.filter(exchange.mutate().request(forwarded.build()).build());
+        }
+
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return reject(exchange);
+        }
+
+        Claims claims;
+        try {
+            claims = jwtParser.parseSignedClaims(authorization.substring(BEARER_PREFIX.length())).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected request to {}: {}", request.getPath(), e.getMessage());
+            return reject(exchange);
+        }
+
+        forwarded.header(USER_SUBJECT_HEADER, claims.getSubject());
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (role != null) {
+            forwarded.header(USER_ROLE_HEADER, role);
+        }
+        return chain.filter(exchange.mutate().request(forwarded.build()).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // Run before load balancing and routing so rejected requests never reach a service
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private boolean isPublic(String path) {
+        for (String pattern : publicPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        return exchange.getResponse().setComplete();
+    }
+}
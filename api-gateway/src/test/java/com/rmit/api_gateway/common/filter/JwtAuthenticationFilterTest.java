@@ -0,0 +1,170 @@
+package com.rmit.api_gateway.common.filter;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTest {
+
+	private static final String SECRET = "test-secret-key-of-at-least-256-bits-for-hmac-sha-signing";
+	private static final String OTHER_SECRET = "another-secret-key-of-at-least-256-bits-for-hmac-signing";
+	private static final String[] PUBLIC_PATHS = {
+			"/api/auth-service/auth/**", "/actuator/health/**", "/actuator/info" };
+
+	private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(SECRET, PUBLIC_PATHS);
+	private final AtomicReference<ServerWebExchange> routed = new AtomicReference<>();
+	private final GatewayFilterChain chain = exchange -> {
+		routed.set(exchange);
+		return Mono.empty();
+	};
+
+	@Test
+	void validTokenIsRoutedWithIdentityHeaders() {
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/route/routes")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token(SECRET, 60_000)));
+
+		filter.filter(exchange, chain).block();
+
+		assertThat(routed.get()).isNotNull();
+		HttpHeaders headers = routed.get().getRequest().getHeaders();
+		assertThat(headers.getFirst(JwtAuthenticationFilter.USER_SUBJECT_HEADER)).isEqualTo("user@example.com");
+		assertThat(headers.getFirst(JwtAuthenticationFilter.USER_ROLE_HEADER)).isEqualTo("ADMIN");
+	}
+
+	@Test
+	void missingTokenIsUnauthorized() {
+		assertRejected(MockServerHttpRequest.get("/api/route/routes"));
+	}
+
+	@Test
+	void nonBearerAuthorizationIsUnauthorized() {
+		assertRejected(MockServerHttpRequest.get("/api/route/routes")
+				.header(HttpHeaders.AUTHORIZATION, "Basic dXNlcjpwYXNz"));
+	}
+
+	@Test
+	void malformedTokenIsUnauthorized() {
+		assertRejected(MockServerHttpRequest.get("/api/route/routes")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer not-a-jwt"));
+	}
+
+	@Test
+	void tokenSignedWithAnotherKeyIsUnauthorized() {
+		assertRejected(MockServerHttpRequest.get("/api/route/routes")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token(OTHER_SECRET, 60_000)));
+	}
+
+	@Test
+	void expiredTokenIsUnauthorized() {
+		assertRejected(MockServerHttpRequest.get("/api/route/routes")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token(SECRET, -60_000)));
+	}
+
+	@Test
+	void clientSuppliedIdentityHeadersAreRemoved() {
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/route/routes")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenWithoutRole())
+				.header(JwtAuthenticationFilter.USER_SUBJECT_HEADER, "admin@example.com")
+				.header(JwtAuthenticationFilter.USER_ROLE_HEADER, "ADMIN"));
+
+		filter.filter(exchange, chain).block();
+
+		HttpHeaders headers = routed.get().getRequest().getHeaders();
+		assertThat(headers.get(JwtAuthenticationFilter.USER_SUBJECT_HEADER)).containsExactly("user@example.com");
+		assertThat(headers.containsKey(JwtAuthenticationFilter.USER_ROLE_HEADER)).isFalse();
+	}
+
+	@Test
+	void identityHeadersAreRemovedOnPublicPaths() {
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.post("/api/auth-service/auth/login")
+				.header(JwtAuthenticationFilter.USER_SUBJECT_HEADER, "admin@example.com")
+				.header(JwtAuthenticationFilter.USER_ROLE_HEADER, "ADMIN"));
+
+		filter.filter(exchange, chain).block();
+
+		ServerHttpRequest request = routed.get().getRequest();
+		assertThat(request.getHeaders().containsKey(JwtAuthenticationFilter.USER_SUBJECT_HEADER)).isFalse();
+		assertThat(request.getHeaders().containsKey(JwtAuthenticationFilter.USER_ROLE_HEADER)).isFalse();
+	}
+
+	@Test
+	void preflightRequestsPassWithoutToken() {
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.options("/api/route/routes")
+				.header(HttpHeaders.ORIGIN, "http://localhost:5173")
+				.header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "POST"));
+
+		filter.filter(exchange, chain).block();
+
+		assertThat(routed.get()).isNotNull();
+		assertThat(exchange.getResponse().getStatusCode()).isNull();
+	}
+
+	@Test
+	void publicPathsPassWithoutToken() {
+		for (String path : new String[] { "/api/auth-service/auth/register", "/actuator/health", "/actuator/health/liveness", "/actuator/info" }) {
+			routed.set(null);
+
+			filter.filter(exchange(MockServerHttpRequest.get(path)), chain).block();
+
+			assertThat(routed.get()).as(path).isNotNull();
+		}
+	}
+
+	@Test
+	void otherActuatorEndpointsNeedToken() {
+		assertRejected(MockServerHttpRequest.get("/actuator/gateway/routes"));
+		assertRejected(MockServerHttpRequest.get("/actuator/env"));
+	}
+
+	@Test
+	void publicPatternsDoNotMatchLookalikePaths() {
+		assertRejected(MockServerHttpRequest.get("/api/auth-service/authx/users"));
+		assertRejected(MockServerHttpRequest.get("/actuator/information"));
+	}
+
+	private void assertRejected(MockServerHttpRequest.BaseBuilder<?> request) {
+		routed.set(null);
+		MockServerWebExchange exchange = exchange(request);
+
+		filter.filter(exchange, chain).block();
+
+		assertThat(routed.get()).isNull();
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+	}
+
+	private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+		return MockServerWebExchange.from(request);
+	}
+
+	private static String token(String secret, long expiresInMs) {
+		return Jwts.builder()
+				.subject("user@example.com")
+				.claim("role", "ADMIN")
+				.issuedAt(new Date(System.currentTimeMillis() - 120_000))
+				.expiration(new Date(System.currentTimeMillis() + expiresInMs))
+				.signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+
+	private static String tokenWithoutRole() {
+		return Jwts.builder()
+				.subject("user@example.com")
+				.expiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+}
@@ -4,10 +4,12 @@ import com.rmit.auth_service.auth.dto.AuthResponse;
 import com.rmit.auth_service.auth.dto.LoginRequest;
 import com.rmit.auth_service.auth.dto.RegisterRequest;
 import com.rmit.auth_service.auth.service.AuthService;
+import com.rmit.auth_service.common.security.PasswordHashingOverloadedException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -26,6 +28,8 @@ public class AuthController {
         try {
             AuthResponse response = authService.register(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (PasswordHashingOverloadedException e) {
+            return overloaded(e);
         } catch (RuntimeException e) {
             AuthResponse errorResponse = AuthResponse.builder()
                     .message(e.getMessage())
@@ -40,6 +44,8 @@ public class AuthController {
         try {
             AuthResponse response = authService.login(request);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingOverloadedException e) {
+            return overloaded(e);
         } catch (RuntimeException e) {
             AuthResponse errorResponse = AuthResponse.builder()
                     .message(e.getMessage())
@@ -47,5 +53,13 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
         }
     }
-}
 
+    private ResponseEntity<AuthResponse> overloaded(PasswordHashingOverloadedException e) {
+        AuthResponse errorResponse = AuthResponse.builder()
+                .message(e.getMessage())
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+}
@@ -1,5 +1,8 @@
 package com.rmit.auth_service.auth.external.service;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Generic interface for Kafka event producers
  * Provides methods for sending messages and request-reply patterns
@@ -24,14 +27,27 @@ public interface EventProducer {
 
   /**
    * Send a request and wait for a reply (request-reply pattern)
+   * The reply is received on this instance's own reply topic
    * 
    * @param requestTopic the topic to send the request to
-   * @param replyTopic the topic to receive the reply from
    * @param request the request object
    * @param responseClass the class of the response object
    * @return the response object
    * @param <T> the type of the response
    */
-  <T> T sendAndReceive(String requestTopic, String replyTopic, Object request, Class<T> responseClass);
-}
+  <T> T sendAndReceive(String requestTopic, Object request, Class<T> responseClass);
 
+  /**
+   * Send a request and complete asynchronously with the reply (request-reply pattern)
+   * The calling thread is not blocked and the reply is deserialized off the Kafka consumer thread
+   * 
+   * @param requestTopic the topic to send the request to
+   * @param request the request object
+   * @param responseClass the class of the response object
+   * @param timeout how long to wait for the reply before the future completes exceptionally
+   * @return a future completed with the response object
+   * @param <T> the type of the response
+   */
+  <T> CompletableFuture<T> sendAndReceiveAsync(String requestTopic, Object request, Class<T> responseClass,
+      Duration timeout);
+}
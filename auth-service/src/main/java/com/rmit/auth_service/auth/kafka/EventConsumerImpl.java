@@ -1,5 +1,7 @@
 package com.rmit.auth_service.auth.kafka;
 
+import java.io.IOException;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.messaging.handler.annotation.SendTo;
@@ -26,52 +28,42 @@ public class EventConsumerImpl {
    * Replace with your actual DTOs and business logic
    */
   @KafkaListener(topics = BetaTopicRegistry.Topic.TEST_REQUEST_REPLY_REQ)
-  @SendTo(BetaTopicRegistry.Topic.TEST_REQUEST_REPLY_RES)
+  @SendTo
   public byte[] handleTestRequestReply(byte[] requestBytes) {
-    try {
-      log.info("Received test request-reply message");
-      // Deserialize request
-      // TestKafkaRequestReplyReq request = objectMapper.readValue(requestBytes, TestKafkaRequestReplyReq.class);
-      
-      // Process request
-      // Your business logic here
-      
-      // Serialize response
-      // TestKafkaRequestReplyRes response = processRequest(request);
-      // return objectMapper.writeValueAsBytes(response);
-      
-      // Placeholder response
-      return new byte[0];
-    } catch (Exception e) {
-      log.error("Error handling test request-reply", e);
-      return new byte[0];
-    }
+    log.info("Received test request-reply message");
+    // Deserialize request
+    // TestKafkaRequestReplyReq request = objectMapper.readValue(requestBytes, TestKafkaRequestReplyReq.class);
+    
+    // Process request
+    // Your business logic here
+    
+    // Serialize response
+    // TestKafkaRequestReplyRes response = processRequest(request);
+    // return objectMapper.writeValueAsBytes(response);
+    
+    // Placeholder response, rejected by requesters as an empty reply
+    return new byte[0];
   }
 
   /**
    * Example: Request-Reply pattern listener for list operation
    */
   @KafkaListener(topics = BetaTopicRegistry.Topic.LIST_REQ)
-  @SendTo(BetaTopicRegistry.Topic.LIST_RES)
+  @SendTo
   public byte[] handleListRequest(byte[] requestBytes) {
-    try {
-      log.info("Received list request message");
-      // Deserialize request
-      // ListRequest request = objectMapper.readValue(requestBytes, ListRequest.class);
-      
-      // Process request
-      // List<Item> items = yourService.list(request);
-      
-      // Serialize response
-      // ListResponse response = new ListResponse(items);
-      // return objectMapper.writeValueAsBytes(response);
-      
-      // Placeholder response
-      return new byte[0];
-    } catch (Exception e) {
-      log.error("Error handling list request", e);
-      return new byte[0];
-    }
+    log.info("Received list request message");
+    // Deserialize request
+    // ListRequest request = objectMapper.readValue(requestBytes, ListRequest.class);
+    
+    // Process request
+    // List<Item> items = yourService.list(request);
+    
+    // Serialize response
+    // ListResponse response = new ListResponse(items);
+    // return objectMapper.writeValueAsBytes(response);
+    
+    // Placeholder response, rejected by requesters as an empty reply
+    return new byte[0];
   }
 
   /**
@@ -82,24 +74,20 @@ public class EventConsumerImpl {
    * @param requestBytes the raw message bytes
    * @param requestClass the class to deserialize the request to
    * @return the processed response bytes
+   * @throws IOException if the request cannot be decoded, so the error handler can retry or dead-letter it
    */
   @SuppressWarnings("unused")
-  private <T> byte[] handleGenericMessage(String topic, byte[] requestBytes, Class<T> requestClass) {
-    try {
-      T request = objectMapper.readValue(requestBytes, requestClass);
-      log.debug("Received message on topic: {} with request type: {}", topic, requestClass.getSimpleName());
-      
-      // Process request based on type
-      // Add your business logic here
-      // Example: YourService.process(request);
-      
-      // Return response
-      // Example: return objectMapper.writeValueAsBytes(response);
-      return new byte[0];
-    } catch (Exception e) {
-      log.error("Error handling message on topic: {}", topic, e);
-      return new byte[0];
-    }
+  private <T> byte[] handleGenericMessage(String topic, byte[] requestBytes, Class<T> requestClass) throws IOException {
+    T request = objectMapper.readValue(requestBytes, requestClass);
+    log.debug("Received message on topic: {} with request type: {}", topic, requestClass.getSimpleName());
+    
+    // Process request based on type
+    // Add your business logic here
+    // Example: YourService.process(request);
+    
+    // Return response
+    // Example: return objectMapper.writeValueAsBytes(response);
+    return new byte[0];
   }
 }
 
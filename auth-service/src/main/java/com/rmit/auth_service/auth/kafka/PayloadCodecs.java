@@ -0,0 +1,130 @@
+package com.rmit.auth_service.auth.kafka;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.rmit.auth_service.auth.external.service.PayloadCodec;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry of the supported payload codecs and the content-type negotiation rules.
+ * Outgoing messages use the configured default codec, replies use the codec of the request,
+ * and incoming records without a content-type header are decoded as JSON
+ * so producers that predate the header keep working.
+ */
+@Slf4j
+@Component
+public class PayloadCodecs {
+
+  public static final String JSON = "application/json";
+  public static final String SMILE = "application/x-jackson-smile";
+
+  // every Smile document starts with ":)\n"
+  private static final byte[] SMILE_MAGIC = { ':', ')', '\n' };
+
+  private final PayloadCodec json;
+  private final PayloadCodec smile;
+  private final PayloadCodec defaultCodec;
+
+  public PayloadCodecs(ObjectMapper objectMapper, @Value("${kafka.codec.default}") String defaultCodec) {
+    this.json = new JacksonPayloadCodec(JSON, objectMapper);
+    // copyWith keeps the registered modules (java.time etc.) of the application mapper
+    this.smile = new JacksonPayloadCodec(SMILE, objectMapper.copyWith(new SmileFactory()));
+    this.defaultCodec = forName(defaultCodec);
+    log.info("Kafka payload codec: {}", this.defaultCodec.contentType());
+  }
+
+  /**
+   * @return the codec used for outgoing messages
+   */
+  public PayloadCodec defaultCodec() {
+    return defaultCodec;
+  }
+
+  /**
+   * Resolve the codec of an incoming record from its content-type header
+   * Records without the header are sniffed for the Smile signature and otherwise treated as JSON
+   * 
+   * @param headers the record headers
+   * @param payload the record payload
+   * @return the codec able to decode the payload
+   */
+  public PayloadCodec forRecord(Headers headers, byte[] payload) {
+    Header header = headers.lastHeader(PayloadCodec.CONTENT_TYPE_HEADER);
+    if (header != null) {
+      String contentType = new String(header.value(), StandardCharsets.UTF_8);
+      if (SMILE.equals(contentType)) {
+        return smile;
+      }
+      if (JSON.equals(contentType)) {
+        return json;
+      }
+      log.warn("Unknown payload content type {}, decoding as JSON", contentType);
+      return json;
+    }
+    return isSmile(payload) ? smile : json;
+  }
+
+  /**
+   * Build an outgoing record encoded with the default codec
+   */
+  public ProducerRecord<String, Object> toRecord(String topic, String key, Object message) throws IOException {
+    ProducerRecord<String, Object> record = new ProducerRecord<>(topic, key, defaultCodec.encode(message));
+    addHeader(record.headers(), defaultCodec);
+    return record;
+  }
+
+  /**
+   * Build a @SendTo reply encoded with the same codec as the request
+   * 
+   * @param requestCodec the codec the request was decoded with
+   * @param response the response object
+   * @return the reply message
+   */
+  public Message<byte[]> toReply(PayloadCodec requestCodec, Object response) throws IOException {
+    return MessageBuilder.withPayload(requestCodec.encode(response))
+        .setHeader(PayloadCodec.CONTENT_TYPE_HEADER, requestCodec.contentType().getBytes(StandardCharsets.UTF_8))
+        .build();
+  }
+
+  /**
+   * Write the content-type header of a codec
+   */
+  public void addHeader(Headers headers, PayloadCodec codec) {
+    headers.remove(PayloadCodec.CONTENT_TYPE_HEADER);
+    headers.add(PayloadCodec.CONTENT_TYPE_HEADER, codec.contentType().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private PayloadCodec forName(String name) {
+    Map<String, PayloadCodec> codecs = Map.of("json", json, JSON, json, "smile", smile, SMILE, smile);
+    PayloadCodec codec = codecs.get(name);
+    if (codec == null) {
+      throw new IllegalArgumentException("Unsupported kafka.codec.default: " + name);
+    }
+    return codec;
+  }
+
+  private static boolean isSmile(byte[] payload) {
+    if (payload == null || payload.length < SMILE_MAGIC.length) {
+      return false;
+    }
+    for (int i = 0; i < SMILE_MAGIC.length; i++) {
+      if (payload[i] != SMILE_MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -6,39 +6,53 @@ import com.rmit.auth_service.auth.dto.RegisterRequest;
 import com.rmit.auth_service.auth.entity.User;
 import com.rmit.auth_service.auth.repo.UserRepository;
 import com.rmit.auth_service.auth.service.AuthService;
+import com.rmit.auth_service.common.security.PasswordHasher;
+import com.rmit.auth_service.common.security.PasswordHashingOverloadedException;
 import com.rmit.auth_service.common.utils.JwtUtil;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
 
+    /**
+     * Not transactional on purpose: the password is hashed while no transaction or connection
+     * is held, and the user is then written by the repository's own short transaction
+     */
     @Override
-    @Transactional
     public AuthResponse register(RegisterRequest request) {
-        // Check if email already exists
+        // Check if email already exists, before paying for a hash
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email already exists");
         }
+        String encodedPassword = passwordHasher.encode(request.getPassword());
 
         // Create new user
         User user = User.builder()
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(encodedPassword)
                 .role(request.getRole())
                 .build();
 
-        user = userRepository.save(user);
+        try {
+            user = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // registered concurrently since the check above, caught by the unique email constraint
+            throw new RuntimeException("Email already exists");
+        }
 
         // Generate JWT token
-        String token = jwtUtil.generateToken(user.getEmail());
+        String token = jwtUtil.generateToken(user.getEmail(), Map.of("role", user.getRole()));
 
         return AuthResponse.builder()
                 .token(token)
@@ -55,12 +69,23 @@ public class AuthServiceImpl implements AuthService {
                 .orElseThrow(() -> new RuntimeException("Invalid email or password"));
 
         // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new RuntimeException("Invalid email or password");
         }
 
+        // Rehash with the current cost while the plain password is at hand;
+        // no transaction is held open here so the connection is not pinned during hashing
+        if (passwordHasher.needsUpgrade(user.getPassword())) {
+            try {
+                user.setPassword(passwordHasher.encode(request.getPassword()));
+                userRepository.save(user);
+            } catch (PasswordHashingOverloadedException e) {
+                log.debug("Skipped password hash upgrade for {}: {}", user.getEmail(), e.getMessage());
+            }
+        }
+
         // Generate JWT token
-        String token = jwtUtil.generateToken(user.getEmail());
+        String token = jwtUtil.generateToken(user.getEmail(), Map.of("role", user.getRole()));
 
         return AuthResponse.builder()
                 .token(token)
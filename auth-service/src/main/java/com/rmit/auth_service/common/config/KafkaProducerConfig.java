@@ -1,30 +1,73 @@
 package com.rmit.auth_service.common.config;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Map;
 
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
 import org.springframework.kafka.requestreply.ReplyingKafkaTemplate;
 
+import com.rmit.auth_service.auth.kafka.KafkaDltHandler;
+
 @Configuration
 public class KafkaProducerConfig {
+  // latency profile: send immediately, used for request-reply and by default
   @Bean
+  @Primary
   public KafkaTemplate<String, Object> kafkaTemplate(
-      ProducerFactory<String, Object> producerFactory) {
-    return new KafkaTemplate<>(producerFactory);
+      ProducerFactory<String, Object> producerFactory,
+      @Value("${kafka.producer.latency.linger-ms}") int lingerMs,
+      @Value("${kafka.producer.latency.batch-size}") int batchSize,
+      @Value("${kafka.producer.latency.compression-type}") String compressionType) {
+    return new KafkaTemplate<>(producerFactory, profile(lingerMs, batchSize, compressionType));
+  }
+
+  // throughput profile: wait a little to fill larger compressed batches
+  @Bean
+  public KafkaTemplate<String, Object> throughputKafkaTemplate(
+      ProducerFactory<String, Object> producerFactory,
+      @Value("${kafka.producer.throughput.linger-ms}") int lingerMs,
+      @Value("${kafka.producer.throughput.batch-size}") int batchSize,
+      @Value("${kafka.producer.throughput.compression-type}") String compressionType) {
+    return new KafkaTemplate<>(producerFactory, profile(lingerMs, batchSize, compressionType));
   }
 
   // request-reply template
   @Bean
   ReplyingKafkaTemplate<String, Object, Object> replyingKafkaTemplate(
       ProducerFactory<String, Object> producerFactory,
-      ConcurrentMessageListenerContainer<String, Object> replyListenerContainer) {
-    var replyingKafkaTemplate = new ReplyingKafkaTemplate<>(producerFactory, replyListenerContainer);
-    replyingKafkaTemplate.setDefaultReplyTimeout(Duration.ofSeconds(5));
+      ConcurrentMessageListenerContainer<String, Object> replyListenerContainer,
+      @Value("${kafka.request-reply.timeout}") Duration replyTimeout,
+      @Value("${kafka.producer.latency.linger-ms}") int lingerMs,
+      @Value("${kafka.producer.latency.batch-size}") int batchSize,
+      @Value("${kafka.producer.latency.compression-type}") String compressionType) {
+    var replyingKafkaTemplate = new ReplyingKafkaTemplate<>(
+        producerFactory.copyWithConfigurationOverride(profile(lingerMs, batchSize, compressionType)),
+        replyListenerContainer);
+    replyingKafkaTemplate.setDefaultReplyTimeout(replyTimeout);
+    // error replies from the dead-letter handler fail the request instead of being deserialized
+    replyingKafkaTemplate.setReplyErrorChecker(reply -> {
+      Header error = reply.headers().lastHeader(KafkaDltHandler.REPLY_ERROR_HEADER);
+      return error == null ? null : new RuntimeException(new String(error.value(), StandardCharsets.UTF_8));
+    });
     return replyingKafkaTemplate;
   }
-}
 
+  // both profiles are idempotent, so retries never duplicate or reorder records
+  private static Map<String, Object> profile(int lingerMs, int batchSize, String compressionType) {
+    return Map.of(
+        ProducerConfig.LINGER_MS_CONFIG, lingerMs,
+        ProducerConfig.BATCH_SIZE_CONFIG, batchSize,
+        ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType,
+        ProducerConfig.ACKS_CONFIG, "all",
+        ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+  }
+}
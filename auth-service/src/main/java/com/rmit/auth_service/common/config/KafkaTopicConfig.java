@@ -0,0 +1,27 @@
+package com.rmit.auth_service.common.config;
+
+import java.time.Duration;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import com.rmit.auth_service.auth.kafka.KafkaInstance;
+
+/**
+ * Topics owned by this service that need non-default settings
+ */
+@Configuration
+public class KafkaTopicConfig {
+  // replies are read within the request timeout, so the per-instance reply topic keeps them only briefly
+  @Bean
+  public NewTopic replyTopic(KafkaInstance kafkaInstance, @Value("${kafka.reply.retention}") Duration retention) {
+    return TopicBuilder.name(kafkaInstance.getReplyTopic())
+        .partitions(1)
+        .config(TopicConfig.RETENTION_MS_CONFIG, Long.toString(retention.toMillis()))
+        .build();
+  }
+}
@@ -1,5 +1,6 @@
 package com.rmit.auth_service.common.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -31,9 +32,12 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * BCrypt with the configured cost. The cost is not derived from the host, so replicas on different
+     * hardware hash alike and do not rehash each other's passwords on login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt.strength}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
-
@@ -1,9 +1,9 @@
 package com.rmit.auth_service.common.kafka;
 
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rmit.auth_service.auth.kafka.KafkaTemplateRouter;
+import com.rmit.auth_service.auth.kafka.PayloadCodecs;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,8 +13,8 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class KafkaGenericProducer {
   
-  private final KafkaTemplate<String, Object> kafkaTemplate;
-  private final ObjectMapper objectMapper;
+  private final KafkaTemplateRouter kafkaTemplateRouter;
+  private final PayloadCodecs payloadCodecs;
 
   /**
    * Send a message to a topic (fire-and-forget)
@@ -24,8 +24,7 @@ public class KafkaGenericProducer {
    */
   public void send(String topic, Object message) {
     try {
-      byte[] messageBytes = objectMapper.writeValueAsBytes(message);
-      kafkaTemplate.send(topic, messageBytes);
+      kafkaTemplateRouter.forTopic(topic).send(payloadCodecs.toRecord(topic, null, message));
       log.debug("Sent message to topic: {}", topic);
     } catch (Exception e) {
       log.error("Error sending message to topic: {}", topic, e);
@@ -42,8 +41,7 @@ public class KafkaGenericProducer {
    */
   public void send(String topic, String key, Object message) {
     try {
-      byte[] messageBytes = objectMapper.writeValueAsBytes(message);
-      kafkaTemplate.send(topic, key, messageBytes);
+      kafkaTemplateRouter.forTopic(topic).send(payloadCodecs.toRecord(topic, key, message));
       log.debug("Sent message to topic: {} with key: {}", topic, key);
     } catch (Exception e) {
       log.error("Error sending message to topic: {} with key: {}", topic, key, e);
@@ -59,8 +57,7 @@ public class KafkaGenericProducer {
    */
   public void sendAsync(String topic, Object message) {
     try {
-      byte[] messageBytes = objectMapper.writeValueAsBytes(message);
-      kafkaTemplate.send(topic, messageBytes).whenComplete((result, ex) -> {
+      kafkaTemplateRouter.forTopic(topic).send(payloadCodecs.toRecord(topic, null, message)).whenComplete((result, ex) -> {
         if (ex == null) {
           log.debug("Successfully sent message to topic: {}", topic);
         } else {
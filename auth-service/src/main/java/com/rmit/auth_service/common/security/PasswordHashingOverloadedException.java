@@ -0,0 +1,10 @@
+package com.rmit.auth_service.common.security;
+
+/**
+ * Thrown when the password hashing executor is saturated and cannot accept more work
+ */
+public class PasswordHashingOverloadedException extends RuntimeException {
+    public PasswordHashingOverloadedException(String message) {
+        super(message);
+    }
+}
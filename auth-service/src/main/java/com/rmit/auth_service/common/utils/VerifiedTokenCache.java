@@ -0,0 +1,96 @@
+package com.rmit.auth_service.common.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of already verified tokens, keyed by the SHA-256 of the token.
+ * Each entry lives until the token's own expiration, so a repeated token skips
+ * signature verification and claim parsing but is never served once expired.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, Claims> cache;
+
+    public VerifiedTokenCache(
+            @Value("${jwt.cache.maximum-size}") long maximumSize,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        // Exposes cache.gets, cache.puts, cache.evictions and cache.size tagged cache=jwt.verified
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified");
+    }
+
+    /**
+     * Return the claims of a token, verifying it only on a cache miss
+     *
+     * @param token the compact JWS
+     * @param verifier full signature verification and parsing, throws if the token is invalid
+     * @return the verified claims
+     */
+    public Claims get(String token, Function<String, Claims> verifier) {
+        String key = hash(token);
+        Claims claims = cache.get(key, ignored -> verifier.apply(token));
+        // Expiration is enforced lazily by Caffeine, so check the claim on every hit
+        if (isExpired(claims)) {
+            cache.invalidate(key);
+            return verifier.apply(token);
+        }
+        return claims;
+    }
+
+    private static boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration == null || !expiration.after(new Date());
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+-- Baseline schema as previously generated by Hibernate (ddl-auto: update)
+-- The unique constraint on email backs findByEmail/existsByEmail
+CREATE TABLE IF NOT EXISTS users (
+    id         UUID         NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    role       VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
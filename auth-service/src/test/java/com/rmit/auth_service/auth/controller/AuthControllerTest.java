@@ -0,0 +1,60 @@
+package com.rmit.auth_service.auth.controller;
+
+import com.rmit.auth_service.auth.dto.AuthResponse;
+import com.rmit.auth_service.auth.dto.LoginRequest;
+import com.rmit.auth_service.auth.dto.RegisterRequest;
+import com.rmit.auth_service.auth.service.AuthService;
+import com.rmit.auth_service.common.security.PasswordHashingOverloadedException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthControllerTest {
+
+	@Mock
+	private AuthService authService;
+
+	@InjectMocks
+	private AuthController authController;
+
+	@Test
+	void overloadedRegisterIsServiceUnavailable() {
+		when(authService.register(any())).thenThrow(new PasswordHashingOverloadedException("Too many concurrent password hashes"));
+
+		ResponseEntity<AuthResponse> response = authController.register(new RegisterRequest("user@example.com", "secret-password", "USER"));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+		assertThat(response.getBody().getMessage()).contains("Too many concurrent");
+	}
+
+	@Test
+	void overloadedLoginIsServiceUnavailable() {
+		when(authService.login(any())).thenThrow(new PasswordHashingOverloadedException("Password hashing timed out"));
+
+		ResponseEntity<AuthResponse> response = authController.login(new LoginRequest("user@example.com", "secret-password"));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+	}
+
+	@Test
+	void otherLoginFailuresStayUnauthorized() {
+		when(authService.login(any())).thenThrow(new RuntimeException("Invalid email or password"));
+
+		ResponseEntity<AuthResponse> response = authController.login(new LoginRequest("user@example.com", "wrong-password"));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+		assertThat(response.getHeaders().containsKey(HttpHeaders.RETRY_AFTER)).isFalse();
+	}
+}
@@ -0,0 +1,154 @@
+package com.rmit.auth_service.auth.service.impl;
+
+import com.rmit.auth_service.auth.dto.AuthResponse;
+import com.rmit.auth_service.auth.dto.LoginRequest;
+import com.rmit.auth_service.auth.dto.RegisterRequest;
+import com.rmit.auth_service.auth.entity.User;
+import com.rmit.auth_service.auth.repo.UserRepository;
+import com.rmit.auth_service.common.security.PasswordHasher;
+import com.rmit.auth_service.common.security.PasswordHashingOverloadedException;
+import com.rmit.auth_service.common.utils.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceImplTest {
+
+	private static final String EMAIL = "user@example.com";
+	private static final String PASSWORD = "secret-password";
+
+	@Mock
+	private UserRepository userRepository;
+
+	@Mock
+	private PasswordHasher passwordHasher;
+
+	@Mock
+	private JwtUtil jwtUtil;
+
+	@InjectMocks
+	private AuthServiceImpl authService;
+
+	@Test
+	void loginRehashesPasswordsBelowTheCurrentCost() {
+		User user = user("old-hash");
+		when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+		when(passwordHasher.matches(PASSWORD, "old-hash")).thenReturn(true);
+		when(passwordHasher.needsUpgrade("old-hash")).thenReturn(true);
+		when(passwordHasher.encode(PASSWORD)).thenReturn("new-hash");
+		when(jwtUtil.generateToken(anyString(), anyMap())).thenReturn("token");
+
+		AuthResponse response = authService.login(new LoginRequest(EMAIL, PASSWORD));
+
+		assertThat(response.getToken()).isEqualTo("token");
+		assertThat(user.getPassword()).isEqualTo("new-hash");
+		verify(userRepository).save(user);
+	}
+
+	@Test
+	void loginKeepsCurrentHashes() {
+		User user = user("current-hash");
+		when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+		when(passwordHasher.matches(PASSWORD, "current-hash")).thenReturn(true);
+		when(passwordHasher.needsUpgrade("current-hash")).thenReturn(false);
+		when(jwtUtil.generateToken(anyString(), anyMap())).thenReturn("token");
+
+		authService.login(new LoginRequest(EMAIL, PASSWORD));
+
+		verify(passwordHasher, never()).encode(anyString());
+		verify(userRepository, never()).save(any());
+	}
+
+	@Test
+	void loginSucceedsWhenTheUpgradeIsShedUnderLoad() {
+		User user = user("old-hash");
+		when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+		when(passwordHasher.matches(PASSWORD, "old-hash")).thenReturn(true);
+		when(passwordHasher.needsUpgrade("old-hash")).thenReturn(true);
+		when(passwordHasher.encode(PASSWORD)).thenThrow(new PasswordHashingOverloadedException("Too many concurrent password hashes"));
+		when(jwtUtil.generateToken(anyString(), anyMap())).thenReturn("token");
+
+		AuthResponse response = authService.login(new LoginRequest(EMAIL, PASSWORD));
+
+		assertThat(response.getToken()).isEqualTo("token");
+		assertThat(user.getPassword()).isEqualTo("old-hash");
+		verify(userRepository, never()).save(any());
+	}
+
+	@Test
+	void loginRejectsWrongPasswords() {
+		when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user("hash")));
+		when(passwordHasher.matches(PASSWORD, "hash")).thenReturn(false);
+
+		assertThatThrownBy(() -> authService.login(new LoginRequest(EMAIL, PASSWORD)))
+				.hasMessage("Invalid email or password");
+		verify(passwordHasher, never()).needsUpgrade(anyString());
+	}
+
+	@Test
+	void registerHashesThenSavesTheUser() {
+		when(userRepository.existsByEmail(EMAIL)).thenReturn(false);
+		when(passwordHasher.encode(PASSWORD)).thenReturn("hash");
+		when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		when(jwtUtil.generateToken(anyString(), anyMap())).thenReturn("token");
+
+		AuthResponse response = authService.register(new RegisterRequest(EMAIL, PASSWORD, "USER"));
+
+		assertThat(response.getToken()).isEqualTo("token");
+		verify(userRepository).save(argThat(user -> "hash".equals(user.getPassword())));
+	}
+
+	@Test
+	void registerDoesNotHashForTakenEmails() {
+		when(userRepository.existsByEmail(EMAIL)).thenReturn(true);
+
+		assertThatThrownBy(() -> authService.register(new RegisterRequest(EMAIL, PASSWORD, "USER")))
+				.hasMessage("Email already exists");
+		verify(passwordHasher, never()).encode(anyString());
+		verify(userRepository, never()).save(any());
+	}
+
+	@Test
+	void registerReportsEmailsTakenConcurrently() {
+		when(userRepository.existsByEmail(EMAIL)).thenReturn(false);
+		when(passwordHasher.encode(PASSWORD)).thenReturn("hash");
+		when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("users_email_key"));
+
+		assertThatThrownBy(() -> authService.register(new RegisterRequest(EMAIL, PASSWORD, "USER")))
+				.hasMessage("Email already exists");
+	}
+
+	@Test
+	void registerPassesOverloadThrough() {
+		when(userRepository.existsByEmail(EMAIL)).thenReturn(false);
+		when(passwordHasher.encode(PASSWORD)).thenThrow(new PasswordHashingOverloadedException("Too many concurrent password hashes"));
+
+		assertThatThrownBy(() -> authService.register(new RegisterRequest(EMAIL, PASSWORD, "USER")))
+				.isInstanceOf(PasswordHashingOverloadedException.class);
+		verify(userRepository, never()).save(any());
+	}
+
+	private static User user(String passwordHash) {
+		return User.builder()
+				.email(EMAIL)
+				.password(passwordHash)
+				.role("USER")
+				.build();
+	}
+}
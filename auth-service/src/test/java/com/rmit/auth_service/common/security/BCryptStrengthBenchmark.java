@@ -0,0 +1,56 @@
+package com.rmit.auth_service.common.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Milliseconds per BCrypt hash for each strength, to choose security.password.bcrypt.strength.
+ * Run it on the slowest hardware the auth service is deployed to and set the highest strength whose
+ * hash still fits the login latency budget on every replica; each step doubles the time.
+ *
+ * Run from the auth-service module with:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.rmit.auth_service.common.security.BCryptStrengthBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BCryptStrengthBenchmark {
+
+	@Param({ "10", "11", "12", "13", "14" })
+	private int strength;
+
+	private BCryptPasswordEncoder encoder;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		encoder = new BCryptPasswordEncoder(strength);
+	}
+
+	@Benchmark
+	public String encode() {
+		return encoder.encode("benchmark-password");
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(BCryptStrengthBenchmark.class.getSimpleName()).build()).run();
+	}
+}
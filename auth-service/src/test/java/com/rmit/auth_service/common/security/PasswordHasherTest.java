@@ -0,0 +1,114 @@
+package com.rmit.auth_service.common.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTest {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final CountDownLatch started = new CountDownLatch(1);
+	private PasswordHasher hasher;
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		if (hasher != null) {
+			hasher.shutdown();
+		}
+	}
+
+	@Test
+	void encodesAndMatchesOnTheHashingExecutor() {
+		hasher = hasher(new BCryptPasswordEncoder(4), 1, 1, 5_000);
+
+		String encoded = hasher.encode("secret-password");
+
+		assertThat(hasher.matches("secret-password", encoded)).isTrue();
+		assertThat(hasher.matches("wrong-password", encoded)).isFalse();
+	}
+
+	@Test
+	void rejectsWorkOnceWorkersAndQueueAreFull() throws Exception {
+		hasher = hasher(blockingEncoder(), 1, 1, 5_000);
+		CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.encode("first"));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hasher.encode("second"));
+		awaitQueued();
+
+		assertThatThrownBy(() -> hasher.encode("third"))
+				.isInstanceOf(PasswordHashingOverloadedException.class)
+				.hasMessageContaining("Too many concurrent");
+
+		release.countDown();
+		assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:first");
+		assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:second");
+	}
+
+	@Test
+	void givesUpOnHashesThatTakeLongerThanTheTimeout() {
+		hasher = hasher(blockingEncoder(), 1, 1, 50);
+
+		assertThatThrownBy(() -> hasher.encode("slow"))
+				.isInstanceOf(PasswordHashingOverloadedException.class)
+				.hasMessageContaining("timed out");
+	}
+
+	@Test
+	void needsUpgradeForHashesBelowTheCurrentCost() {
+		hasher = hasher(new BCryptPasswordEncoder(5), 1, 1, 5_000);
+
+		assertThat(hasher.needsUpgrade(new BCryptPasswordEncoder(4).encode("secret-password"))).isTrue();
+		assertThat(hasher.needsUpgrade(new BCryptPasswordEncoder(5).encode("secret-password"))).isFalse();
+	}
+
+	@Test
+	void keepsHashesAboveTheCurrentCost() {
+		hasher = hasher(new BCryptPasswordEncoder(4), 1, 1, 5_000);
+
+		assertThat(hasher.needsUpgrade(new BCryptPasswordEncoder(6).encode("secret-password"))).isFalse();
+	}
+
+	private void awaitQueued() throws InterruptedException {
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(hasher, "executor");
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (executor.getQueue().isEmpty() && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+
+	private PasswordEncoder blockingEncoder() {
+		return new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				started.countDown();
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return "hashed:" + rawPassword;
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				return encodedPassword.equals(encode(rawPassword));
+			}
+		};
+	}
+
+	private static PasswordHasher hasher(PasswordEncoder encoder, int threads, int queueCapacity, long timeoutMs) {
+		return new PasswordHasher(encoder, new SimpleMeterRegistry(), threads, queueCapacity, timeoutMs);
+	}
+}
@@ -0,0 +1,123 @@
+package com.rmit.auth_service.common.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Compares token validation in tokens/sec before and after JwtUtil kept its key and parser.
+ * legacyValidate repeats the former code: a new HMAC key and parser on every call, and two full
+ * parses per validation. The JwtUtil benchmarks rotate through more tokens than its verified-token
+ * cache holds, so every call verifies the signature, except in repeatedTokenValidate which
+ * measures a cache hit.
+ *
+ * Run from the auth-service module with:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.rmit.auth_service.common.utils.JwtUtilBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+	private static final String SECRET = "benchmark-secret-key-of-at-least-256-bits-for-hmac-sha-signing";
+	private static final long EXPIRATION_MS = 3_600_000;
+	private static final int TOKEN_COUNT = 1024;
+
+	private JwtUtil jwtUtil;
+	private JwtUtil cachingJwtUtil;
+	private String[] tokens;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		// a single-entry cache next to 1024 rotating tokens leaves nearly every call a miss
+		jwtUtil = jwtUtil(1);
+		cachingJwtUtil = jwtUtil(10_000);
+		tokens = new String[TOKEN_COUNT];
+		for (int i = 0; i < TOKEN_COUNT; i++) {
+			tokens[i] = jwtUtil.generateToken(username(i));
+		}
+	}
+
+	@Benchmark
+	public boolean legacyValidate() {
+		int i = nextIndex();
+		return legacyValidateToken(tokens[i], username(i));
+	}
+
+	@Benchmark
+	public boolean jwtUtilValidate() {
+		int i = nextIndex();
+		return jwtUtil.validateToken(tokens[i], username(i));
+	}
+
+	@Benchmark
+	public boolean repeatedTokenValidate() {
+		return cachingJwtUtil.validateToken(tokens[0], username(0));
+	}
+
+	private int nextIndex() {
+		next = (next + 1) % TOKEN_COUNT;
+		return next;
+	}
+
+	private static JwtUtil jwtUtil(long cacheSize) {
+		JwtUtil jwtUtil = new JwtUtil(new VerifiedTokenCache(cacheSize, new SimpleMeterRegistry()));
+		ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+		ReflectionTestUtils.setField(jwtUtil, "expiration", EXPIRATION_MS);
+		jwtUtil.init();
+		return jwtUtil;
+	}
+
+	private static String username(int i) {
+		return "user" + i + "@example.com";
+	}
+
+	// the validation path as it was before JwtUtil kept its key and parser
+	private static boolean legacyValidateToken(String token, String username) {
+		String extractedUsername = legacyExtractAllClaims(token).getSubject();
+		return extractedUsername.equals(username) && !legacyExtractAllClaims(token).getExpiration().before(new Date());
+	}
+
+	private static Claims legacyExtractAllClaims(String token) {
+		return Jwts.parser()
+				.verifyWith(legacySigningKey())
+				.build()
+				.parseSignedClaims(token)
+				.getPayload();
+	}
+
+	private static SecretKey legacySigningKey() {
+		return Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(JwtUtilBenchmark.class.getSimpleName()).build()).run();
+	}
+}
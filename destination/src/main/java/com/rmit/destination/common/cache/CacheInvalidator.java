@@ -0,0 +1,71 @@
+package com.rmit.destination.common.cache;
+
+import java.util.UUID;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.rmit.destination.destination.external.dto.CacheInvalidationEvent;
+import com.rmit.destination.destination.external.dto.DestinationTopicRegistry;
+import com.rmit.destination.destination.external.service.EventProducer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Evicts cached entries on this instance and broadcasts the eviction to every replica
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidator {
+
+  private final CacheManager cacheManager;
+  private final EventProducer eventProducer;
+
+  /**
+   * Invalidate an entry everywhere. Inside a transaction the eviction is deferred
+   * until after commit so no replica can reload the old row in the meantime.
+   *
+   * @param cacheName the cache holding the entry
+   * @param id the entity id used as cache key
+   */
+  public void invalidate(String cacheName, UUID id) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          evictAndPublish(cacheName, id);
+        }
+      });
+    } else {
+      evictAndPublish(cacheName, id);
+    }
+  }
+
+  /**
+   * Evict an entry on this instance only (used when applying remote invalidations)
+   */
+  public void evictLocal(String cacheName, UUID id) {
+    Cache cache = cacheManager.getCache(cacheName);
+    if (cache != null) {
+      cache.evict(id);
+    }
+  }
+
+  private void evictAndPublish(String cacheName, UUID id) {
+    evictLocal(cacheName, id);
+    try {
+      eventProducer.send(
+          DestinationTopicRegistry.Topic.CACHE_INVALIDATE,
+          id.toString(),
+          CacheInvalidationEvent.builder().cacheName(cacheName).id(id).build());
+    } catch (RuntimeException e) {
+      // Remote replicas still converge through the cache TTL
+      log.warn("Failed to publish cache invalidation for {} {}", cacheName, id, e);
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.rmit.destination.common.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables Spring Cache; the Caffeine cache manager and its size/TTL spec
+ * come from spring.cache.* in application.yml
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+  public static final String DESTINATIONS = "destinations";
+}
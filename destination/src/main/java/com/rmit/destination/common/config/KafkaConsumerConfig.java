@@ -1,41 +1,103 @@
 package com.rmit.destination.common.config;
 
+import java.util.Properties;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.ContainerProperties.AckMode;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 
-import com.rmit.destination.destination.external.dto.DestinationTopicRegistry;
-import com.rmit.destination.destination.external.dto.RouteTopicRegistry;
+import com.rmit.destination.destination.kafka.ChunkedReplyAssembler;
+import com.rmit.destination.destination.kafka.KafkaInstance;
 
 @Configuration
 public class KafkaConsumerConfig {
+
+  @Value("${spring.threads.virtual.enabled}")
+  private boolean virtualThreads;
+
   @Bean
   ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(
       KafkaTemplate<String, Object> kafkaTemplate,
-      ConsumerFactory<String, Object> consumerFactory) {
+      ConsumerFactory<String, Object> consumerFactory,
+      DefaultErrorHandler kafkaErrorHandler) {
     ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
     factory.setConsumerFactory(consumerFactory);
     factory.setReplyTemplate(kafkaTemplate);
+    factory.setCommonErrorHandler(kafkaErrorHandler);
+    useVirtualThreads(factory.getContainerProperties(), "kafka-listener-");
+    return factory;
+  }
+
+  // batch listener factory for high-volume consumers
+  // listeners receive a whole poll and acknowledge it once it has been applied
+  @Bean
+  ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory(
+      ConsumerFactory<String, Object> consumerFactory,
+      DefaultErrorHandler kafkaErrorHandler,
+      @Value("${kafka.consumer.batch.concurrency}") int concurrency,
+      @Value("${kafka.consumer.batch.max-poll-records}") int maxPollRecords,
+      @Value("${kafka.consumer.batch.fetch-min-bytes}") int fetchMinBytes,
+      @Value("${kafka.consumer.batch.fetch-max-wait-ms}") int fetchMaxWaitMs) {
+    ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(consumerFactory);
+    factory.setBatchListener(true);
+    factory.setCommonErrorHandler(kafkaErrorHandler);
+    factory.setConcurrency(concurrency);
+
+    ContainerProperties containerProperties = factory.getContainerProperties();
+    containerProperties.setAckMode(AckMode.MANUAL);
+    useVirtualThreads(containerProperties, "kafka-batch-");
+    Properties consumerProperties = new Properties();
+    consumerProperties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+    consumerProperties.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+    consumerProperties.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+    containerProperties.setKafkaConsumerProperties(consumerProperties);
     return factory;
   }
 
-  // request-reply listener container
+  // request-reply listener container, consumes only the replies addressed to this instance
   @Bean
   public ConcurrentMessageListenerContainer<String, Object> replyListenerContainer(
-      ConsumerFactory<String, Object> consumerFactory) {
+      ConsumerFactory<String, Object> consumerFactory,
+      KafkaInstance kafkaInstance) {
 
-    ContainerProperties containerProperties = new ContainerProperties(
-        // reply topics will be added dynamically based on request-reply pattern
-        DestinationTopicRegistry.Topic.TEST_REQUEST_REPLY_RES,
-        DestinationTopicRegistry.Topic.LIST_RES,
-        RouteTopicRegistry.Topic.TEST_REQUEST_REPLY_RES,
-        RouteTopicRegistry.Topic.LIST_RES);
+    ContainerProperties containerProperties = new ContainerProperties(kafkaInstance.getReplyTopic());
+    containerProperties.setGroupId(kafkaInstance.getReplyGroupId());
+    useVirtualThreads(containerProperties, "kafka-reply-");
 
     return new ConcurrentMessageListenerContainer<>(consumerFactory, containerProperties);
   }
-}
 
+  // chunked request-reply listener container, chunks are reassembled by correlation id
+  @Bean
+  public ConcurrentMessageListenerContainer<String, Object> chunkedReplyListenerContainer(
+      ConsumerFactory<String, Object> consumerFactory,
+      ChunkedReplyAssembler chunkedReplyAssembler,
+      KafkaInstance kafkaInstance) {
+
+    ContainerProperties containerProperties = new ContainerProperties(kafkaInstance.getChunkReplyTopic());
+    containerProperties.setGroupId(kafkaInstance.getReplyGroupId() + "-chunk");
+    containerProperties.setMessageListener(chunkedReplyAssembler);
+    useVirtualThreads(containerProperties, "kafka-chunked-reply-");
+
+    return new ConcurrentMessageListenerContainer<>(consumerFactory, containerProperties);
+  }
+
+  // consumer threads spend most of their time blocked in poll and JDBC, so they can be virtual
+  private void useVirtualThreads(ContainerProperties containerProperties, String threadNamePrefix) {
+    if (virtualThreads) {
+      SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+      executor.setVirtualThreads(true);
+      containerProperties.setListenerTaskExecutor(executor);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.rmit.destination.common.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Retry policies bound from kafka.retry.
+ * request and broadcast are the defaults for request topics and for broadcast/batch listeners.
+ * topics overrides them for single topics, e.g. kafka.retry.topics.[destination.lookup_req].attempts;
+ * any value a topic leaves out is taken from the default it overrides.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("kafka.retry")
+public class KafkaRetryProperties {
+
+  private Policy request = new Policy();
+  private Policy broadcast = new Policy();
+  private Map<String, Policy> topics = new HashMap<>();
+
+  public Policy requestPolicy(String topic) {
+    return policy(topic, request);
+  }
+
+  public Policy broadcastPolicy(String topic) {
+    return policy(topic, broadcast);
+  }
+
+  private Policy policy(String topic, Policy defaults) {
+    Policy override = topics.get(topic);
+    return override == null ? defaults : override.orElse(defaults);
+  }
+
+  @Getter
+  @Setter
+  public static class Policy {
+
+    private Integer attempts;
+    private Long initialIntervalMs;
+    private Double multiplier;
+    private Long maxIntervalMs;
+
+    Policy orElse(Policy defaults) {
+      Policy merged = new Policy();
+      merged.setAttempts(attempts != null ? attempts : defaults.getAttempts());
+      merged.setInitialIntervalMs(initialIntervalMs != null ? initialIntervalMs : defaults.getInitialIntervalMs());
+      merged.setMultiplier(multiplier != null ? multiplier : defaults.getMultiplier());
+      merged.setMaxIntervalMs(maxIntervalMs != null ? maxIntervalMs : defaults.getMaxIntervalMs());
+      return merged;
+    }
+
+    // in-place retries: attempts counts the first delivery, the backoff only the retries after it
+    public ExponentialBackOff toBackOff() {
+      ExponentialBackOff backOff = new ExponentialBackOff(initialIntervalMs, multiplier);
+      backOff.setMaxInterval(maxIntervalMs);
+      backOff.setMaxAttempts(attempts - 1);
+      return backOff;
+    }
+  }
+}
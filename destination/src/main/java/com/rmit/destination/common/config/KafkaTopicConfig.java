@@ -0,0 +1,45 @@
+package com.rmit.destination.common.config;
+
+import java.time.Duration;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import com.rmit.destination.destination.external.dto.DestinationTopicRegistry;
+import com.rmit.destination.destination.kafka.KafkaInstance;
+
+/**
+ * Topics owned by this service that need non-default settings
+ */
+@Configuration
+public class KafkaTopicConfig {
+  // entity change events keep the latest event per entity id, so consumers can rebuild state from offset 0
+  @Bean
+  public NewTopic changedTopic() {
+    return TopicBuilder.name(DestinationTopicRegistry.Topic.CHANGED)
+        .compact()
+        .build();
+  }
+
+  // replies are read within the request timeout, so the per-instance reply topics keep them only briefly
+  @Bean
+  public NewTopic replyTopic(KafkaInstance kafkaInstance, @Value("${kafka.reply.retention}") Duration retention) {
+    return shortLivedTopic(kafkaInstance.getReplyTopic(), retention);
+  }
+
+  @Bean
+  public NewTopic chunkReplyTopic(KafkaInstance kafkaInstance, @Value("${kafka.reply.retention}") Duration retention) {
+    return shortLivedTopic(kafkaInstance.getChunkReplyTopic(), retention);
+  }
+
+  private static NewTopic shortLivedTopic(String name, Duration retention) {
+    return TopicBuilder.name(name)
+        .partitions(1)
+        .config(TopicConfig.RETENTION_MS_CONFIG, Long.toString(retention.toMillis()))
+        .build();
+  }
+}
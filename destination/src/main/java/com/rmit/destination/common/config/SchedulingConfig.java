@@ -0,0 +1,12 @@
+package com.rmit.destination.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled jobs such as the outbox relay
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
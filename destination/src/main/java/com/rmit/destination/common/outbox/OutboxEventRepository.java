@@ -0,0 +1,39 @@
+package com.rmit.destination.common.outbox;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+  @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL ORDER BY e.id")
+  List<OutboxEvent> findUnpublished(Pageable pageable);
+
+  // lease shared by all instances, so a single relay drains the outbox at a time and keeps the order;
+  // taken when free or expired, or extended by its holder
+  @Modifying
+  @Query(value = "UPDATE outbox_relay_lease SET owner = :owner, lease_until = now() + make_interval(secs => :seconds) "
+      + "WHERE id = 1 AND (owner = :owner OR lease_until < now())", nativeQuery = true)
+  int tryAcquireRelayLease(@Param("owner") String owner, @Param("seconds") double seconds);
+
+  @Modifying
+  @Query(value = "UPDATE outbox_relay_lease SET owner = NULL, lease_until = now() WHERE id = 1 AND owner = :owner",
+      nativeQuery = true)
+  int releaseRelayLease(@Param("owner") String owner);
+
+  @Modifying
+  @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+  int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+  @Modifying
+  @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :before")
+  int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,180 @@
+package com.rmit.destination.common.outbox;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+import com.rmit.destination.destination.external.service.PayloadCodec;
+import com.rmit.destination.destination.kafka.KafkaTemplateRouter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the outbox to Kafka, keeping the id order of every aggregate's events.
+ * The events of one aggregate are sent one at a time and a failure holds back the rest of them,
+ * while different aggregates are sent side by side. Only the instance holding the relay lease sends;
+ * it renews the lease before every wave of sends, so no transaction or connection is held while
+ * waiting for the broker. The acknowledged events of a wave are then marked published in their own
+ * short transaction, so a crash in between re-sends them: delivery is at least once.
+ * Consumers drop such redeliveries by the event-id header, see RedeliveredEventFilter.
+ * The route service has a copy of this class, there is no module shared by both services;
+ * change both together.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+  public static final String EVENT_ID_HEADER = "event-id";
+  public static final String EVENT_TYPE_HEADER = "event-type";
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final KafkaTemplateRouter kafkaTemplateRouter;
+  private final TransactionTemplate transactionTemplate;
+  private final String relayId = UUID.randomUUID().toString();
+
+  @Value("${outbox.relay.batch-size}")
+  private int batchSize;
+
+  @Value("${outbox.relay.send-timeout}")
+  private Duration sendTimeout;
+
+  @Value("${outbox.relay.lease}")
+  private Duration lease;
+
+  @Value("${outbox.retention}")
+  private Duration retention;
+
+  @Scheduled(fixedDelayString = "${outbox.relay.poll-interval}")
+  public void relay() {
+    // keep draining while batches come back full, e.g. after a broker outage
+    int published;
+    do {
+      published = relayBatch();
+    } while (published == batchSize);
+  }
+
+  @Scheduled(fixedDelayString = "${outbox.cleanup-interval}")
+  public void cleanup() {
+    Integer deleted = transactionTemplate.execute(status ->
+        outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+    if (deleted != null && deleted > 0) {
+      log.debug("Deleted {} published outbox events", deleted);
+    }
+  }
+
+  @PreDestroy
+  void releaseLease() {
+    transactionTemplate.execute(status -> outboxEventRepository.releaseRelayLease(relayId));
+  }
+
+  private int relayBatch() {
+    if (!renewLease()) {
+      return 0;
+    }
+    List<OutboxEvent> events = outboxEventRepository.findUnpublished(PageRequest.ofSize(batchSize));
+    if (events.isEmpty()) {
+      return 0;
+    }
+
+    // events of one aggregate queue up in id order and are sent one at a time
+    Map<UUID, Deque<OutboxEvent>> pending = new LinkedHashMap<>();
+    for (OutboxEvent event : events) {
+      pending.computeIfAbsent(event.getAggregateId(), aggregateId -> new ArrayDeque<>()).add(event);
+    }
+
+    int published = 0;
+    boolean first = true;
+    while (!pending.isEmpty() && !Thread.currentThread().isInterrupted()) {
+      // another instance may take over once the lease runs out, and would send the same events
+      if (!first && !renewLease()) {
+        log.warn("Outbox relay: lost the relay lease, leaving the rest of the batch to its new holder");
+        break;
+      }
+      first = false;
+
+      // the oldest unsent event of every aggregate goes out together, then all are awaited
+      Map<UUID, CompletableFuture<SendResult<String, Object>>> sends = new LinkedHashMap<>();
+      pending.forEach((aggregateId, queue) -> {
+        OutboxEvent next = queue.peek();
+        sends.put(aggregateId, kafkaTemplateRouter.forTopic(next.getTopic()).send(toRecord(next)));
+      });
+
+      long deadline = System.nanoTime() + sendTimeout.toNanos();
+      List<Long> acknowledgedIds = new ArrayList<>(sends.size());
+      sends.forEach((aggregateId, send) -> {
+        Deque<OutboxEvent> queue = pending.get(aggregateId);
+        OutboxEvent event = queue.poll();
+        if (!acknowledged(send, event, deadline)) {
+          // the aggregate's later events stay unsent until the next poll, so none can overtake this one
+          pending.remove(aggregateId);
+        } else {
+          acknowledgedIds.add(event.getId());
+          if (queue.isEmpty()) {
+            pending.remove(aggregateId);
+          }
+        }
+      });
+
+      if (!acknowledgedIds.isEmpty()) {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.execute(status -> outboxEventRepository.markPublished(acknowledgedIds, now));
+        published += acknowledgedIds.size();
+      }
+    }
+
+    if (published > 0) {
+      log.debug("Outbox relay: published {} events", published);
+    }
+    return published == events.size() ? events.size() : 0;
+  }
+
+  // takes the lease when it is free or expired, extends it when this instance already holds it
+  private boolean renewLease() {
+    Integer renewed = transactionTemplate.execute(status ->
+        outboxEventRepository.tryAcquireRelayLease(relayId, lease.toMillis() / 1000.0));
+    return renewed != null && renewed == 1;
+  }
+
+  private boolean acknowledged(CompletableFuture<SendResult<String, Object>> send, OutboxEvent event, long deadline) {
+    try {
+      send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (Exception e) {
+      log.warn("Outbox relay: failed to publish event {} to {}, retrying next poll", event.getId(), event.getTopic(), e);
+      return false;
+    }
+  }
+
+  private ProducerRecord<String, Object> toRecord(OutboxEvent event) {
+    ProducerRecord<String, Object> record = new ProducerRecord<>(
+        event.getTopic(), event.getAggregateId().toString(), event.getPayload());
+    record.headers().add(PayloadCodec.CONTENT_TYPE_HEADER, event.getContentType().getBytes(StandardCharsets.UTF_8));
+    record.headers().add(EVENT_ID_HEADER, event.getId().toString().getBytes(StandardCharsets.UTF_8));
+    record.headers().add(EVENT_TYPE_HEADER, event.getEventType().getBytes(StandardCharsets.UTF_8));
+    return record;
+  }
+}
@@ -0,0 +1,49 @@
+package com.rmit.destination.common.outbox;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.rmit.destination.destination.external.service.PayloadCodec;
+import com.rmit.destination.destination.kafka.PayloadCodecs;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Records events in the outbox as part of the caller's transaction.
+ * The event only becomes visible to the relay, and so to Kafka, if the entity change commits.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final PayloadCodecs payloadCodecs;
+
+  /**
+   * Add an event to the outbox
+   *
+   * @param topic the topic the event is published to
+   * @param aggregateId the id of the changed entity, used as record key
+   * @param eventType the kind of change
+   * @param event the event payload
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void record(String topic, UUID aggregateId, String eventType, Object event) {
+    PayloadCodec codec = payloadCodecs.defaultCodec();
+    try {
+      outboxEventRepository.save(OutboxEvent.builder()
+          .topic(topic)
+          .aggregateId(aggregateId)
+          .eventType(eventType)
+          .contentType(codec.contentType())
+          .payload(codec.encode(event))
+          .build());
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to serialize outbox event for topic: " + topic, e);
+    }
+  }
+}
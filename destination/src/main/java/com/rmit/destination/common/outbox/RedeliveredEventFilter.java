@@ -0,0 +1,52 @@
+package com.rmit.destination.common.outbox;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+
+/**
+ * Recognises outbox events a consumer has already applied, by their event-id header.
+ * The relay sends the events of one aggregate in id order, so an event whose id is not above the last
+ * one applied for the same record key is a redelivery (or an older state overtaken by a newer one).
+ * Holds one id per key in memory, which suits consumers whose own state is in memory and rebuilt
+ * from the topic at startup. Records without the header are always applied.
+ * The route service has a copy of this class.
+ */
+public class RedeliveredEventFilter {
+
+  private final Map<String, Long> lastAppliedIds = new ConcurrentHashMap<>();
+
+  /**
+   * @return true if an event with the same or a later id was already applied for the record's key
+   */
+  public boolean isRedelivery(ConsumerRecord<String, ?> record) {
+    Long eventId = eventId(record);
+    if (eventId == null) {
+      return false;
+    }
+    Long lastApplied = lastAppliedIds.get(record.key());
+    return lastApplied != null && eventId <= lastApplied;
+  }
+
+  /**
+   * Remember the record's event as applied, only call once it was applied successfully
+   * so a failed record is not skipped when it is retried
+   */
+  public void applied(ConsumerRecord<String, ?> record) {
+    Long eventId = eventId(record);
+    if (eventId != null) {
+      lastAppliedIds.merge(record.key(), eventId, Math::max);
+    }
+  }
+
+  private static Long eventId(ConsumerRecord<String, ?> record) {
+    Header header = record.headers().lastHeader(OutboxRelay.EVENT_ID_HEADER);
+    if (header == null || record.key() == null) {
+      return null;
+    }
+    return Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+  }
+}
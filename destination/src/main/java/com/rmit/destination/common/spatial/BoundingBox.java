@@ -0,0 +1,65 @@
+package com.rmit.destination.common.spatial;
+
+/**
+ * Latitude/longitude rectangle, edges included.
+ * A box whose minLongitude is greater than its maxLongitude crosses the antimeridian.
+ */
+public record BoundingBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude)
+    implements Region {
+
+  public BoundingBox {
+    if (!(minLatitude >= -90 && maxLatitude <= 90 && minLatitude <= maxLatitude)) {
+      throw new IllegalArgumentException("Invalid latitude range: " + minLatitude + " to " + maxLatitude);
+    }
+    if (!(minLongitude >= -180 && minLongitude <= 180 && maxLongitude >= -180 && maxLongitude <= 180)) {
+      throw new IllegalArgumentException("Invalid longitude range: " + minLongitude + " to " + maxLongitude);
+    }
+  }
+
+  public boolean crossesAntimeridian() {
+    return minLongitude > maxLongitude;
+  }
+
+  @Override
+  public BoundingBox bounds() {
+    return this;
+  }
+
+  @Override
+  public boolean contains(double latitude, double longitude) {
+    if (latitude < minLatitude || latitude > maxLatitude) {
+      return false;
+    }
+    return crossesAntimeridian()
+        ? longitude >= minLongitude || longitude <= maxLongitude
+        : longitude >= minLongitude && longitude <= maxLongitude;
+  }
+
+  @Override
+  public Coverage cover(double cellMinLatitude, double cellMinLongitude, double cellMaxLatitude, double cellMaxLongitude) {
+    Coverage latitudeCoverage = coverInterval(cellMinLatitude, cellMaxLatitude, minLatitude, maxLatitude);
+    if (latitudeCoverage == Coverage.NONE) {
+      return Coverage.NONE;
+    }
+    Coverage longitudeCoverage = crossesAntimeridian()
+        ? max(coverInterval(cellMinLongitude, cellMaxLongitude, minLongitude, 180),
+            coverInterval(cellMinLongitude, cellMaxLongitude, -180, maxLongitude))
+        : coverInterval(cellMinLongitude, cellMaxLongitude, minLongitude, maxLongitude);
+    return min(latitudeCoverage, longitudeCoverage);
+  }
+
+  private static Coverage coverInterval(double cellMin, double cellMax, double min, double max) {
+    if (cellMax < min || cellMin > max) {
+      return Coverage.NONE;
+    }
+    return cellMin >= min && cellMax <= max ? Coverage.FULL : Coverage.PARTIAL;
+  }
+
+  private static Coverage min(Coverage a, Coverage b) {
+    return a.ordinal() <= b.ordinal() ? a : b;
+  }
+
+  private static Coverage max(Coverage a, Coverage b) {
+    return a.ordinal() >= b.ordinal() ? a : b;
+  }
+}
@@ -0,0 +1,40 @@
+package com.rmit.destination.common.spatial;
+
+/**
+ * Great-circle distances on a spherical earth, accurate to about 0.5%
+ */
+public final class GeoDistance {
+
+  public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+  private GeoDistance() {
+  }
+
+  /**
+   * Haversine distance between two points given in degrees
+   */
+  public static double meters(double lat1, double lon1, double lat2, double lon2) {
+    double phi1 = Math.toRadians(lat1);
+    double phi2 = Math.toRadians(lat2);
+    double sinDeltaPhi = Math.sin((phi2 - phi1) / 2);
+    double sinDeltaLambda = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+    double a = sinDeltaPhi * sinDeltaPhi + Math.cos(phi1) * Math.cos(phi2) * sinDeltaLambda * sinDeltaLambda;
+    return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+  }
+
+  /**
+   * Shortest distance from a point to the meridian lying deltaLongitude degrees east or west of it.
+   * A lower bound for any point at least that far away in longitude.
+   */
+  public static double metersToMeridian(double lat, double deltaLongitude) {
+    double delta = Math.toRadians(Math.min(Math.abs(deltaLongitude), 90));
+    return EARTH_RADIUS_METERS * Math.asin(Math.cos(Math.toRadians(lat)) * Math.sin(delta));
+  }
+
+  /**
+   * Distance along a meridian for a latitude difference in degrees
+   */
+  public static double metersForLatitude(double deltaLatitude) {
+    return EARTH_RADIUS_METERS * Math.toRadians(Math.abs(deltaLatitude));
+  }
+}
@@ -0,0 +1,433 @@
+package com.rmit.destination.common.spatial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory point index over a uniform latitude/longitude grid.
+ * Coordinates live in parallel primitive arrays and every occupied cell keeps the slots of its
+ * points, so a query only touches the cells around its search area. Nearest neighbours are found
+ * by scanning rings of cells outwards until no unvisited cell can hold a closer point. Range queries
+ * only visit the cells overlapping the region and test single points only in partially covered cells.
+ * Removed points leave a tombstone with the version of their removal, so a late put of an older
+ * version cannot bring them back. Queries share a read lock, changes take the write lock.
+ */
+public class GridIndex {
+
+  /**
+   * A point returned by a query, with its distance from the query point
+   */
+  public record Hit(UUID id, double latitude, double longitude, double distanceMeters) {
+  }
+
+  /**
+   * A point returned by a range query
+   */
+  public record Point(UUID id, double latitude, double longitude) {
+  }
+
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final Comparator<Hit> FARTHEST_FIRST = Comparator.comparingDouble(Hit::distanceMeters).reversed();
+  private static final Comparator<Point> HIGHEST_ID_FIRST = Comparator.comparing(Point::id).reversed();
+
+  private final double rowDegrees;
+  private final double columnDegrees;
+  private final int rows;
+  private final int columns;
+  // column offsets that reach every column exactly once when wrapping around the antimeridian
+  private final int minColumnOffset;
+  private final int maxColumnOffset;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<UUID, Integer> slotsById = new HashMap<>();
+  private final Map<Long, Cell> cells = new HashMap<>();
+  private final Map<UUID, Long> tombstones = new HashMap<>();
+  private UUID[] ids = new UUID[INITIAL_CAPACITY];
+  private double[] latitudes = new double[INITIAL_CAPACITY];
+  private double[] longitudes = new double[INITIAL_CAPACITY];
+  private long[] versions = new long[INITIAL_CAPACITY];
+  private long[] cellKeys = new long[INITIAL_CAPACITY];
+  private int[] freeSlots = new int[INITIAL_CAPACITY];
+  private int freeCount;
+  private int nextSlot;
+
+  /**
+   * @param cellDegrees approximate cell edge in degrees, rounded so the cells tile the globe exactly
+   */
+  public GridIndex(double cellDegrees) {
+    if (!(cellDegrees > 0 && cellDegrees <= 10)) {
+      throw new IllegalArgumentException("Cell size must be in (0, 10] degrees: " + cellDegrees);
+    }
+    this.rows = (int) Math.round(180 / cellDegrees);
+    this.columns = (int) Math.round(360 / cellDegrees);
+    this.rowDegrees = 180.0 / rows;
+    this.columnDegrees = 360.0 / columns;
+    this.minColumnOffset = -(columns / 2);
+    this.maxColumnOffset = (columns - 1) / 2;
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return slotsById.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Insert a point or move it to new coordinates.
+   * A version older than the stored one is ignored, so replayed changes cannot undo newer ones,
+   * and so is one that is not newer than the point's removal.
+   *
+   * @return true if the point was stored
+   */
+  public boolean put(UUID id, double latitude, double longitude, long version) {
+    checkCoordinates(latitude, longitude);
+    double lon = normalizeLongitude(longitude);
+    long key = cellKey(row(latitude), column(lon));
+
+    lock.writeLock().lock();
+    try {
+      Long removedAt = tombstones.get(id);
+      if (removedAt != null) {
+        if (version <= removedAt) {
+          return false;
+        }
+        tombstones.remove(id);
+      }
+      Integer existing = slotsById.get(id);
+      int slot;
+      if (existing != null) {
+        slot = existing;
+        if (version < versions[slot]) {
+          return false;
+        }
+        if (cellKeys[slot] != key) {
+          removeFromCell(cellKeys[slot], slot);
+          cells.computeIfAbsent(key, k -> new Cell()).add(slot);
+        }
+      } else {
+        slot = allocateSlot();
+        ids[slot] = id;
+        slotsById.put(id, slot);
+        cells.computeIfAbsent(key, k -> new Cell()).add(slot);
+      }
+      latitudes[slot] = latitude;
+      longitudes[slot] = lon;
+      versions[slot] = version;
+      cellKeys[slot] = key;
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Remove a point and keep a tombstone, so puts up to this version are ignored afterwards.
+   * The tombstone also covers the removed point's own version, should that be the later one.
+   *
+   * @return true if the point was present
+   */
+  public boolean remove(UUID id, long version) {
+    lock.writeLock().lock();
+    try {
+      Integer slot = slotsById.remove(id);
+      long removedAt = slot == null ? version : Math.max(version, versions[slot]);
+      tombstones.merge(id, removedAt, Math::max);
+      if (slot == null) {
+        return false;
+      }
+      removeFromCell(cellKeys[slot], slot);
+      ids[slot] = null;
+      if (freeCount == freeSlots.length) {
+        freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+      }
+      freeSlots[freeCount++] = slot;
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Forget the tombstones of removals before a version, once no late put of them can arrive anymore
+   *
+   * @return the number of tombstones dropped
+   */
+  public int pruneTombstones(long beforeVersion) {
+    lock.writeLock().lock();
+    try {
+      int before = tombstones.size();
+      tombstones.values().removeIf(removedAt -> removedAt < beforeVersion);
+      return before - tombstones.size();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * The k points closest to a location, nearest first
+   *
+   * @param maxDistanceMeters points farther away are never returned
+   */
+  public List<Hit> nearest(double latitude, double longitude, int k, double maxDistanceMeters) {
+    checkCoordinates(latitude, longitude);
+    if (k <= 0) {
+      return List.of();
+    }
+    double lon = normalizeLongitude(longitude);
+    int centerRow = row(latitude);
+    int centerColumn = column(lon);
+    PriorityQueue<Hit> best = new PriorityQueue<>(k + 1, FARTHEST_FIRST);
+
+    lock.readLock().lock();
+    try {
+      if (slotsById.isEmpty()) {
+        return List.of();
+      }
+      int maxRing = Math.max(rows, columns);
+      for (int ring = 0; ring <= maxRing; ring++) {
+        scanRing(latitude, lon, centerRow, centerColumn, ring, k, maxDistanceMeters, best);
+        double limit = best.size() == k ? Math.min(best.peek().distanceMeters(), maxDistanceMeters) : maxDistanceMeters;
+        if (distanceBeyondRing(latitude, lon, centerRow, centerColumn, ring) > limit) {
+          break;
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    List<Hit> hits = new ArrayList<>(best);
+    hits.sort(FARTHEST_FIRST.reversed());
+    return hits;
+  }
+
+  /**
+   * Points inside a region in id order, one page at a time.
+   * The page is kept in a bounded heap, so a dense region costs one pass over its cells rather than a sort.
+   *
+   * @param afterId only ids greater than this are returned, null for the first page
+   * @param limit   page size
+   */
+  public List<Point> within(Region region, UUID afterId, int limit) {
+    if (limit <= 0) {
+      return List.of();
+    }
+    BoundingBox bounds = region.bounds();
+    int minRow = row(bounds.minLatitude());
+    int maxRow = row(bounds.maxLatitude());
+    int minColumn = column(normalizeLongitude(bounds.minLongitude()));
+    int maxColumn = lastColumn(bounds.maxLongitude());
+    boolean wraps = bounds.crossesAntimeridian();
+    long columnSpan = wraps ? Math.min(columns, columns - minColumn + maxColumn + 1L) : maxColumn - minColumn + 1L;
+    PriorityQueue<Point> page = new PriorityQueue<>(limit + 1, HIGHEST_ID_FIRST);
+
+    lock.readLock().lock();
+    try {
+      // a large viewport over a sparse index is cheaper to answer from the occupied cells
+      if ((maxRow - minRow + 1L) * columnSpan > cells.size()) {
+        for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+          int row = (int) (entry.getKey() / columns);
+          int column = (int) (entry.getKey() % columns);
+          boolean inColumns = wraps
+              ? column >= minColumn || column <= maxColumn
+              : column >= minColumn && column <= maxColumn;
+          if (row >= minRow && row <= maxRow && inColumns) {
+            collectWithin(entry.getValue(), row, column, region, afterId, limit, page);
+          }
+        }
+      } else {
+        for (int row = minRow; row <= maxRow; row++) {
+          for (long offset = 0; offset < columnSpan; offset++) {
+            int column = (int) ((minColumn + offset) % columns);
+            Cell cell = cells.get(cellKey(row, column));
+            if (cell != null) {
+              collectWithin(cell, row, column, region, afterId, limit, page);
+            }
+          }
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    List<Point> points = new ArrayList<>(page);
+    points.sort(HIGHEST_ID_FIRST.reversed());
+    return points;
+  }
+
+  private void collectWithin(Cell cell, int row, int column, Region region, UUID afterId, int limit,
+      PriorityQueue<Point> page) {
+    Region.Coverage coverage = region.cover(rowStart(row), columnStart(column), rowStart(row + 1), columnStart(column + 1));
+    if (coverage == Region.Coverage.NONE) {
+      return;
+    }
+    for (int i = 0; i < cell.size; i++) {
+      int slot = cell.slots[i];
+      UUID id = ids[slot];
+      if (afterId != null && id.compareTo(afterId) <= 0) {
+        continue;
+      }
+      if (page.size() == limit && id.compareTo(page.peek().id()) >= 0) {
+        continue;
+      }
+      if (coverage == Region.Coverage.PARTIAL && !region.contains(latitudes[slot], longitudes[slot])) {
+        continue;
+      }
+      page.add(new Point(id, latitudes[slot], longitudes[slot]));
+      if (page.size() > limit) {
+        page.poll();
+      }
+    }
+  }
+
+  // visits the cells whose row or column offset from the center is exactly ring
+  private void scanRing(double latitude, double longitude, int centerRow, int centerColumn, int ring, int k,
+      double maxDistanceMeters, PriorityQueue<Hit> best) {
+    for (int rowOffset = -ring; rowOffset <= ring; rowOffset++) {
+      int row = centerRow + rowOffset;
+      if (row < 0 || row >= rows) {
+        continue;
+      }
+      // inner rows of a ring only contribute their two end cells
+      int step = Math.abs(rowOffset) == ring ? 1 : 2 * ring;
+      for (int columnOffset = -ring; columnOffset <= ring; columnOffset += step) {
+        if (columnOffset < minColumnOffset || columnOffset > maxColumnOffset) {
+          continue;
+        }
+        Cell cell = cells.get(cellKey(row, Math.floorMod(centerColumn + columnOffset, columns)));
+        if (cell != null) {
+          collectNearest(cell, latitude, longitude, k, maxDistanceMeters, best);
+        }
+      }
+    }
+  }
+
+  private void collectNearest(Cell cell, double latitude, double longitude, int k, double maxDistanceMeters,
+      PriorityQueue<Hit> best) {
+    for (int i = 0; i < cell.size; i++) {
+      int slot = cell.slots[i];
+      double limit = best.size() == k ? best.peek().distanceMeters() : maxDistanceMeters;
+      // latitude difference alone is a cheap lower bound of the distance
+      if (GeoDistance.metersForLatitude(latitudes[slot] - latitude) > limit) {
+        continue;
+      }
+      double distance = GeoDistance.meters(latitude, longitude, latitudes[slot], longitudes[slot]);
+      if (distance <= limit) {
+        best.add(new Hit(ids[slot], latitudes[slot], longitudes[slot], distance));
+        if (best.size() > k) {
+          best.poll();
+        }
+      }
+    }
+  }
+
+  // lower bound of the distance to any point in a cell that the rings up to this one did not cover
+  private double distanceBeyondRing(double latitude, double longitude, int centerRow, int centerColumn, int ring) {
+    double bound = Double.POSITIVE_INFINITY;
+    if (centerRow + ring + 1 < rows) {
+      bound = Math.min(bound, GeoDistance.metersForLatitude(rowStart(centerRow + ring + 1) - latitude));
+    }
+    if (centerRow - ring - 1 >= 0) {
+      bound = Math.min(bound, GeoDistance.metersForLatitude(latitude - rowStart(centerRow - ring)));
+    }
+    if (ring + 1 <= maxColumnOffset) {
+      bound = Math.min(bound, GeoDistance.metersToMeridian(latitude, columnStart(centerColumn + ring + 1) - longitude));
+    }
+    if (-(ring + 1) >= minColumnOffset) {
+      bound = Math.min(bound, GeoDistance.metersToMeridian(latitude, longitude - columnStart(centerColumn - ring)));
+    }
+    return bound;
+  }
+
+  private int allocateSlot() {
+    if (freeCount > 0) {
+      return freeSlots[--freeCount];
+    }
+    if (nextSlot == ids.length) {
+      int capacity = ids.length * 2;
+      ids = Arrays.copyOf(ids, capacity);
+      latitudes = Arrays.copyOf(latitudes, capacity);
+      longitudes = Arrays.copyOf(longitudes, capacity);
+      versions = Arrays.copyOf(versions, capacity);
+      cellKeys = Arrays.copyOf(cellKeys, capacity);
+    }
+    return nextSlot++;
+  }
+
+  private void removeFromCell(long key, int slot) {
+    Cell cell = cells.get(key);
+    cell.remove(slot);
+    if (cell.size == 0) {
+      cells.remove(key);
+    }
+  }
+
+  private int row(double latitude) {
+    return Math.min(rows - 1, (int) Math.floor((latitude + 90) / rowDegrees));
+  }
+
+  private int column(double longitude) {
+    return Math.floorMod((int) Math.floor((longitude + 180) / columnDegrees), columns);
+  }
+
+  // last column touching a longitude, so an eastern edge of 180 keeps the last column
+  private int lastColumn(double longitude) {
+    return Math.min(columns - 1, (int) Math.floor((longitude + 180) / columnDegrees));
+  }
+
+  private double rowStart(int row) {
+    return row * rowDegrees - 90;
+  }
+
+  // not wrapped, so edges east of the antimeridian stay east of the query longitude
+  private double columnStart(int column) {
+    return column * columnDegrees - 180;
+  }
+
+  private long cellKey(int row, int column) {
+    return (long) row * columns + column;
+  }
+
+  private static double normalizeLongitude(double longitude) {
+    return longitude == 180 ? -180 : longitude;
+  }
+
+  private static void checkCoordinates(double latitude, double longitude) {
+    if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+      throw new IllegalArgumentException("Coordinates out of range: " + latitude + ", " + longitude);
+    }
+  }
+
+  /**
+   * Slots of the points in one grid cell
+   */
+  private static final class Cell {
+    private int[] slots = new int[4];
+    private int size;
+
+    void add(int slot) {
+      if (size == slots.length) {
+        slots = Arrays.copyOf(slots, size * 2);
+      }
+      slots[size++] = slot;
+    }
+
+    void remove(int slot) {
+      for (int i = 0; i < size; i++) {
+        if (slots[i] == slot) {
+          slots[i] = slots[--size];
+          return;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package com.rmit.destination.common.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Simple polygon in latitude/longitude, treated as planar, with the even-odd rule for containment.
+ * The ring is closed implicitly. Polygons crossing the antimeridian are not supported.
+ */
+public final class Polygon implements Region {
+
+  public static final int MAX_VERTICES = 1000;
+
+  private final double[] latitudes;
+  private final double[] longitudes;
+  private final BoundingBox bounds;
+
+  public Polygon(double[] latitudes, double[] longitudes) {
+    if (latitudes.length != longitudes.length) {
+      throw new IllegalArgumentException("Every vertex needs a latitude and a longitude");
+    }
+    int vertices = latitudes.length;
+    // a repeated first vertex is accepted and dropped
+    if (vertices > 3 && latitudes[0] == latitudes[vertices - 1] && longitudes[0] == longitudes[vertices - 1]) {
+      vertices--;
+    }
+    if (vertices < 3 || vertices > MAX_VERTICES) {
+      throw new IllegalArgumentException("A polygon needs between 3 and " + MAX_VERTICES + " vertices");
+    }
+    this.latitudes = Arrays.copyOf(latitudes, vertices);
+    this.longitudes = Arrays.copyOf(longitudes, vertices);
+
+    double minLatitude = 90, maxLatitude = -90, minLongitude = 180, maxLongitude = -180;
+    for (int i = 0; i < vertices; i++) {
+      double lat = latitudes[i];
+      double lon = longitudes[i];
+      if (!(lat >= -90 && lat <= 90) || !(lon >= -180 && lon <= 180)) {
+        throw new IllegalArgumentException("Coordinates out of range: " + lat + ", " + lon);
+      }
+      if (Math.abs(lon - longitudes[(i + 1) % vertices]) > 180) {
+        throw new IllegalArgumentException("Polygons crossing the antimeridian are not supported");
+      }
+      minLatitude = Math.min(minLatitude, lat);
+      maxLatitude = Math.max(maxLatitude, lat);
+      minLongitude = Math.min(minLongitude, lon);
+      maxLongitude = Math.max(maxLongitude, lon);
+    }
+    this.bounds = new BoundingBox(minLatitude, minLongitude, maxLatitude, maxLongitude);
+  }
+
+  public int vertices() {
+    return latitudes.length;
+  }
+
+  @Override
+  public BoundingBox bounds() {
+    return bounds;
+  }
+
+  @Override
+  public boolean contains(double latitude, double longitude) {
+    if (!bounds.contains(latitude, longitude)) {
+      return false;
+    }
+    boolean inside = false;
+    for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+      // edge straddles the horizontal line through the point and crosses it east of the point
+      if ((latitudes[i] > latitude) != (latitudes[j] > latitude)
+          && longitude < longitudes[j] + (latitude - latitudes[j])
+              * (longitudes[i] - longitudes[j]) / (latitudes[i] - latitudes[j])) {
+        inside = !inside;
+      }
+    }
+    return inside;
+  }
+
+  /**
+   * A cell no edge passes through lies entirely inside or entirely outside, so its center decides
+   */
+  @Override
+  public Coverage cover(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+    if (bounds.cover(minLatitude, minLongitude, maxLatitude, maxLongitude) == Coverage.NONE) {
+      return Coverage.NONE;
+    }
+    for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+      if (segmentIntersects(latitudes[j], longitudes[j], latitudes[i], longitudes[i],
+          minLatitude, minLongitude, maxLatitude, maxLongitude)) {
+        return Coverage.PARTIAL;
+      }
+    }
+    return contains((minLatitude + maxLatitude) / 2, (minLongitude + maxLongitude) / 2)
+        ? Coverage.FULL
+        : Coverage.NONE;
+  }
+
+  // Liang-Barsky clipping of the segment against the closed rectangle
+  private static boolean segmentIntersects(double lat1, double lon1, double lat2, double lon2,
+      double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+    double dLon = lon2 - lon1;
+    double dLat = lat2 - lat1;
+    double[] p = {-dLon, dLon, -dLat, dLat};
+    double[] q = {lon1 - minLongitude, maxLongitude - lon1, lat1 - minLatitude, maxLatitude - lat1};
+    double enter = 0;
+    double exit = 1;
+    for (int i = 0; i < 4; i++) {
+      if (p[i] == 0) {
+        if (q[i] < 0) {
+          return false;
+        }
+      } else {
+        double t = q[i] / p[i];
+        if (p[i] < 0) {
+          enter = Math.max(enter, t);
+        } else {
+          exit = Math.min(exit, t);
+        }
+        if (enter > exit) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,27 @@
+package com.rmit.destination.common.spatial;
+
+/**
+ * An area on the map that index range queries can prune with
+ */
+public interface Region {
+
+  /**
+   * How much of a grid cell lies inside a region
+   */
+  enum Coverage {
+    NONE, PARTIAL, FULL
+  }
+
+  /**
+   * @return a box enclosing the whole region
+   */
+  BoundingBox bounds();
+
+  boolean contains(double latitude, double longitude);
+
+  /**
+   * Classify a cell so fully covered cells skip the per-point test and uncovered ones are skipped entirely.
+   * The cell never crosses the antimeridian.
+   */
+  Coverage cover(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude);
+}
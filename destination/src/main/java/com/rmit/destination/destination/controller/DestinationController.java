@@ -1,15 +1,24 @@
 package com.rmit.destination.destination.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rmit.destination.destination.dto.DestinationPageResponse;
 import com.rmit.destination.destination.dto.DestinationRequest;
 import com.rmit.destination.destination.dto.DestinationResponse;
+import com.rmit.destination.destination.dto.PolygonSearchRequest;
 import com.rmit.destination.destination.service.DestinationService;
+import com.rmit.destination.destination.spatial.SpatialIndexNotReadyException;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,7 +27,10 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class DestinationController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final DestinationService destinationService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<DestinationResponse> createDestination(@Valid @RequestBody DestinationRequest request) {
@@ -52,6 +64,90 @@ public class DestinationController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<DestinationPageResponse> getDestinationsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            DestinationPageResponse response = destinationService.getDestinationsPage(cursor, size);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<List<DestinationResponse>> getNearbyDestinations(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "1000") double radius,
+            @RequestParam(defaultValue = "10") int k) {
+        try {
+            List<DestinationResponse> response = destinationService.findNearbyDestinations(lat, lon, radius, k);
+            return ResponseEntity.ok(response);
+        } catch (SpatialIndexNotReadyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/within-box")
+    public ResponseEntity<DestinationPageResponse> getDestinationsInBox(
+            @RequestParam double minLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLat,
+            @RequestParam double maxLon,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            DestinationPageResponse response =
+                    destinationService.findDestinationsInBox(minLat, minLon, maxLat, maxLon, cursor, size);
+            return ResponseEntity.ok(response);
+        } catch (SpatialIndexNotReadyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @PostMapping("/within-polygon")
+    public ResponseEntity<DestinationPageResponse> getDestinationsInPolygon(
+            @Valid @RequestBody PolygonSearchRequest request,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            DestinationPageResponse response =
+                    destinationService.findDestinationsInPolygon(request.getVertices(), cursor, size);
+            return ResponseEntity.ok(response);
+        } catch (SpatialIndexNotReadyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamDestinations() {
+        StreamingResponseBody body = outputStream -> destinationService.streamAllDestinations(destination -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(destination));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<DestinationResponse> updateDestination(
             @PathVariable UUID id,
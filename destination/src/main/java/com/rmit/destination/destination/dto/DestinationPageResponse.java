@@ -0,0 +1,17 @@
+package com.rmit.destination.destination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DestinationPageResponse {
+    private List<DestinationResponse> items;
+    private String nextCursor;
+}
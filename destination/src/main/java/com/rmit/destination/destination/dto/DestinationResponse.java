@@ -1,5 +1,6 @@
 package com.rmit.destination.destination.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,6 +20,9 @@ public class DestinationResponse {
     private Double longitude;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // set by nearby queries only
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double distanceMeters;
     private String message;
 }
 
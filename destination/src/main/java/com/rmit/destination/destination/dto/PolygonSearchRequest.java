@@ -0,0 +1,21 @@
+package com.rmit.destination.destination.dto;
+
+import com.rmit.destination.common.spatial.Polygon;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PolygonSearchRequest {
+
+    @NotNull(message = "Vertices are required")
+    @Size(min = 3, max = Polygon.MAX_VERTICES, message = "A polygon needs between 3 and 1000 vertices")
+    private List<@NotNull @Valid Coordinate> vertices;
+}
@@ -22,7 +22,7 @@ public class Destination {
     @Column(nullable = false)
     private UUID id;
 
-    @Column(nullable = false)
+    @Column(unique = true, nullable = false)
     private String name;
 
     @Column(nullable = false)
@@ -0,0 +1,17 @@
+package com.rmit.destination.destination.external.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationEvent {
+  private String cacheName;
+  private UUID id;
+}
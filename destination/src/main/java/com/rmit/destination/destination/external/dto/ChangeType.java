@@ -0,0 +1,7 @@
+package com.rmit.destination.destination.external.dto;
+
+public enum ChangeType {
+  CREATED,
+  UPDATED,
+  DELETED
+}
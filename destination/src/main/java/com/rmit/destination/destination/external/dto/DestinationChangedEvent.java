@@ -0,0 +1,23 @@
+package com.rmit.destination.destination.external.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.rmit.destination.destination.dto.DestinationResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DestinationChangedEvent {
+  private ChangeType type;
+  private UUID destinationId;
+  // state after the change, null for DELETED
+  private DestinationResponse destination;
+  private LocalDateTime occurredAt;
+}
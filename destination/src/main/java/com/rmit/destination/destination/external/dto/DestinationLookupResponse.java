@@ -0,0 +1,18 @@
+package com.rmit.destination.destination.external.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DestinationLookupResponse {
+  // requested ids without a destination, in request order
+  private List<UUID> missingIds;
+}
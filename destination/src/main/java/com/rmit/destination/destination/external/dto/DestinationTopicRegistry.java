@@ -5,9 +5,10 @@ public class DestinationTopicRegistry {
   
   public static class Topic {
     public static final String TEST_REQUEST_REPLY_REQ = prefix + "test_request_reply_req";
-    public static final String TEST_REQUEST_REPLY_RES = prefix + "test_request_reply_res";
     public static final String LIST_REQ = prefix + "list_req";
-    public static final String LIST_RES = prefix + "list_res";
+    public static final String LOOKUP_REQ = prefix + "lookup_req";
+    public static final String CACHE_INVALIDATE = prefix + "cache_invalidate";
+    public static final String CHANGED = prefix + "changed";
   }
 }
 
@@ -0,0 +1,24 @@
+package com.rmit.destination.destination.external.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One bounded part of a chunked request-reply answer.
+ * All chunks of an answer share the request's correlation id; the last one has last = true.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListChunk<T> {
+  private int index;
+  private boolean last;
+  private List<T> items;
+  // cursor to request the following items, null when the listing is exhausted
+  private String nextCursor;
+}
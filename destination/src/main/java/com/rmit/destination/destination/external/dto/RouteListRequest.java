@@ -0,0 +1,21 @@
+package com.rmit.destination.destination.external.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteListRequest {
+  // exact route number, ignored when null
+  private String number;
+  // case-insensitive substring of the route name, ignored when null
+  private String nameContains;
+  // keyset cursor to resume from, as returned in the last chunk
+  private String cursor;
+  // maximum number of routes to return
+  private Integer limit;
+}
@@ -0,0 +1,131 @@
+package com.rmit.destination.destination.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rmit.destination.destination.external.dto.ListChunk;
+import com.rmit.destination.destination.external.service.PayloadCodec;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reassembles chunked request-reply answers.
+ * Chunks are matched to the pending request by correlation id, ordered by their index,
+ * and the future completes once the last chunk and every chunk before it have arrived.
+ */
+@Slf4j
+@Component
+public class ChunkedReplyAssembler implements MessageListener<String, Object> {
+
+  private final ConcurrentMap<String, PendingReply<?>> pending = new ConcurrentHashMap<>();
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private PayloadCodecs payloadCodecs;
+
+  /**
+   * Start waiting for the chunks of a request
+   *
+   * @param correlationId hex encoded correlation id of the request
+   * @param itemClass the class of the listed items
+   * @param timeout how long to wait for the complete answer
+   * @return a future completed with all items in chunk order
+   */
+  public <T> CompletableFuture<List<T>> register(String correlationId, Class<T> itemClass, Duration timeout) {
+    JavaType chunkType = objectMapper.getTypeFactory().constructParametricType(ListChunk.class, itemClass);
+    PendingReply<T> reply = new PendingReply<>(chunkType);
+    pending.put(correlationId, reply);
+    return reply.future
+        .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+        .whenComplete((items, e) -> pending.remove(correlationId));
+  }
+
+  /**
+   * Fail a pending request, e.g. when the request itself could not be sent
+   */
+  public void fail(String correlationId, Throwable cause) {
+    PendingReply<?> reply = pending.remove(correlationId);
+    if (reply != null) {
+      reply.future.completeExceptionally(cause);
+    }
+  }
+
+  @Override
+  public void onMessage(ConsumerRecord<String, Object> record) {
+    Header header = record.headers().lastHeader(KafkaHeaders.CORRELATION_ID);
+    if (header == null) {
+      return;
+    }
+    String correlationId = HexFormat.of().formatHex(header.value());
+    PendingReply<?> reply = pending.get(correlationId);
+    if (reply == null) {
+      log.debug("Ignoring chunk for unknown or expired request {}", correlationId);
+      return;
+    }
+    Header error = record.headers().lastHeader(KafkaDltHandler.REPLY_ERROR_HEADER);
+    if (error != null) {
+      reply.future.completeExceptionally(
+          new RuntimeException("Request failed: " + new String(error.value(), StandardCharsets.UTF_8)));
+      return;
+    }
+    try {
+      byte[] chunkBytes = (byte[]) record.value();
+      reply.accept(payloadCodecs.forRecord(record.headers(), chunkBytes), chunkBytes);
+    } catch (Exception e) {
+      log.error("Error assembling chunked reply {}", correlationId, e);
+      reply.future.completeExceptionally(e);
+    }
+  }
+
+  private final class PendingReply<T> {
+    private final JavaType chunkType;
+    private final CompletableFuture<List<T>> future = new CompletableFuture<>();
+    private final Map<Integer, List<T>> chunks = new TreeMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private int lastIndex = -1;
+
+    private PendingReply(JavaType chunkType) {
+      this.chunkType = chunkType;
+    }
+
+    private void accept(PayloadCodec codec, byte[] chunkBytes) throws Exception {
+      ListChunk<T> chunk = codec.decode(chunkBytes, chunkType);
+      // a lock rather than synchronized so virtual listener threads are not pinned
+      lock.lock();
+      try {
+        chunks.put(chunk.getIndex(), chunk.getItems() == null ? List.of() : chunk.getItems());
+        if (chunk.isLast()) {
+          lastIndex = chunk.getIndex();
+        }
+        if (lastIndex >= 0 && chunks.size() == lastIndex + 1) {
+          List<T> items = new ArrayList<>();
+          chunks.values().forEach(items::addAll);
+          future.complete(items);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
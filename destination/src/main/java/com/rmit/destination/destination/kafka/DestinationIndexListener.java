@@ -0,0 +1,51 @@
+package com.rmit.destination.destination.kafka;
+
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import com.rmit.destination.common.outbox.RedeliveredEventFilter;
+import com.rmit.destination.destination.external.dto.DestinationChangedEvent;
+import com.rmit.destination.destination.external.dto.DestinationTopicRegistry;
+import com.rmit.destination.destination.spatial.DestinationSpatialIndex;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps the spatial index in step with changes made on other replicas.
+ * Each instance uses its own consumer group and starts at the end of destination.changed,
+ * since everything before that is already in the database snapshot the index loads.
+ * Redelivered outbox events are skipped.
+ */
+@Component
+@RequiredArgsConstructor
+public class DestinationIndexListener {
+
+  private final DestinationSpatialIndex destinationSpatialIndex;
+  private final PayloadCodecs payloadCodecs;
+  private final RedeliveredEventFilter redeliveredEventFilter = new RedeliveredEventFilter();
+
+  @KafkaListener(
+      topics = DestinationTopicRegistry.Topic.CHANGED,
+      groupId = "${spring.application.name}-spatial-${random.uuid}",
+      containerFactory = "batchKafkaListenerContainerFactory")
+  public void handleDestinationChanges(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+    for (ConsumerRecord<String, byte[]> record : records) {
+      if (redeliveredEventFilter.isRedelivery(record)) {
+        continue;
+      }
+      try {
+        destinationSpatialIndex.apply(payloadCodecs.forRecord(record.headers(), record.value())
+            .decode(record.value(), DestinationChangedEvent.class));
+        redeliveredEventFilter.applied(record);
+      } catch (Exception e) {
+        throw new BatchListenerFailedException("Error applying destination change to the spatial index", e, record);
+      }
+    }
+    ack.acknowledge();
+  }
+}
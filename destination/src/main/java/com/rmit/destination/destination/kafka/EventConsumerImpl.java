@@ -1,14 +1,27 @@
 package com.rmit.destination.destination.kafka;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.stereotype.Component;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rmit.destination.common.cache.CacheInvalidator;
+import com.rmit.destination.destination.external.dto.CacheInvalidationEvent;
+import com.rmit.destination.destination.external.dto.DestinationLookupRequest;
+import com.rmit.destination.destination.external.dto.DestinationLookupResponse;
 import com.rmit.destination.destination.external.dto.DestinationTopicRegistry;
 import com.rmit.destination.destination.external.dto.TestKafkaRequest;
 import com.rmit.destination.destination.external.dto.TestKafkaResponse;
+import com.rmit.destination.destination.external.service.PayloadCodec;
+import com.rmit.destination.destination.service.DestinationService;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,47 +34,85 @@ import lombok.extern.slf4j.Slf4j;
 public class EventConsumerImpl {
 
   @Autowired
-  private ObjectMapper objectMapper;
+  private PayloadCodecs payloadCodecs;
+
+  @Autowired
+  private CacheInvalidator cacheInvalidator;
+
+  @Autowired
+  private DestinationService destinationService;
 
   /**
    * Example: Request-Reply pattern listener
+   * The reply is encoded with the same codec as the request and sent to the requester's reply topic
    */
   @KafkaListener(topics = DestinationTopicRegistry.Topic.TEST_REQUEST_REPLY_REQ)
-  @SendTo(DestinationTopicRegistry.Topic.TEST_REQUEST_REPLY_RES)
-  public byte[] handleTestRequestReply(byte[] requestBytes) {
-    try {
-      TestKafkaRequest request = objectMapper.readValue(requestBytes, TestKafkaRequest.class);
-      log.info("Destination service: Received test request-reply message from: {}", request.getFromService());
-      
-      TestKafkaResponse response = TestKafkaResponse.builder()
-          .message("Destination service received: " + request.getMessage())
-          .fromService("destination-service")
-          .receivedFrom(request.getFromService())
-          .timestamp(System.currentTimeMillis())
-          .success(true)
-          .build();
-      
-      return objectMapper.writeValueAsBytes(response);
-    } catch (Exception e) {
-      log.error("Error handling test request-reply", e);
-      return new byte[0];
-    }
+  @SendTo
+  public Message<byte[]> handleTestRequestReply(ConsumerRecord<String, byte[]> record) throws IOException {
+    PayloadCodec codec = payloadCodecs.forRecord(record.headers(), record.value());
+    TestKafkaRequest request = codec.decode(record.value(), TestKafkaRequest.class);
+    log.info("Destination service: Received test request-reply message from: {}", request.getFromService());
+    
+    TestKafkaResponse response = TestKafkaResponse.builder()
+        .message("Destination service received: " + request.getMessage())
+        .fromService("destination-service")
+        .receivedFrom(request.getFromService())
+        .timestamp(System.currentTimeMillis())
+        .success(true)
+        .build();
+    
+    return payloadCodecs.toReply(codec, response);
+  }
+
+  /**
+   * Request-Reply listener telling the requester which of its destination ids do not exist.
+   * Route uses it for ids its destination replica has not seen yet.
+   */
+  @KafkaListener(topics = DestinationTopicRegistry.Topic.LOOKUP_REQ)
+  @SendTo
+  public Message<byte[]> handleLookupRequest(ConsumerRecord<String, byte[]> record) throws IOException {
+    PayloadCodec codec = payloadCodecs.forRecord(record.headers(), record.value());
+    DestinationLookupRequest request = codec.decode(record.value(), DestinationLookupRequest.class);
+    List<UUID> ids = request.getIds() == null ? List.of() : request.getIds();
+
+    DestinationLookupResponse response = DestinationLookupResponse.builder()
+        .missingIds(destinationService.findMissingIds(ids))
+        .build();
+    return payloadCodecs.toReply(codec, response);
   }
 
   /**
    * Example: Request-Reply pattern listener for list operation
    */
   @KafkaListener(topics = DestinationTopicRegistry.Topic.LIST_REQ)
-  @SendTo(DestinationTopicRegistry.Topic.LIST_RES)
+  @SendTo
   public byte[] handleListRequest(byte[] requestBytes) {
-    try {
-      log.info("Destination service: Received list request message");
-      // Placeholder response
-      return new byte[0];
-    } catch (Exception e) {
-      log.error("Error handling list request", e);
-      return new byte[0];
+    log.info("Destination service: Received list request message");
+    // Placeholder response, rejected by requesters as an empty reply
+    return new byte[0];
+  }
+
+  /**
+   * Fire-and-forget batch listener for cache invalidations broadcast by any replica.
+   * Each instance uses its own consumer group so every replica receives every event.
+   * The poll is acknowledged once all of its evictions have been applied. A failing record
+   * is retried from its position in the batch and then dead-lettered by the error handler.
+   */
+  @KafkaListener(
+      topics = DestinationTopicRegistry.Topic.CACHE_INVALIDATE,
+      groupId = "${spring.application.name}-cache-${random.uuid}",
+      containerFactory = "batchKafkaListenerContainerFactory")
+  public void handleCacheInvalidations(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+    for (ConsumerRecord<String, byte[]> record : records) {
+      try {
+        CacheInvalidationEvent event = payloadCodecs.forRecord(record.headers(), record.value())
+            .decode(record.value(), CacheInvalidationEvent.class);
+        cacheInvalidator.evictLocal(event.getCacheName(), event.getId());
+      } catch (Exception e) {
+        throw new BatchListenerFailedException("Error handling cache invalidation", e, record);
+      }
     }
+    ack.acknowledge();
+    log.debug("Destination service: Applied {} cache invalidations", records.size());
   }
 }
-
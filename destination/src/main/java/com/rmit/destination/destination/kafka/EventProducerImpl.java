@@ -1,15 +1,21 @@
 package com.rmit.destination.destination.kafka;
 
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.requestreply.ReplyingKafkaTemplate;
-import org.springframework.kafka.requestreply.RequestReplyFuture;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.stereotype.Component;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rmit.destination.destination.external.service.EventProducer;
 
 import lombok.extern.slf4j.Slf4j;
@@ -19,19 +25,27 @@ import lombok.extern.slf4j.Slf4j;
 public class EventProducerImpl implements EventProducer {
   
   @Autowired
-  private KafkaTemplate<String, Object> kafkaTemplate;
+  private KafkaTemplateRouter kafkaTemplateRouter;
 
   @Autowired
   private ReplyingKafkaTemplate<String, Object, Object> replyingKafkaTemplate;
 
   @Autowired
-  private ObjectMapper objectMapper;
+  private PayloadCodecs payloadCodecs;
+
+  @Autowired
+  private KafkaInstance kafkaInstance;
+
+  @Autowired
+  private ChunkedReplyAssembler chunkedReplyAssembler;
+
+  @Value("${kafka.request-reply.timeout}")
+  private Duration replyTimeout;
 
   @Override
   public void send(String topic, Object message) {
     try {
-      byte[] messageBytes = objectMapper.writeValueAsBytes(message);
-      kafkaTemplate.send(topic, messageBytes);
+      kafkaTemplateRouter.forTopic(topic).send(payloadCodecs.toRecord(topic, null, message));
       log.debug("Sent message to topic: {}", topic);
     } catch (Exception e) {
       log.error("Error sending message to topic: {}", topic, e);
@@ -42,8 +56,7 @@ public class EventProducerImpl implements EventProducer {
   @Override
   public void send(String topic, String key, Object message) {
     try {
-      byte[] messageBytes = objectMapper.writeValueAsBytes(message);
-      kafkaTemplate.send(topic, key, messageBytes);
+      kafkaTemplateRouter.forTopic(topic).send(payloadCodecs.toRecord(topic, key, message));
       log.debug("Sent message to topic: {} with key: {}", topic, key);
     } catch (Exception e) {
       log.error("Error sending message to topic: {} with key: {}", topic, key, e);
@@ -52,23 +65,90 @@ public class EventProducerImpl implements EventProducer {
   }
 
   @Override
-  public <T> T sendAndReceive(String requestTopic, String replyTopic, Object request, Class<T> responseClass) {
+  public <T> T sendAndReceive(String requestTopic, Object request, Class<T> responseClass) {
+    try {
+      return sendAndReceiveAsync(requestTopic, request, responseClass, replyTimeout).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted during sendAndReceive for topic: " + requestTopic, e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to sendAndReceive for topic: " + requestTopic, e.getCause());
+    }
+  }
+
+  @Override
+  public <T> CompletableFuture<T> sendAndReceiveAsync(String requestTopic, Object request, Class<T> responseClass,
+      Duration timeout) {
+    String replyTopic = kafkaInstance.getReplyTopic();
+    ProducerRecord<String, Object> producerRecord;
+    try {
+      producerRecord = payloadCodecs.toRecord(requestTopic, null, request);
+      producerRecord.headers().add(KafkaHeaders.REPLY_TOPIC, replyTopic.getBytes());
+    } catch (Exception e) {
+      log.error("Error serializing request for topic: {}", requestTopic, e);
+      return CompletableFuture.failedFuture(
+          new RuntimeException("Failed to serialize request for topic: " + requestTopic, e));
+    }
+
+    // thenApplyAsync moves deserialization off the reply listener's consumer thread
+    return replyingKafkaTemplate.sendAndReceive(producerRecord, timeout)
+        .thenApplyAsync(response -> readReply(response, responseClass))
+        .whenComplete((response, e) -> {
+          if (e != null) {
+            log.error("Error in sendAndReceive for topic: {} -> {}", requestTopic, replyTopic, e);
+          } else {
+            log.debug("Received response for request topic: {} on reply topic: {}", requestTopic, replyTopic);
+          }
+        });
+  }
+
+  @Override
+  public <T> CompletableFuture<List<T>> sendAndReceiveChunked(String requestTopic, Object request, Class<T> itemClass,
+      Duration timeout) {
+    String replyTopic = kafkaInstance.getChunkReplyTopic();
+    UUID uuid = UUID.randomUUID();
+    byte[] correlationId = ByteBuffer.allocate(16)
+        .putLong(uuid.getMostSignificantBits())
+        .putLong(uuid.getLeastSignificantBits())
+        .array();
+    String correlationKey = HexFormat.of().formatHex(correlationId);
+
+    ProducerRecord<String, Object> producerRecord;
     try {
-      byte[] requestBytes = objectMapper.writeValueAsBytes(request);
-      ProducerRecord<String, Object> producerRecord = new ProducerRecord<>(requestTopic, requestBytes);
+      producerRecord = payloadCodecs.toRecord(requestTopic, null, request);
       producerRecord.headers().add(KafkaHeaders.REPLY_TOPIC, replyTopic.getBytes());
+      producerRecord.headers().add(KafkaHeaders.CORRELATION_ID, correlationId);
+    } catch (Exception e) {
+      log.error("Error serializing request for topic: {}", requestTopic, e);
+      return CompletableFuture.failedFuture(
+          new RuntimeException("Failed to serialize request for topic: " + requestTopic, e));
+    }
+
+    // Register before sending so no chunk can arrive ahead of its pending entry
+    CompletableFuture<List<T>> reply = chunkedReplyAssembler.register(correlationKey, itemClass, timeout);
+    kafkaTemplateRouter.forTopic(requestTopic).send(producerRecord).whenComplete((result, e) -> {
+      if (e != null) {
+        chunkedReplyAssembler.fail(correlationKey, e);
+      }
+    });
+    return reply.whenComplete((items, e) -> {
+      if (e != null) {
+        log.error("Error in sendAndReceiveChunked for topic: {} -> {}", requestTopic, replyTopic, e);
+      } else {
+        log.debug("Received {} items for request topic: {} on reply topic: {}", items.size(), requestTopic, replyTopic);
+      }
+    });
+  }
 
-      RequestReplyFuture<String, Object, Object> replyFuture = replyingKafkaTemplate.sendAndReceive(producerRecord);
-      ConsumerRecord<String, Object> response = replyFuture.get();
-      
+  private <T> T readReply(ConsumerRecord<String, Object> response, Class<T> responseClass) {
+    try {
       byte[] responseBytes = (byte[]) response.value();
-      T responseObject = objectMapper.readValue(responseBytes, responseClass);
-      log.debug("Received response for request topic: {} on reply topic: {}", requestTopic, replyTopic);
-      return responseObject;
+      if (responseBytes == null || responseBytes.length == 0) {
+        throw new IllegalStateException("Empty reply");
+      }
+      return payloadCodecs.forRecord(response.headers(), responseBytes).decode(responseBytes, responseClass);
     } catch (Exception e) {
-      log.error("Error in sendAndReceive for topic: {} -> {}", requestTopic, replyTopic, e);
-      throw new RuntimeException("Failed to sendAndReceive for topic: " + requestTopic, e);
+      throw new RuntimeException("Failed to deserialize reply from topic: " + response.topic(), e);
     }
   }
 }
-
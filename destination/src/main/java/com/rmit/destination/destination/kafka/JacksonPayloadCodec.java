@@ -0,0 +1,41 @@
+package com.rmit.destination.destination.kafka;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rmit.destination.destination.external.service.PayloadCodec;
+
+/**
+ * Payload codec backed by a Jackson mapper, used for both JSON and binary Smile
+ */
+public class JacksonPayloadCodec implements PayloadCodec {
+
+  private final String contentType;
+  private final ObjectMapper mapper;
+
+  public JacksonPayloadCodec(String contentType, ObjectMapper mapper) {
+    this.contentType = contentType;
+    this.mapper = mapper;
+  }
+
+  @Override
+  public String contentType() {
+    return contentType;
+  }
+
+  @Override
+  public byte[] encode(Object message) throws IOException {
+    return mapper.writeValueAsBytes(message);
+  }
+
+  @Override
+  public <T> T decode(byte[] payload, Class<T> type) throws IOException {
+    return mapper.readValue(payload, type);
+  }
+
+  @Override
+  public <T> T decode(byte[] payload, JavaType type) throws IOException {
+    return mapper.readValue(payload, type);
+  }
+}
@@ -1,13 +1,43 @@
 package com.rmit.destination.destination.repo;
 
 import com.rmit.destination.destination.entity.Destination;
+import com.rmit.destination.destination.spatial.DestinationPoint;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface DestinationRepository extends JpaRepository<Destination, UUID> {
     boolean existsByName(String name);
-}
 
+    @Query("SELECT d.id FROM Destination d WHERE d.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT d FROM Destination d ORDER BY d.createdAt ASC, d.id ASC")
+    List<Destination> findFirstPage(Pageable pageable);
+
+    @Query("SELECT d FROM Destination d " +
+            "WHERE d.createdAt > :createdAt OR (d.createdAt = :createdAt AND d.id > :id) " +
+            "ORDER BY d.createdAt ASC, d.id ASC")
+    List<Destination> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT d FROM Destination d ORDER BY d.createdAt ASC, d.id ASC")
+    Stream<Destination> streamAllOrdered();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT new com.rmit.destination.destination.spatial.DestinationPoint(d.id, d.latitude, d.longitude, d.updatedAt) " +
+            "FROM Destination d")
+    Stream<DestinationPoint> streamAllPoints();
+}
@@ -1,16 +1,25 @@
 package com.rmit.destination.destination.service;
 
+import com.rmit.destination.destination.dto.Coordinate;
+import com.rmit.destination.destination.dto.DestinationPageResponse;
 import com.rmit.destination.destination.dto.DestinationRequest;
 import com.rmit.destination.destination.dto.DestinationResponse;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface DestinationService {
     DestinationResponse createDestination(DestinationRequest request);
     DestinationResponse getDestinationById(UUID id);
+    List<UUID> findMissingIds(List<UUID> ids);
     List<DestinationResponse> getAllDestinations();
+    DestinationPageResponse getDestinationsPage(String cursor, int size);
+    void streamAllDestinations(Consumer<DestinationResponse> consumer);
+    List<DestinationResponse> findNearbyDestinations(double latitude, double longitude, double radiusMeters, int k);
+    DestinationPageResponse findDestinationsInBox(double minLatitude, double minLongitude,
+                                                  double maxLatitude, double maxLongitude, String cursor, int size);
+    DestinationPageResponse findDestinationsInPolygon(List<Coordinate> vertices, String cursor, int size);
     DestinationResponse updateDestination(UUID id, DestinationRequest request);
     void deleteDestination(UUID id);
 }
-
@@ -1,25 +1,60 @@
 package com.rmit.destination.destination.service.impl;
 
+import com.rmit.destination.common.cache.CacheInvalidator;
+import com.rmit.destination.common.config.CacheConfig;
+import com.rmit.destination.common.outbox.OutboxService;
+import com.rmit.destination.common.spatial.BoundingBox;
+import com.rmit.destination.common.spatial.GridIndex;
+import com.rmit.destination.common.spatial.Polygon;
+import com.rmit.destination.common.spatial.Region;
+import com.rmit.destination.common.utils.KeysetCursor;
+import com.rmit.destination.destination.dto.Coordinate;
+import com.rmit.destination.destination.dto.DestinationPageResponse;
 import com.rmit.destination.destination.dto.DestinationRequest;
 import com.rmit.destination.destination.dto.DestinationResponse;
 import com.rmit.destination.destination.entity.Destination;
+import com.rmit.destination.destination.external.dto.ChangeType;
+import com.rmit.destination.destination.external.dto.DestinationChangedEvent;
+import com.rmit.destination.destination.external.dto.DestinationTopicRegistry;
 import com.rmit.destination.destination.repo.DestinationRepository;
 import com.rmit.destination.destination.service.DestinationService;
+import com.rmit.destination.destination.spatial.DestinationSpatialIndex;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class DestinationServiceImpl implements DestinationService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+    private static final int MAX_NEARBY_RESULTS = 100;
+    private static final double MAX_NEARBY_RADIUS_METERS = 100_000;
+
     private final DestinationRepository destinationRepository;
+    private final EntityManager entityManager;
+    private final CacheInvalidator cacheInvalidator;
+    private final OutboxService outboxService;
+    private final DestinationSpatialIndex destinationSpatialIndex;
 
     @Override
+    @Transactional
     public DestinationResponse createDestination(DestinationRequest request) {
         // Check if destination name already exists
         if (destinationRepository.existsByName(request.getName())) {
@@ -34,11 +69,15 @@ public class DestinationServiceImpl implements DestinationService {
                 .build();
 
         destination = destinationRepository.save(destination);
+        DestinationResponse created = mapToResponse(destination, null);
+        recordChange(ChangeType.CREATED, destination.getId(), created);
+        destinationSpatialIndex.putAfterCommit(created);
 
         return mapToResponse(destination, "Destination created successfully");
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.DESTINATIONS, key = "#id", sync = true)
     public DestinationResponse getDestinationById(UUID id) {
         Destination destination = destinationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Destination not found with id: " + id));
@@ -46,6 +85,18 @@ public class DestinationServiceImpl implements DestinationService {
         return mapToResponse(destination, null);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<UUID> findMissingIds(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Set<UUID> existing = new HashSet<>(destinationRepository.findExistingIds(ids));
+        return ids.stream()
+                .filter(id -> !existing.contains(id))
+                .toList();
+    }
+
     @Override
     public List<DestinationResponse> getAllDestinations() {
         return destinationRepository.findAll().stream()
@@ -54,6 +105,116 @@ public class DestinationServiceImpl implements DestinationService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public DestinationPageResponse getDestinationsPage(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PageRequest limit = PageRequest.ofSize(pageSize);
+
+        List<Destination> destinations;
+        if (cursor == null || cursor.isBlank()) {
+            destinations = destinationRepository.findFirstPage(limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            destinations = destinationRepository.findPageAfter(after.createdAt(), after.id(), limit);
+        }
+
+        String nextCursor = null;
+        if (destinations.size() == pageSize) {
+            Destination last = destinations.get(destinations.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return DestinationPageResponse.builder()
+                .items(destinations.stream()
+                        .map(destination -> mapToResponse(destination, null))
+                        .collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllDestinations(Consumer<DestinationResponse> consumer) {
+        try (Stream<Destination> destinations = destinationRepository.streamAllOrdered()) {
+            Iterator<Destination> iterator = destinations.iterator();
+            int emitted = 0;
+            while (iterator.hasNext()) {
+                consumer.accept(mapToResponse(iterator.next(), null));
+                // Detach emitted rows so the persistence context stays bounded
+                if (++emitted % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DestinationResponse> findNearbyDestinations(double latitude, double longitude, double radiusMeters, int k) {
+        int limit = Math.max(1, Math.min(k, MAX_NEARBY_RESULTS));
+        double radius = Math.max(0, Math.min(radiusMeters, MAX_NEARBY_RADIUS_METERS));
+        List<GridIndex.Hit> hits = destinationSpatialIndex.nearest(latitude, longitude, limit, radius);
+
+        // The index only holds coordinates, so load the few matching rows by primary key
+        Map<UUID, Destination> destinations = destinationRepository
+                .findAllById(hits.stream().map(GridIndex.Hit::id).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Destination::getId, Function.identity()));
+
+        return hits.stream()
+                .filter(hit -> destinations.containsKey(hit.id()))
+                .map(hit -> {
+                    DestinationResponse response = mapToResponse(destinations.get(hit.id()), null);
+                    response.setDistanceMeters(hit.distanceMeters());
+                    return response;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DestinationPageResponse findDestinationsInBox(double minLatitude, double minLongitude,
+                                                         double maxLatitude, double maxLongitude,
+                                                         String cursor, int size) {
+        return findWithin(new BoundingBox(minLatitude, minLongitude, maxLatitude, maxLongitude), cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DestinationPageResponse findDestinationsInPolygon(List<Coordinate> vertices, String cursor, int size) {
+        double[] latitudes = vertices.stream().mapToDouble(Coordinate::getLatitude).toArray();
+        double[] longitudes = vertices.stream().mapToDouble(Coordinate::getLongitude).toArray();
+        return findWithin(new Polygon(latitudes, longitudes), cursor, size);
+    }
+
+    /**
+     * One page of the destinations inside a region, ordered by id.
+     * The index prunes by cell and tests exact containment, so only the rows of the page are loaded.
+     */
+    private DestinationPageResponse findWithin(Region region, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        UUID after = cursor == null || cursor.isBlank() ? null : UUID.fromString(cursor);
+        List<GridIndex.Point> points = destinationSpatialIndex.within(region, after, pageSize);
+
+        Map<UUID, Destination> destinations = destinationRepository
+                .findAllById(points.stream().map(GridIndex.Point::id).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Destination::getId, Function.identity()));
+
+        // A full page from the index means there may be more, even if a row was deleted meanwhile
+        String nextCursor = points.size() == pageSize ? points.get(points.size() - 1).id().toString() : null;
+
+        return DestinationPageResponse.builder()
+                .items(points.stream()
+                        .filter(point -> destinations.containsKey(point.id()))
+                        .map(point -> mapToResponse(destinations.get(point.id()), null))
+                        .collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional
     public DestinationResponse updateDestination(UUID id, DestinationRequest request) {
         Destination destination = destinationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Destination not found with id: " + id));
@@ -69,17 +230,39 @@ public class DestinationServiceImpl implements DestinationService {
         destination.setLatitude(request.getLatitude());
         destination.setLongitude(request.getLongitude());
 
-        destination = destinationRepository.save(destination);
+        // Flush so the event carries the new updatedAt
+        destination = destinationRepository.saveAndFlush(destination);
+        cacheInvalidator.invalidate(CacheConfig.DESTINATIONS, id);
+        DestinationResponse updated = mapToResponse(destination, null);
+        recordChange(ChangeType.UPDATED, id, updated);
+        destinationSpatialIndex.putAfterCommit(updated);
 
         return mapToResponse(destination, "Destination updated successfully");
     }
 
     @Override
+    @Transactional
     public void deleteDestination(UUID id) {
         if (!destinationRepository.existsById(id)) {
             throw new RuntimeException("Destination not found with id: " + id);
         }
         destinationRepository.deleteById(id);
+        cacheInvalidator.invalidate(CacheConfig.DESTINATIONS, id);
+        recordChange(ChangeType.DELETED, id, null);
+        destinationSpatialIndex.removeAfterCommit(id);
+    }
+
+    /**
+     * Add a change event to the outbox, committed together with the change itself
+     */
+    private void recordChange(ChangeType type, UUID destinationId, DestinationResponse destination) {
+        outboxService.record(DestinationTopicRegistry.Topic.CHANGED, destinationId, type.name(),
+                DestinationChangedEvent.builder()
+                        .type(type)
+                        .destinationId(destinationId)
+                        .destination(destination)
+                        .occurredAt(LocalDateTime.now())
+                        .build());
     }
 
     private DestinationResponse mapToResponse(Destination destination, String message) {
@@ -0,0 +1,10 @@
+package com.rmit.destination.destination.spatial;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Indexed columns of a destination, loaded without materializing the entity
+ */
+public record DestinationPoint(UUID id, Double latitude, Double longitude, LocalDateTime updatedAt) {
+}
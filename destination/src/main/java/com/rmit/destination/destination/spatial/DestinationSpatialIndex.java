@@ -0,0 +1,159 @@
+package com.rmit.destination.destination.spatial;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.rmit.destination.common.spatial.GridIndex;
+import com.rmit.destination.common.spatial.Region;
+import com.rmit.destination.destination.dto.DestinationResponse;
+import com.rmit.destination.destination.external.dto.ChangeType;
+import com.rmit.destination.destination.external.dto.DestinationChangedEvent;
+import com.rmit.destination.destination.repo.DestinationRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Grid index over all destination locations, used for nearby and range queries.
+ * Loaded from the database once the application is ready. Changes made on this instance are applied
+ * after their transaction commits, and changes made on other replicas arrive through destination.changed.
+ * Every point carries its updatedAt as version, so a late event never overwrites a newer local change,
+ * and a deletion leaves a tombstone versioned with its time, so a late put of an older version, from the
+ * startup load or a replayed event, cannot bring the destination back. Tombstones are kept for
+ * destination.spatial.tombstone-retention-ms.
+ */
+@Slf4j
+@Component
+public class DestinationSpatialIndex {
+
+  private final GridIndex index;
+  private final DestinationRepository destinationRepository;
+  private volatile boolean ready;
+
+  @Value("${destination.spatial.tombstone-retention-ms}")
+  private long tombstoneRetentionMs;
+
+  public DestinationSpatialIndex(
+      DestinationRepository destinationRepository,
+      MeterRegistry meterRegistry,
+      @Value("${destination.spatial.cell-degrees}") double cellDegrees) {
+    this.destinationRepository = destinationRepository;
+    this.index = new GridIndex(cellDegrees);
+    Gauge.builder("destination.spatial.index.size", index, GridIndex::size)
+        .description("Destinations held by the spatial index")
+        .register(meterRegistry);
+    Gauge.builder("destination.spatial.index.ready", this, spatialIndex -> spatialIndex.ready ? 1 : 0)
+        .description("1 once the spatial index has been loaded")
+        .register(meterRegistry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public void load() {
+    long started = System.nanoTime();
+    try (Stream<DestinationPoint> points = destinationRepository.streamAllPoints()) {
+      // deletions racing with the scan left tombstones, so their rows are not put back
+      points.forEach(point -> index.put(point.id(), point.latitude(), point.longitude(), version(point.updatedAt())));
+    }
+    ready = true;
+    log.info("Spatial index loaded {} destinations in {} ms",
+        index.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * @throws SpatialIndexNotReadyException while the index is still loading
+   */
+  public List<GridIndex.Hit> nearest(double latitude, double longitude, int k, double maxDistanceMeters) {
+    checkReady();
+    return index.nearest(latitude, longitude, k, maxDistanceMeters);
+  }
+
+  /**
+   * @throws SpatialIndexNotReadyException while the index is still loading
+   */
+  public List<GridIndex.Point> within(Region region, UUID afterId, int limit) {
+    checkReady();
+    return index.within(region, afterId, limit);
+  }
+
+  /**
+   * Index a created or moved destination once the surrounding transaction commits
+   */
+  public void putAfterCommit(DestinationResponse destination) {
+    afterCommit(() -> put(destination));
+  }
+
+  /**
+   * Drop a deleted destination once the surrounding transaction commits
+   */
+  public void removeAfterCommit(UUID id) {
+    afterCommit(() -> index.remove(id, version(LocalDateTime.now())));
+  }
+
+  /**
+   * Apply a change published by any replica, including this one
+   */
+  public void apply(DestinationChangedEvent event) {
+    if (event.getType() == ChangeType.DELETED || event.getDestination() == null) {
+      LocalDateTime deletedAt = event.getOccurredAt() != null ? event.getOccurredAt() : LocalDateTime.now();
+      index.remove(event.getDestinationId(), version(deletedAt));
+    } else {
+      put(event.getDestination());
+    }
+  }
+
+  private void put(DestinationResponse destination) {
+    index.put(destination.getId(), destination.getLatitude(), destination.getLongitude(),
+        version(destination.getUpdatedAt()));
+  }
+
+  @Scheduled(fixedDelayString = "${destination.spatial.tombstone-retention-ms}")
+  public void pruneTombstones() {
+    int pruned = index.pruneTombstones(version(LocalDateTime.now().minus(Duration.ofMillis(tombstoneRetentionMs))));
+    if (pruned > 0) {
+      log.debug("Pruned {} spatial index tombstones", pruned);
+    }
+  }
+
+  private void checkReady() {
+    if (!ready) {
+      throw new SpatialIndexNotReadyException();
+    }
+  }
+
+  private static void afterCommit(Runnable change) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          change.run();
+        }
+      });
+    } else {
+      change.run();
+    }
+  }
+
+  private static long version(LocalDateTime updatedAt) {
+    return updatedAt == null ? 0 : updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + updatedAt.getNano();
+  }
+}
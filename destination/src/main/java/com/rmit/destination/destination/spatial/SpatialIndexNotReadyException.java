@@ -0,0 +1,10 @@
+package com.rmit.destination.destination.spatial;
+
+/**
+ * Thrown when a spatial query arrives before the index has been loaded from the database
+ */
+public class SpatialIndexNotReadyException extends RuntimeException {
+  public SpatialIndexNotReadyException() {
+    super("Destination locations are still loading, please retry shortly");
+  }
+}
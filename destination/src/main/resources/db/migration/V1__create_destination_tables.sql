@@ -0,0 +1,10 @@
+-- Baseline schema as previously generated by Hibernate (ddl-auto: update)
+CREATE TABLE IF NOT EXISTS destinations (
+    id         UUID             NOT NULL,
+    name       VARCHAR(255)     NOT NULL,
+    latitude   DOUBLE PRECISION NOT NULL,
+    longitude  DOUBLE PRECISION NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,5 @@
+-- existsByName
+CREATE UNIQUE INDEX IF NOT EXISTS uk_destinations_name ON destinations (name);
+
+-- keyset pagination and streaming order
+CREATE INDEX IF NOT EXISTS idx_destinations_created_at_id ON destinations (created_at, id);
@@ -0,0 +1,19 @@
+-- Transactional outbox, written in the same transaction as the entity change
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_id UUID NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    topic VARCHAR(255) NOT NULL,
+    content_type VARCHAR(64) NOT NULL,
+    payload BYTEA NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    published_at TIMESTAMP
+);
+
+-- relay: unpublished events in insertion order
+CREATE INDEX IF NOT EXISTS idx_outbox_events_unpublished
+    ON outbox_events (id) WHERE published_at IS NULL;
+
+-- cleanup of published events
+CREATE INDEX IF NOT EXISTS idx_outbox_events_published_at
+    ON outbox_events (published_at) WHERE published_at IS NOT NULL;
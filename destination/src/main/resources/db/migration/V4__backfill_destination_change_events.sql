@@ -0,0 +1,21 @@
+-- Seed destination.changed with the destinations that existed before the outbox,
+-- so consumers rebuilding state from the topic also see them
+INSERT INTO outbox_events (aggregate_id, event_type, topic, content_type, payload, created_at)
+SELECT d.id,
+       'CREATED',
+       'destination.changed',
+       'application/json',
+       convert_to(json_build_object(
+               'type', 'CREATED',
+               'destinationId', d.id,
+               'destination', json_build_object(
+                       'id', d.id,
+                       'name', d.name,
+                       'latitude', d.latitude,
+                       'longitude', d.longitude,
+                       'createdAt', d.created_at,
+                       'updatedAt', d.updated_at),
+               'occurredAt', now()::timestamp)::text, 'UTF8'),
+       now()
+FROM destinations d
+ORDER BY d.created_at, d.id;
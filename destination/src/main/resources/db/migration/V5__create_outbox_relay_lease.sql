@@ -0,0 +1,11 @@
+-- Single lease row: the relay holding it drains the outbox, renewing it before every wave of sends,
+-- so no transaction has to stay open while the broker acknowledges
+CREATE TABLE IF NOT EXISTS outbox_relay_lease (
+    id SMALLINT PRIMARY KEY,
+    owner VARCHAR(64),
+    lease_until TIMESTAMP NOT NULL
+);
+
+INSERT INTO outbox_relay_lease (id, owner, lease_until)
+VALUES (1, NULL, now())
+ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,120 @@
+package com.rmit.destination.common.spatial;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares nearby queries on the grid index with a brute-force scan over the same points.
+ * Points are spread around a city center like real stops, queries land anywhere in that area.
+ *
+ * Run from the destination module with:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.rmit.destination.common.spatial.GridIndexBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class GridIndexBenchmark {
+
+	private static final double CENTER_LATITUDE = -37.8136;
+	private static final double CENTER_LONGITUDE = 144.9631;
+	// about 25 km standard deviation around the center
+	private static final double SPREAD_DEGREES = 0.25;
+	private static final int QUERIES = 1024;
+
+	@Param({ "100000", "1000000" })
+	public int points;
+
+	@Param({ "10" })
+	public int k;
+
+	@Param({ "2000" })
+	public double radiusMeters;
+
+	private GridIndex index;
+	private UUID[] ids;
+	private double[] latitudes;
+	private double[] longitudes;
+	private double[][] queries;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(42);
+		index = new GridIndex(0.01);
+		ids = new UUID[points];
+		latitudes = new double[points];
+		longitudes = new double[points];
+		for (int i = 0; i < points; i++) {
+			ids[i] = UUID.randomUUID();
+			latitudes[i] = CENTER_LATITUDE + random.nextGaussian() * SPREAD_DEGREES;
+			longitudes[i] = CENTER_LONGITUDE + random.nextGaussian() * SPREAD_DEGREES;
+			index.put(ids[i], latitudes[i], longitudes[i], 0);
+		}
+		queries = new double[QUERIES][];
+		for (int i = 0; i < QUERIES; i++) {
+			queries[i] = new double[] {
+					CENTER_LATITUDE + random.nextGaussian() * SPREAD_DEGREES,
+					CENTER_LONGITUDE + random.nextGaussian() * SPREAD_DEGREES };
+		}
+	}
+
+	@Benchmark
+	public List<GridIndex.Hit> gridIndex() {
+		double[] query = nextQuery();
+		return index.nearest(query[0], query[1], k, radiusMeters);
+	}
+
+	@Benchmark
+	public List<GridIndex.Hit> bruteForce() {
+		double[] query = nextQuery();
+		PriorityQueue<GridIndex.Hit> best = new PriorityQueue<>(
+				k + 1, Comparator.comparingDouble(GridIndex.Hit::distanceMeters).reversed());
+		for (int i = 0; i < points; i++) {
+			double distance = GeoDistance.meters(query[0], query[1], latitudes[i], longitudes[i]);
+			if (distance <= radiusMeters && (best.size() < k || distance < best.peek().distanceMeters())) {
+				best.add(new GridIndex.Hit(ids[i], latitudes[i], longitudes[i], distance));
+				if (best.size() > k) {
+					best.poll();
+				}
+			}
+		}
+		List<GridIndex.Hit> hits = new ArrayList<>(best);
+		hits.sort(Comparator.comparingDouble(GridIndex.Hit::distanceMeters));
+		return hits;
+	}
+
+	private double[] nextQuery() {
+		next = (next + 1) & (QUERIES - 1);
+		return queries[next];
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(GridIndexBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
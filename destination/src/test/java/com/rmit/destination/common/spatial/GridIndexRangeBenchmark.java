@@ -0,0 +1,143 @@
+package com.rmit.destination.common.spatial;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the first page of box and polygon queries on the grid index with a brute-force scan.
+ * Viewports range from a few blocks to the whole metro area, either over the dense city center
+ * or over the sparse outskirts, so both the per-cell pruning and the per-point test show up.
+ *
+ * Run like GridIndexBenchmark, with com.rmit.destination.common.spatial.GridIndexRangeBenchmark as main class.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class GridIndexRangeBenchmark {
+
+	private static final double CENTER_LATITUDE = -37.8136;
+	private static final double CENTER_LONGITUDE = 144.9631;
+	private static final double SPREAD_DEGREES = 0.25;
+	private static final int POLYGON_VERTICES = 64;
+	private static final int PAGE_SIZE = 100;
+	private static final int QUERIES = 256;
+	private static final Comparator<GridIndex.Point> HIGHEST_ID_FIRST =
+			Comparator.comparing(GridIndex.Point::id).reversed();
+
+	@Param({ "1000000" })
+	public int points;
+
+	// viewport edge: a few blocks, a suburb, the metro area
+	@Param({ "0.01", "0.05", "0.5" })
+	public double viewportDegrees;
+
+	// distance of the viewports from the center: 0 is dense, 0.5 is two standard deviations out
+	@Param({ "0", "0.5" })
+	public double offsetDegrees;
+
+	@Param({ "box", "polygon" })
+	public String shape;
+
+	private GridIndex index;
+	private UUID[] ids;
+	private double[] latitudes;
+	private double[] longitudes;
+	private Region[] regions;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(42);
+		index = new GridIndex(0.01);
+		ids = new UUID[points];
+		latitudes = new double[points];
+		longitudes = new double[points];
+		for (int i = 0; i < points; i++) {
+			ids[i] = UUID.randomUUID();
+			latitudes[i] = CENTER_LATITUDE + random.nextGaussian() * SPREAD_DEGREES;
+			longitudes[i] = CENTER_LONGITUDE + random.nextGaussian() * SPREAD_DEGREES;
+			index.put(ids[i], latitudes[i], longitudes[i], 0);
+		}
+		regions = new Region[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			double angle = random.nextDouble() * 2 * Math.PI;
+			double latitude = CENTER_LATITUDE + offsetDegrees * Math.sin(angle) + random.nextGaussian() * 0.01;
+			double longitude = CENTER_LONGITUDE + offsetDegrees * Math.cos(angle) + random.nextGaussian() * 0.01;
+			regions[i] = "box".equals(shape) ? box(latitude, longitude) : polygon(latitude, longitude);
+		}
+	}
+
+	@Benchmark
+	public List<GridIndex.Point> gridIndex() {
+		return index.within(nextRegion(), null, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<GridIndex.Point> bruteForce() {
+		Region region = nextRegion();
+		PriorityQueue<GridIndex.Point> page = new PriorityQueue<>(PAGE_SIZE + 1, HIGHEST_ID_FIRST);
+		for (int i = 0; i < points; i++) {
+			if ((page.size() < PAGE_SIZE || ids[i].compareTo(page.peek().id()) < 0)
+					&& region.contains(latitudes[i], longitudes[i])) {
+				page.add(new GridIndex.Point(ids[i], latitudes[i], longitudes[i]));
+				if (page.size() > PAGE_SIZE) {
+					page.poll();
+				}
+			}
+		}
+		List<GridIndex.Point> result = new ArrayList<>(page);
+		result.sort(HIGHEST_ID_FIRST.reversed());
+		return result;
+	}
+
+	private Region box(double latitude, double longitude) {
+		double half = viewportDegrees / 2;
+		return new BoundingBox(latitude - half, longitude - half, latitude + half, longitude + half);
+	}
+
+	// a circle-like polygon inscribed in the viewport
+	private Region polygon(double latitude, double longitude) {
+		double[] vertexLatitudes = new double[POLYGON_VERTICES];
+		double[] vertexLongitudes = new double[POLYGON_VERTICES];
+		for (int i = 0; i < POLYGON_VERTICES; i++) {
+			double angle = 2 * Math.PI * i / POLYGON_VERTICES;
+			vertexLatitudes[i] = latitude + viewportDegrees / 2 * Math.sin(angle);
+			vertexLongitudes[i] = longitude + viewportDegrees / 2 * Math.cos(angle);
+		}
+		return new Polygon(vertexLatitudes, vertexLongitudes);
+	}
+
+	private Region nextRegion() {
+		next = (next + 1) & (QUERIES - 1);
+		return regions[next];
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(GridIndexRangeBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,228 @@
+package com.rmit.destination.common.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GridIndexTest {
+
+	@Test
+	void nearestMatchesBruteForce() {
+		Random random = new Random(7);
+		GridIndex index = new GridIndex(0.05);
+		Map<UUID, double[]> points = new HashMap<>();
+		for (int i = 0; i < 5000; i++) {
+			UUID id = UUID.randomUUID();
+			// half clustered around a city, half anywhere on earth
+			double latitude = i % 2 == 0 ? -37.81 + random.nextGaussian() * 0.2 : random.nextDouble() * 180 - 90;
+			double longitude = i % 2 == 0 ? 144.96 + random.nextGaussian() * 0.2 : random.nextDouble() * 360 - 180;
+			index.put(id, latitude, longitude, 0);
+			points.put(id, new double[] { latitude, longitude });
+		}
+
+		for (int q = 0; q < 200; q++) {
+			double latitude = -37.81 + random.nextGaussian() * 0.3;
+			double longitude = 144.96 + random.nextGaussian() * 0.3;
+			int k = 1 + random.nextInt(15);
+			double radius = q % 2 == 0 ? 3_000 : 500_000;
+
+			List<Double> expected = points.values().stream()
+					.map(point -> GeoDistance.meters(latitude, longitude, point[0], point[1]))
+					.filter(distance -> distance <= radius)
+					.sorted()
+					.limit(k)
+					.toList();
+
+			assertThat(index.nearest(latitude, longitude, k, radius))
+					.extracting(GridIndex.Hit::distanceMeters)
+					.containsExactlyElementsOf(expected);
+		}
+	}
+
+	@Test
+	void nearestWrapsAroundTheAntimeridian() {
+		GridIndex index = new GridIndex(0.01);
+		UUID east = UUID.randomUUID();
+		UUID west = UUID.randomUUID();
+		index.put(east, -16.5, 179.999, 0);
+		index.put(west, -16.5, -179.95, 0);
+
+		List<GridIndex.Hit> hits = index.nearest(-16.5, -179.999, 2, 10_000);
+
+		assertThat(hits).extracting(GridIndex.Hit::id).containsExactly(east, west);
+	}
+
+	@Test
+	void putMovesPointsAndIgnoresOlderVersions() {
+		GridIndex index = new GridIndex(0.01);
+		UUID id = UUID.randomUUID();
+		index.put(id, -37.81, 144.96, 2);
+
+		assertThat(index.put(id, 51.5, -0.12, 1)).isFalse();
+		assertThat(index.nearest(-37.81, 144.96, 1, 100)).extracting(GridIndex.Hit::id).containsExactly(id);
+
+		assertThat(index.put(id, 51.5, -0.12, 3)).isTrue();
+		assertThat(index.nearest(-37.81, 144.96, 1, 100)).isEmpty();
+		assertThat(index.nearest(51.5, -0.12, 1, 100)).extracting(GridIndex.Hit::id).containsExactly(id);
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+	@Test
+	void removedPointsStayRemovedForPutsThatAreNotNewer() {
+		GridIndex index = new GridIndex(0.01);
+		UUID id = UUID.randomUUID();
+		index.put(id, -37.81, 144.96, 2);
+
+		assertThat(index.remove(id, 5)).isTrue();
+		assertThat(index.put(id, -37.81, 144.96, 4)).isFalse();
+		assertThat(index.put(id, -37.81, 144.96, 5)).isFalse();
+		assertThat(index.size()).isZero();
+
+		assertThat(index.put(id, 51.5, -0.12, 6)).isTrue();
+		assertThat(index.nearest(51.5, -0.12, 1, 100)).extracting(GridIndex.Hit::id).containsExactly(id);
+	}
+
+	@Test
+	void removalBeforeThePutStillBlocksOlderVersions() {
+		GridIndex index = new GridIndex(0.01);
+		UUID id = UUID.randomUUID();
+
+		// a delete applied before a loading snapshot hands over the row it deleted
+		assertThat(index.remove(id, 5)).isFalse();
+		assertThat(index.put(id, -37.81, 144.96, 3)).isFalse();
+		assertThat(index.size()).isZero();
+	}
+
+	@Test
+	void tombstoneCoversTheRemovedVersionAndCanBePruned() {
+		GridIndex index = new GridIndex(0.01);
+		UUID id = UUID.randomUUID();
+		index.put(id, -37.81, 144.96, 9);
+		// removal stamped by a clock behind the last update
+		index.remove(id, 7);
+
+		assertThat(index.put(id, -37.81, 144.96, 8)).isFalse();
+		assertThat(index.pruneTombstones(10)).isEqualTo(1);
+		assertThat(index.put(id, -37.81, 144.96, 8)).isTrue();
+	}
+
+	@Test
+	void removedPointsAreNotReturnedAndSlotsAreReused() {
+		GridIndex index = new GridIndex(0.01);
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 3000; i++) {
+			UUID id = UUID.randomUUID();
+			ids.add(id);
+			index.put(id, -37.81 + i * 1e-5, 144.96, 0);
+		}
+		ids.subList(0, 2000).forEach(id -> index.remove(id, 1));
+		UUID added = UUID.randomUUID();
+		index.put(added, -37.81, 144.96, 0);
+
+		List<GridIndex.Hit> hits = index.nearest(-37.81, 144.96, 5, 1_000);
+
+		assertThat(index.size()).isEqualTo(1001);
+		assertThat(hits).extracting(GridIndex.Hit::id).first().isEqualTo(added);
+		assertThat(hits).extracting(GridIndex.Hit::id).doesNotContainAnyElementsOf(ids.subList(0, 2000));
+		assertThat(hits).isSortedAccordingTo(Comparator.comparingDouble(GridIndex.Hit::distanceMeters));
+	}
+
+	@Test
+	void rejectsCoordinatesOutOfRange() {
+		GridIndex index = new GridIndex(0.01);
+
+		assertThatThrownBy(() -> index.nearest(91, 0, 1, 100)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> index.put(UUID.randomUUID(), 0, 180.5, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void withinPagesMatchBruteForce() {
+		Random random = new Random(11);
+		GridIndex index = new GridIndex(0.01);
+		Map<UUID, double[]> points = new HashMap<>();
+		for (int i = 0; i < 20000; i++) {
+			UUID id = UUID.randomUUID();
+			double latitude = -37.81 + random.nextGaussian() * 0.2;
+			double longitude = 144.96 + random.nextGaussian() * 0.2;
+			index.put(id, latitude, longitude, 0);
+			points.put(id, new double[] { latitude, longitude });
+		}
+
+		for (int q = 0; q < 100; q++) {
+			double latitude = -37.81 + random.nextGaussian() * 0.2;
+			double longitude = 144.96 + random.nextGaussian() * 0.2;
+			double span = 0.005 + random.nextDouble() * 0.2;
+			Region region = q % 2 == 0
+					? new BoundingBox(latitude, longitude, latitude + span, longitude + span)
+					: star(latitude, longitude, span, 3 + random.nextInt(30));
+
+			TreeSet<UUID> expected = new TreeSet<>();
+			points.forEach((id, point) -> {
+				if (region.contains(point[0], point[1])) {
+					expected.add(id);
+				}
+			});
+
+			assertThat(allPages(index, region, 1 + random.nextInt(200))).containsExactlyElementsOf(expected);
+		}
+	}
+
+	@Test
+	void withinBoxCrossingTheAntimeridian() {
+		GridIndex index = new GridIndex(0.01);
+		UUID east = UUID.randomUUID();
+		UUID west = UUID.randomUUID();
+		UUID outside = UUID.randomUUID();
+		index.put(east, -16.5, 179.95, 0);
+		index.put(west, -16.5, -179.95, 0);
+		index.put(outside, -16.5, 178, 0);
+
+		assertThat(allPages(index, new BoundingBox(-17, 179.9, -16, -179.9), 10))
+				.containsExactlyInAnyOrder(east, west);
+	}
+
+	@Test
+	void polygonRejectsInvalidRings() {
+		assertThatThrownBy(() -> new Polygon(new double[] { 0, 1 }, new double[] { 0, 1 }))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new Polygon(new double[] { 0, 1, 1 }, new double[] { 179, 179, -179 }))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new BoundingBox(1, 0, 0, 1))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static List<UUID> allPages(GridIndex index, Region region, int pageSize) {
+		List<UUID> ids = new ArrayList<>();
+		UUID after = null;
+		List<GridIndex.Point> page;
+		do {
+			page = index.within(region, after, pageSize);
+			page.forEach(point -> ids.add(point.id()));
+			after = page.isEmpty() ? null : page.get(page.size() - 1).id();
+		} while (page.size() == pageSize);
+		return ids;
+	}
+
+	// concave polygon with alternating long and short spokes
+	private static Polygon star(double latitude, double longitude, double radius, int vertices) {
+		double[] latitudes = new double[vertices];
+		double[] longitudes = new double[vertices];
+		for (int i = 0; i < vertices; i++) {
+			double angle = 2 * Math.PI * i / vertices;
+			double spoke = i % 2 == 0 ? radius : radius / 3;
+			latitudes[i] = latitude + spoke * Math.sin(angle);
+			longitudes[i] = longitude + spoke * Math.cos(angle);
+		}
+		return new Polygon(latitudes, longitudes);
+	}
+}
@@ -0,0 +1,125 @@
+package com.rmit.destination.destination.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rmit.destination.destination.external.dto.ListChunk;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChunkedReplyAssemblerTest {
+
+	private static final byte[] CORRELATION_ID = { 10, 20, 30 };
+	private static final String KEY = HexFormat.of().formatHex(CORRELATION_ID);
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final PayloadCodecs payloadCodecs = new PayloadCodecs(objectMapper, "json");
+	private final ChunkedReplyAssembler assembler = new ChunkedReplyAssembler();
+	private long offset;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(assembler, "objectMapper", objectMapper);
+		ReflectionTestUtils.setField(assembler, "payloadCodecs", payloadCodecs);
+	}
+
+	@Test
+	void outOfOrderChunksAreJoinedInIndexOrder() throws Exception {
+		CompletableFuture<List<String>> reply = assembler.register(KEY, String.class, Duration.ofSeconds(5));
+
+		assembler.onMessage(chunk(1, false, "c", "d"));
+		assembler.onMessage(chunk(0, false, "a", "b"));
+		assertThat(reply).isNotDone();
+		assembler.onMessage(chunk(2, true, "e"));
+
+		assertThat(reply.get(1, TimeUnit.SECONDS)).containsExactly("a", "b", "c", "d", "e");
+	}
+
+	@Test
+	void earlyLastChunkWaitsForTheChunksBeforeIt() throws Exception {
+		CompletableFuture<List<String>> reply = assembler.register(KEY, String.class, Duration.ofSeconds(5));
+
+		assembler.onMessage(chunk(2, true, "e"));
+		assertThat(reply).isNotDone();
+		assembler.onMessage(chunk(0, false, "a", "b"));
+		assertThat(reply).isNotDone();
+		assembler.onMessage(chunk(1, false, "c", "d"));
+
+		assertThat(reply.get(1, TimeUnit.SECONDS)).containsExactly("a", "b", "c", "d", "e");
+	}
+
+	@Test
+	void redeliveredChunkIsCountedOnce() throws Exception {
+		CompletableFuture<List<String>> reply = assembler.register(KEY, String.class, Duration.ofSeconds(5));
+
+		assembler.onMessage(chunk(0, false, "a"));
+		assembler.onMessage(chunk(0, false, "a"));
+		assertThat(reply).isNotDone();
+		assembler.onMessage(chunk(1, true, "b"));
+
+		assertThat(reply.get(1, TimeUnit.SECONDS)).containsExactly("a", "b");
+	}
+
+	@Test
+	void errorHeaderFailsTheRequest() {
+		CompletableFuture<List<String>> reply = assembler.register(KEY, String.class, Duration.ofSeconds(5));
+
+		assembler.onMessage(chunk(0, false, "a"));
+		ConsumerRecord<String, Object> error = new ConsumerRecord<>("replies", 0, offset++, KEY, new byte[0]);
+		error.headers().add(KafkaHeaders.CORRELATION_ID, CORRELATION_ID);
+		error.headers().add(KafkaDltHandler.REPLY_ERROR_HEADER, "listing failed".getBytes(StandardCharsets.UTF_8));
+		assembler.onMessage(error);
+
+		assertThatThrownBy(() -> reply.get(1, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasMessageContaining("listing failed");
+	}
+
+	@Test
+	void chunksOfUnknownRequestsAreIgnored() throws Exception {
+		CompletableFuture<List<String>> reply = assembler.register(KEY, String.class, Duration.ofSeconds(5));
+		ConsumerRecord<String, Object> stranger = chunk(0, true, "x");
+		stranger.headers().remove(KafkaHeaders.CORRELATION_ID);
+		stranger.headers().add(KafkaHeaders.CORRELATION_ID, new byte[] { 99 });
+
+		assembler.onMessage(stranger);
+		assertThat(reply).isNotDone();
+		assembler.onMessage(chunk(0, true, "a"));
+
+		assertThat(reply.get(1, TimeUnit.SECONDS)).containsExactly("a");
+	}
+
+	@Test
+	void incompleteReplyTimesOut() {
+		CompletableFuture<List<String>> reply = assembler.register(KEY, String.class, Duration.ofMillis(20));
+
+		assembler.onMessage(chunk(1, true, "b"));
+
+		assertThatThrownBy(() -> reply.get(1, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+	}
+
+	private ConsumerRecord<String, Object> chunk(int index, boolean last, String... items) {
+		try {
+			ListChunk<String> chunk = ListChunk.<String>builder().index(index).last(last).items(List.of(items)).build();
+			byte[] payload = payloadCodecs.defaultCodec().encode(chunk);
+			ConsumerRecord<String, Object> record = new ConsumerRecord<>("replies", 0, offset++, KEY, payload);
+			record.headers().add(KafkaHeaders.CORRELATION_ID, CORRELATION_ID);
+			payloadCodecs.addHeader(record.headers(), payloadCodecs.defaultCodec());
+			return record;
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.rmit.route.common.config;
+
+import java.util.List;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaRetryTopic;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.support.serializer.DeserializationException;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.rmit.route.route.external.dto.RouteTopicRegistry;
+
+/**
+ * Shared error handling for all Kafka listeners.
+ * Request topics retry on non-blocking retry topics so a failing request never stalls its partition,
+ * then land on their -dlt topic where the requester is sent an error reply.
+ * Broadcast and batch listeners retry in place with backoff, then publish the record to its -dlt topic.
+ * Retry policies come from KafkaRetryProperties and can be set per topic under kafka.retry.topics.
+ * Dead-lettered records carry the exception and original topic/partition/offset in kafka_dlt-* headers.
+ */
+@Configuration
+@EnableKafkaRetryTopic
+@EnableConfigurationProperties(KafkaRetryProperties.class)
+public class KafkaErrorHandlingConfig {
+
+  public static final String DLT_SUFFIX = "-dlt";
+
+  // a payload that cannot be read or a request that is invalid fails the same way on every attempt
+  private static final List<Class<? extends Throwable>> NOT_RETRYABLE =
+      List.of(DeserializationException.class, JacksonException.class, IllegalArgumentException.class);
+
+  // request-reply topics: one configuration per topic so each resolves its own policy,
+  // keep them short, a requester stops waiting after kafka.request-reply.timeout
+
+  @Bean
+  public RetryTopicConfiguration testRequestReplyRetryTopicConfiguration(
+      KafkaTemplate<String, Object> kafkaTemplate, KafkaRetryProperties retryProperties) {
+    return requestRetryTopicConfiguration(RouteTopicRegistry.Topic.TEST_REQUEST_REPLY_REQ, kafkaTemplate, retryProperties);
+  }
+
+  @Bean
+  public RetryTopicConfiguration listRetryTopicConfiguration(
+      KafkaTemplate<String, Object> kafkaTemplate, KafkaRetryProperties retryProperties) {
+    return requestRetryTopicConfiguration(RouteTopicRegistry.Topic.LIST_REQ, kafkaTemplate, retryProperties);
+  }
+
+  private static RetryTopicConfiguration requestRetryTopicConfiguration(
+      String topic, KafkaTemplate<String, Object> kafkaTemplate, KafkaRetryProperties retryProperties) {
+    KafkaRetryProperties.Policy policy = retryProperties.requestPolicy(topic);
+    return RetryTopicConfigurationBuilder.newInstance()
+        .includeTopic(topic)
+        .maxAttempts(policy.getAttempts())
+        .exponentialBackoff(policy.getInitialIntervalMs(), policy.getMultiplier(), policy.getMaxIntervalMs())
+        .notRetryOn(NOT_RETRYABLE)
+        .dltSuffix(DLT_SUFFIX)
+        .dltHandlerMethod("kafkaDltHandler", "handleDlt")
+        .create(kafkaTemplate);
+  }
+
+  // broadcast and batch listeners: blocking retries, per-instance groups would duplicate retry topics
+  @Bean
+  public DefaultErrorHandler kafkaErrorHandler(
+      KafkaTemplate<String, Object> kafkaTemplate, KafkaRetryProperties retryProperties) {
+    DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+        (record, exception) -> new TopicPartition(record.topic() + DLT_SUFFIX, -1));
+    DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, retryProperties.getBroadcast().toBackOff());
+    // topics listed under kafka.retry.topics get their own backoff, null keeps the default one
+    errorHandler.setBackOffFunction((record, exception) -> retryProperties.getTopics().containsKey(record.topic())
+        ? retryProperties.broadcastPolicy(record.topic()).toBackOff()
+        : null);
+    errorHandler.addNotRetryableExceptions(DeserializationException.class, JacksonException.class, IllegalArgumentException.class);
+    return errorHandler;
+  }
+}
@@ -0,0 +1,36 @@
+package com.rmit.route.common.config;
+
+import java.time.Duration;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import com.rmit.route.route.external.dto.RouteTopicRegistry;
+import com.rmit.route.route.kafka.KafkaInstance;
+
+/**
+ * Topics owned by this service that need non-default settings
+ */
+@Configuration
+public class KafkaTopicConfig {
+  // entity change events keep the latest event per entity id, so consumers can rebuild state from offset 0
+  @Bean
+  public NewTopic changedTopic() {
+    return TopicBuilder.name(RouteTopicRegistry.Topic.CHANGED)
+        .compact()
+        .build();
+  }
+
+  // replies are read within the request timeout, so the per-instance reply topic keeps them only briefly
+  @Bean
+  public NewTopic replyTopic(KafkaInstance kafkaInstance, @Value("${kafka.reply.retention}") Duration retention) {
+    return TopicBuilder.name(kafkaInstance.getReplyTopic())
+        .partitions(1)
+        .config(TopicConfig.RETENTION_MS_CONFIG, Long.toString(retention.toMillis()))
+        .build();
+  }
+}
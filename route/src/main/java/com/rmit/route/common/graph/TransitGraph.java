@@ -0,0 +1,450 @@
+package com.rmit.route.common.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.rmit.route.common.spatial.GeoDistance;
+
+/**
+ * Immutable transit network, searched with A*.
+ * Stops and routes are dense ints. Every stop has a node, and so does every visit of a route to a stop.
+ * Riding moves between neighbouring visits of one route in either direction and costs the haversine leg length.
+ * Boarding moves from a stop to a visit for free, and alighting moves back at the cost of the transfer penalty.
+ * The straight-line distance to the target never exceeds the remaining cost, so A* returns optimal journeys.
+ *
+ * The visits of a route take consecutive ids, so ride edges are implicit and only boarding needs a list per stop.
+ * {@link #withRoutes} derives a graph where some routes are replaced: their visits get fresh ids at the end,
+ * and only the boarding lists of the stops they touch are rebuilt. Everything else is shared with this graph.
+ */
+public final class TransitGraph {
+
+  /**
+   * One ride on a route, through stops in travel order
+   */
+  public record Leg(int route, int[] stops, double meters) {
+  }
+
+  private static final int[] NO_VISITS = new int[0];
+  // ids of replaced visits are left unused until there are more of them than live ones
+  private static final int COMPACTION_SLACK = 4096;
+
+  private final int stopCount;
+  private final double[] latitudes;
+  private final double[] longitudes;
+  private final double transferPenaltyMeters;
+  // by route: its stops in order, the length of every leg between them, and the id of its first visit
+  private final int[][] routeStops;
+  private final double[][] routeLegs;
+  private final int[] firstVisits;
+  // by visit: its route, the position on the route is the distance to the route's first visit
+  private final int[] visitRoutes;
+  // by stop: the visits boarding there, null when there are none
+  private final int[][] stopVisits;
+  private final int liveVisits;
+  private final int liveRoutes;
+
+  private TransitGraph(int stopCount, double[] latitudes, double[] longitudes, double transferPenaltyMeters,
+      int[][] routeStops, double[][] routeLegs, int[] firstVisits, int[] visitRoutes, int[][] stopVisits,
+      int liveVisits, int liveRoutes) {
+    this.stopCount = stopCount;
+    this.latitudes = latitudes;
+    this.longitudes = longitudes;
+    this.transferPenaltyMeters = transferPenaltyMeters;
+    this.routeStops = routeStops;
+    this.routeLegs = routeLegs;
+    this.firstVisits = firstVisits;
+    this.visitRoutes = visitRoutes;
+    this.stopVisits = stopVisits;
+    this.liveVisits = liveVisits;
+    this.liveRoutes = liveRoutes;
+  }
+
+  /**
+   * @param latitudes   stop latitudes, indexed by stop
+   * @param longitudes  stop longitudes, indexed by stop
+   * @param routeStops  the stops of every route in order, indexed by route
+   * @param transferPenaltyMeters cost added for every change of route, expressed as distance
+   */
+  public static TransitGraph build(int stopCount, double[] latitudes, double[] longitudes, int[][] routeStops,
+      double transferPenaltyMeters) {
+    int visitCount = 0;
+    int liveRoutes = 0;
+    for (int[] stops : routeStops) {
+      if (stops != null && stops.length > 0) {
+        visitCount += stops.length;
+        liveRoutes++;
+      }
+    }
+    int[][] storedStops = new int[routeStops.length][];
+    double[][] routeLegs = new double[routeStops.length][];
+    int[] firstVisits = new int[routeStops.length];
+    int[] visitRoutes = new int[visitCount];
+
+    // first pass: visits per stop, so every boarding list is allocated once at its final size
+    int[] boardings = new int[stopCount];
+    int visit = 0;
+    for (int route = 0; route < routeStops.length; route++) {
+      int[] stops = routeStops[route];
+      if (stops == null || stops.length == 0) {
+        continue;
+      }
+      storedStops[route] = stops;
+      routeLegs[route] = legMeters(latitudes, longitudes, stops);
+      firstVisits[route] = visit;
+      for (int stop : stops) {
+        visitRoutes[visit++] = route;
+        boardings[stop]++;
+      }
+    }
+
+    int[][] stopVisits = new int[stopCount][];
+    for (int stop = 0; stop < stopCount; stop++) {
+      stopVisits[stop] = boardings[stop] == 0 ? null : new int[boardings[stop]];
+      boardings[stop] = 0;
+    }
+    for (visit = 0; visit < visitCount; visit++) {
+      int route = visitRoutes[visit];
+      int stop = storedStops[route][visit - firstVisits[route]];
+      stopVisits[stop][boardings[stop]++] = visit;
+    }
+    return new TransitGraph(stopCount, latitudes, longitudes, transferPenaltyMeters, storedStops, routeLegs,
+        firstVisits, visitRoutes, stopVisits, visitCount, liveRoutes);
+  }
+
+  /**
+   * Derive a graph in which the given routes are replaced, added or removed
+   *
+   * @param stopCount  stop count of the new graph, at least that of this one
+   * @param latitudes  stop latitudes of the new graph; pass new arrays when coordinates of existing stops change,
+   *                   this graph keeps reading the ones it was built with
+   * @param longitudes stop longitudes of the new graph
+   * @param routes     the changed routes, a route beyond the current ones adds it
+   * @param stops      the new stops of each changed route in order, null or empty to remove the route
+   */
+  public TransitGraph withRoutes(int stopCount, double[] latitudes, double[] longitudes, int[] routes, int[][] stops) {
+    if (stopCount < this.stopCount) {
+      throw new IllegalArgumentException("Stops cannot be removed from a transit graph");
+    }
+    int routeCount = routeStops.length;
+    int added = 0;
+    for (int i = 0; i < routes.length; i++) {
+      routeCount = Math.max(routeCount, routes[i] + 1);
+      added += stops[i] == null ? 0 : stops[i].length;
+    }
+    int[][] newRouteStops = Arrays.copyOf(routeStops, routeCount);
+    double[][] newRouteLegs = Arrays.copyOf(routeLegs, routeCount);
+    int[] newFirstVisits = Arrays.copyOf(firstVisits, routeCount);
+    int[] newVisitRoutes = Arrays.copyOf(visitRoutes, visitRoutes.length + added);
+    int[][] newStopVisits = Arrays.copyOf(stopVisits, stopCount);
+    int newLiveVisits = liveVisits;
+    int newLiveRoutes = liveRoutes;
+
+    // unhook the old visits of every changed route from the stops they board at
+    for (int route : routes) {
+      int[] old = newRouteStops[route];
+      if (old == null) {
+        continue;
+      }
+      int first = newFirstVisits[route];
+      for (int stop : old) {
+        newStopVisits[stop] = without(newStopVisits[stop], first, first + old.length);
+      }
+      newRouteStops[route] = null;
+      newRouteLegs[route] = null;
+      newLiveVisits -= old.length;
+      newLiveRoutes--;
+    }
+
+    // append the new visits
+    int visit = visitRoutes.length;
+    for (int i = 0; i < routes.length; i++) {
+      int route = routes[i];
+      int[] path = stops[i];
+      if (path == null || path.length == 0) {
+        continue;
+      }
+      newRouteStops[route] = path;
+      newRouteLegs[route] = legMeters(latitudes, longitudes, path);
+      newFirstVisits[route] = visit;
+      for (int stop : path) {
+        newVisitRoutes[visit] = route;
+        newStopVisits[stop] = with(newStopVisits[stop], visit);
+        visit++;
+      }
+      newLiveVisits += path.length;
+      newLiveRoutes++;
+    }
+    return new TransitGraph(stopCount, latitudes, longitudes, transferPenaltyMeters, newRouteStops, newRouteLegs,
+        newFirstVisits, newVisitRoutes, newStopVisits, newLiveVisits, newLiveRoutes);
+  }
+
+  public int stopCount() {
+    return stopCount;
+  }
+
+  /**
+   * Highest route number in use plus one, including numbers of removed routes
+   */
+  public int routeCount() {
+    return routeStops.length;
+  }
+
+  public int edgeCount() {
+    // boarding and alighting at every visit, riding both ways between neighbouring visits
+    return 2 * liveVisits + 2 * (liveVisits - liveRoutes);
+  }
+
+  /**
+   * True once replaced visits or removed routes outnumber live ones, and a fresh {@link #build} would be smaller
+   */
+  public boolean needsCompaction() {
+    return visitRoutes.length - liveVisits > liveVisits + COMPACTION_SLACK
+        || routeStops.length - liveRoutes > liveRoutes + COMPACTION_SLACK;
+  }
+
+  /**
+   * Whether any route stops at a stop
+   */
+  public boolean isServed(int stop) {
+    return stop < stopCount && stopVisits[stop] != null;
+  }
+
+  /**
+   * @return the distinct routes stopping at a stop
+   */
+  public int[] routesThrough(int stop) {
+    int[] visits = stop < stopCount ? stopVisits[stop] : null;
+    if (visits == null) {
+      return NO_VISITS;
+    }
+    int[] routes = new int[visits.length];
+    int count = 0;
+    for (int visit : visits) {
+      int route = visitRoutes[visit];
+      boolean seen = false;
+      for (int i = 0; i < count && !seen; i++) {
+        seen = routes[i] == route;
+      }
+      if (!seen) {
+        routes[count++] = route;
+      }
+    }
+    return Arrays.copyOf(routes, count);
+  }
+
+  /**
+   * Cheapest journey between two stops
+   *
+   * @param heuristic false to run plain Dijkstra, for comparison
+   * @return legs in travel order, empty if origin and target are the same stop, null if the target is unreachable
+   */
+  public List<Leg> search(int origin, int target, boolean heuristic) {
+    if (origin == target) {
+      return List.of();
+    }
+    Search search = new Search(target, heuristic);
+    search.reach(origin, -1, 0);
+    while (!search.open.isEmpty()) {
+      int node = search.open.pop();
+      if (search.settled[node]) {
+        continue;
+      }
+      search.settled[node] = true;
+      if (node < stopCount) {
+        int[] visits = stopVisits[node];
+        if (visits != null) {
+          for (int visit : visits) {
+            search.reach(stopCount + visit, node, 0);
+          }
+        }
+        continue;
+      }
+      int visit = node - stopCount;
+      int route = visitRoutes[visit];
+      int position = visit - firstVisits[route];
+      int[] stops = routeStops[route];
+      if (stops[position] == target) {
+        return legs(node, search.parent);
+      }
+      search.reach(stops[position], node, transferPenaltyMeters);
+      if (position > 0) {
+        search.reach(node - 1, node, routeLegs[route][position - 1]);
+      }
+      if (position < stops.length - 1) {
+        search.reach(node + 1, node, routeLegs[route][position]);
+      }
+    }
+    return null;
+  }
+
+  // walks back from the arrival visit, cutting a leg wherever the path passes through a stop node
+  private List<Leg> legs(int arrival, int[] parent) {
+    List<Leg> legs = new ArrayList<>();
+    int node = arrival;
+    while (node >= stopCount) {
+      int end = node;
+      int visits = 0;
+      while (node >= stopCount) {
+        visits++;
+        node = parent[node];
+      }
+      int route = visitRoutes[end - stopCount];
+      int[] stops = new int[visits];
+      double meters = 0;
+      int visit = end;
+      int nextPosition = -1;
+      for (int i = visits - 1; i >= 0; i--) {
+        int position = visit - stopCount - firstVisits[route];
+        stops[i] = routeStops[route][position];
+        if (nextPosition >= 0) {
+          meters += routeLegs[route][Math.min(position, nextPosition)];
+        }
+        nextPosition = position;
+        visit = parent[visit];
+      }
+      legs.add(new Leg(route, stops, meters));
+      // node is now the stop where this leg was boarded, step back to the visit alighted before it
+      node = parent[node];
+      if (node < 0) {
+        break;
+      }
+    }
+    Collections.reverse(legs);
+    return legs;
+  }
+
+  private double remainingMeters(int node, int target) {
+    int stop = node;
+    if (node >= stopCount) {
+      int route = visitRoutes[node - stopCount];
+      stop = routeStops[route][node - stopCount - firstVisits[route]];
+    }
+    return GeoDistance.meters(latitudes[stop], longitudes[stop], latitudes[target], longitudes[target]);
+  }
+
+  private static double[] legMeters(double[] latitudes, double[] longitudes, int[] stops) {
+    double[] legs = new double[stops.length - 1];
+    for (int i = 0; i < legs.length; i++) {
+      legs[i] = GeoDistance.meters(latitudes[stops[i]], longitudes[stops[i]],
+          latitudes[stops[i + 1]], longitudes[stops[i + 1]]);
+    }
+    return legs;
+  }
+
+  // copy of visits without the ids in [from, to)
+  private static int[] without(int[] visits, int from, int to) {
+    if (visits == null) {
+      return null;
+    }
+    int[] kept = new int[visits.length];
+    int count = 0;
+    for (int visit : visits) {
+      if (visit < from || visit >= to) {
+        kept[count++] = visit;
+      }
+    }
+    return count == 0 ? null : Arrays.copyOf(kept, count);
+  }
+
+  private static int[] with(int[] visits, int visit) {
+    if (visits == null) {
+      return new int[] { visit };
+    }
+    int[] extended = Arrays.copyOf(visits, visits.length + 1);
+    extended[visits.length] = visit;
+    return extended;
+  }
+
+  /**
+   * Per-query state: best known cost and predecessor of every node, and the open set
+   */
+  private final class Search {
+    private final int target;
+    private final boolean heuristic;
+    private final double[] cost;
+    private final int[] parent;
+    private final boolean[] settled;
+    private final NodeHeap open = new NodeHeap();
+
+    private Search(int target, boolean heuristic) {
+      int nodeCount = stopCount + visitRoutes.length;
+      this.target = target;
+      this.heuristic = heuristic;
+      this.cost = new double[nodeCount];
+      this.parent = new int[nodeCount];
+      this.settled = new boolean[nodeCount];
+      Arrays.fill(cost, Double.POSITIVE_INFINITY);
+    }
+
+    // offers a node at the cost of reaching it from another, origin has no predecessor
+    private void reach(int node, int from, double weight) {
+      double candidate = from < 0 ? 0 : cost[from] + weight;
+      if (candidate < cost[node]) {
+        cost[node] = candidate;
+        parent[node] = from;
+        double estimate = heuristic ? remainingMeters(node, target) : 0;
+        open.push(node, candidate + estimate);
+      }
+    }
+  }
+
+  /**
+   * Binary min-heap of nodes by priority in parallel primitive arrays.
+   * Improved nodes are pushed again rather than decreased, stale entries are skipped when popped.
+   */
+  private static final class NodeHeap {
+    private int[] nodes = new int[64];
+    private double[] priorities = new double[64];
+    private int size;
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void push(int node, double priority) {
+      if (size == nodes.length) {
+        nodes = Arrays.copyOf(nodes, size * 2);
+        priorities = Arrays.copyOf(priorities, size * 2);
+      }
+      int index = size++;
+      while (index > 0) {
+        int parent = (index - 1) >>> 1;
+        if (priorities[parent] <= priority) {
+          break;
+        }
+        nodes[index] = nodes[parent];
+        priorities[index] = priorities[parent];
+        index = parent;
+      }
+      nodes[index] = node;
+      priorities[index] = priority;
+    }
+
+    int pop() {
+      int top = nodes[0];
+      int lastNode = nodes[--size];
+      double lastPriority = priorities[size];
+      int index = 0;
+      while (true) {
+        int child = 2 * index + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+          child++;
+        }
+        if (priorities[child] >= lastPriority) {
+          break;
+        }
+        nodes[index] = nodes[child];
+        priorities[index] = priorities[child];
+        index = child;
+      }
+      nodes[index] = lastNode;
+      priorities[index] = lastPriority;
+      return top;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.rmit.route.common.index;
+
+import java.util.Arrays;
+
+/**
+ * Sorted int sets keyed by dense int ids, one array per key and no boxing.
+ * Membership is a binary search, so sets stay compact for the tens to hundreds of entries they hold.
+ * Not thread-safe, the owner guards access.
+ */
+public class PostingLists {
+
+  private static final int[] EMPTY = new int[0];
+
+  private int[][] postings = new int[1024][];
+  private int[] sizes = new int[1024];
+
+  /**
+   * @return true if the value was not in the set yet
+   */
+  public boolean add(int key, int value) {
+    ensureKey(key);
+    int[] values = postings[key] == null ? EMPTY : postings[key];
+    int size = sizes[key];
+    int index = Arrays.binarySearch(values, 0, size, value);
+    if (index >= 0) {
+      return false;
+    }
+    int insertAt = -index - 1;
+    if (size == values.length) {
+      values = Arrays.copyOf(values, Math.max(4, size * 2));
+      postings[key] = values;
+    }
+    System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+    values[insertAt] = value;
+    sizes[key] = size + 1;
+    return true;
+  }
+
+  /**
+   * @return true if the value was in the set
+   */
+  public boolean remove(int key, int value) {
+    if (key >= sizes.length || sizes[key] == 0) {
+      return false;
+    }
+    int[] values = postings[key];
+    int size = sizes[key];
+    int index = Arrays.binarySearch(values, 0, size, value);
+    if (index < 0) {
+      return false;
+    }
+    System.arraycopy(values, index + 1, values, index, size - index - 1);
+    sizes[key] = size - 1;
+    if (size - 1 == 0) {
+      postings[key] = null;
+    }
+    return true;
+  }
+
+  public int size(int key) {
+    return key < sizes.length ? sizes[key] : 0;
+  }
+
+  /**
+   * @return a copy of the set in ascending order
+   */
+  public int[] values(int key) {
+    int size = size(key);
+    return size == 0 ? EMPTY : Arrays.copyOf(postings[key], size);
+  }
+
+  public void clear(int key) {
+    if (key < sizes.length) {
+      postings[key] = null;
+      sizes[key] = 0;
+    }
+  }
+
+  private void ensureKey(int key) {
+    if (key >= sizes.length) {
+      int capacity = Math.max(key + 1, sizes.length * 2);
+      postings = Arrays.copyOf(postings, capacity);
+      sizes = Arrays.copyOf(sizes, capacity);
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package com.rmit.route.common.index;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Assigns dense int ids to UUIDs, so per-entity data can live in primitive arrays.
+ * Lookups use an open-addressing table over the two halves of each UUID, without boxing.
+ * Released ids are handed out again. Not thread-safe, the owner guards access.
+ */
+public class UuidDictionary {
+
+  private static final int EMPTY = -1;
+  private static final int INITIAL_CAPACITY = 1024;
+
+  // hash table of ids, probed linearly; at most half full
+  private int[] table = newTable(INITIAL_CAPACITY * 2);
+  private UUID[] uuids = new UUID[INITIAL_CAPACITY];
+  private int[] freeIds = new int[16];
+  private int freeCount;
+  private int nextId;
+  private int size;
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the id of a UUID, or -1 if it has none
+   */
+  public int idOf(UUID uuid) {
+    int mask = table.length - 1;
+    for (int index = hash(uuid) & mask; table[index] != EMPTY; index = (index + 1) & mask) {
+      if (uuids[table[index]].equals(uuid)) {
+        return table[index];
+      }
+    }
+    return EMPTY;
+  }
+
+  /**
+   * @return the id of a UUID, assigning one if it has none
+   */
+  public int intern(UUID uuid) {
+    int mask = table.length - 1;
+    int index = hash(uuid) & mask;
+    for (; table[index] != EMPTY; index = (index + 1) & mask) {
+      if (uuids[table[index]].equals(uuid)) {
+        return table[index];
+      }
+    }
+    int id = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+    if (id == uuids.length) {
+      uuids = Arrays.copyOf(uuids, id * 2);
+    }
+    uuids[id] = uuid;
+    table[index] = id;
+    if (++size * 2 > table.length) {
+      rehash(table.length * 2);
+    }
+    return id;
+  }
+
+  public UUID uuidOf(int id) {
+    return uuids[id];
+  }
+
+  /**
+   * Forget a UUID so its id can be reused
+   *
+   * @return the released id, or -1 if the UUID had none
+   */
+  public int release(UUID uuid) {
+    int mask = table.length - 1;
+    int index = hash(uuid) & mask;
+    while (table[index] != EMPTY && !uuids[table[index]].equals(uuid)) {
+      index = (index + 1) & mask;
+    }
+    int id = table[index];
+    if (id == EMPTY) {
+      return EMPTY;
+    }
+    deleteAt(index);
+    uuids[id] = null;
+    if (freeCount == freeIds.length) {
+      freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+    }
+    freeIds[freeCount++] = id;
+    size--;
+    return id;
+  }
+
+  // backward-shift deletion keeps every probe chain unbroken without tombstones
+  private void deleteAt(int hole) {
+    int mask = table.length - 1;
+    int index = hole;
+    while (true) {
+      index = (index + 1) & mask;
+      if (table[index] == EMPTY) {
+        break;
+      }
+      int home = hash(uuids[table[index]]) & mask;
+      // move the entry back unless its home lies cyclically between the hole and its slot
+      if (hole <= index ? home <= hole || home > index : home <= hole && home > index) {
+        table[hole] = table[index];
+        hole = index;
+      }
+    }
+    table[hole] = EMPTY;
+  }
+
+  private void rehash(int capacity) {
+    int[] old = table;
+    table = newTable(capacity);
+    int mask = capacity - 1;
+    for (int id : old) {
+      if (id != EMPTY) {
+        int index = hash(uuids[id]) & mask;
+        while (table[index] != EMPTY) {
+          index = (index + 1) & mask;
+        }
+        table[index] = id;
+      }
+    }
+  }
+
+  private static int[] newTable(int capacity) {
+    int[] table = new int[capacity];
+    Arrays.fill(table, EMPTY);
+    return table;
+  }
+
+  private static int hash(UUID uuid) {
+    long h = uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    return (int) h;
+  }
+}
@@ -0,0 +1,56 @@
+package com.rmit.route.common.outbox;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  // record key, keeps the events of one entity on one partition in order
+  @Column(name = "aggregate_id", nullable = false)
+  private UUID aggregateId;
+
+  @Column(name = "event_type", nullable = false)
+  private String eventType;
+
+  @Column(nullable = false)
+  private String topic;
+
+  @Column(name = "content_type", nullable = false)
+  private String contentType;
+
+  @Column(nullable = false)
+  private byte[] payload;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "published_at")
+  private LocalDateTime publishedAt;
+
+  @PrePersist
+  protected void onCreate() {
+    createdAt = LocalDateTime.now();
+  }
+}
@@ -0,0 +1,41 @@
+package com.rmit.route.common.outbox;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "processed_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedEvent {
+
+  @EmbeddedId
+  private Key key;
+
+  @Column(name = "processed_at", nullable = false)
+  private LocalDateTime processedAt;
+
+  @Embeddable
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+
+    @Column(nullable = false)
+    private String consumer;
+
+    // outbox event id of the producing service, from the event-id header
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+  }
+}
@@ -0,0 +1,23 @@
+package com.rmit.route.common.outbox;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, ProcessedEvent.Key> {
+
+  // 1 the first time, 0 when the consumer already processed the event
+  @Modifying
+  @Query(value = "INSERT INTO processed_events (consumer, event_id, processed_at) VALUES (:consumer, :eventId, now()) "
+      + "ON CONFLICT DO NOTHING", nativeQuery = true)
+  int insertIfAbsent(@Param("consumer") String consumer, @Param("eventId") long eventId);
+
+  @Modifying
+  @Query("DELETE FROM ProcessedEvent e WHERE e.processedAt < :before")
+  int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
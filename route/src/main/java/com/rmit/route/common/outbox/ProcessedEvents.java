@@ -0,0 +1,58 @@
+package com.rmit.route.common.outbox;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Remembers which outbox events a consumer group has acted on, by their event-id header.
+ * For consumers whose effects are written to the database: the event is marked in the same
+ * transaction as those effects, so a redelivery after a crash or rebalance is dropped exactly
+ * when its effects were committed, whichever instance receives it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProcessedEvents {
+
+  private final ProcessedEventRepository processedEventRepository;
+
+  // redeliveries arrive within the producer's outbox retention, so the ids are kept as long
+  @Value("${outbox.retention}")
+  private Duration retention;
+
+  /**
+   * Mark the record's event as processed by the consumer, as part of the caller's transaction
+   *
+   * @return true if the consumer has not processed the event before, or the record carries no event id
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public boolean markProcessed(String consumer, ConsumerRecord<String, ?> record) {
+    Header header = record.headers().lastHeader(OutboxRelay.EVENT_ID_HEADER);
+    if (header == null) {
+      return true;
+    }
+    long eventId = Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+    return processedEventRepository.insertIfAbsent(consumer, eventId) == 1;
+  }
+
+  @Scheduled(fixedDelayString = "${outbox.cleanup-interval}")
+  @Transactional
+  public void cleanup() {
+    int deleted = processedEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+    if (deleted > 0) {
+      log.debug("Deleted {} processed event ids", deleted);
+    }
+  }
+}
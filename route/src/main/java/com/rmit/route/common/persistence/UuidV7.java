@@ -0,0 +1,21 @@
+package com.rmit.route.common.persistence;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Generates time-ordered UUIDv7 identifiers on the client
+ * Keys are assigned before the INSERT so rows can be sent in JDBC batches,
+ * and their ordering keeps new entries at the right edge of the primary key index
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface UuidV7 {
+}
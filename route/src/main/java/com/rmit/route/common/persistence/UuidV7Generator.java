@@ -0,0 +1,35 @@
+package com.rmit.route.common.persistence;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+  @Override
+  public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+      EventType eventType) {
+    return next();
+  }
+
+  @Override
+  public EnumSet<EventType> getEventTypes() {
+    return EventTypeSets.INSERT_ONLY;
+  }
+
+  /**
+   * Build a UUIDv7 (RFC 9562): 48-bit Unix epoch milliseconds, version, 12 random bits,
+   * variant and 62 random bits
+   */
+  public static UUID next() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long mostSigBits = (System.currentTimeMillis() << 16) | 0x7000L | (random.nextLong() & 0x0FFFL);
+    long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    return new UUID(mostSigBits, leastSigBits);
+  }
+}
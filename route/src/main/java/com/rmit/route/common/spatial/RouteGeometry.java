@@ -0,0 +1,96 @@
+package com.rmit.route.common.spatial;
+
+/**
+ * Geometry of a path of stops given as parallel latitude/longitude arrays in degrees.
+ * Every method loops over primitives and writes into buffers owned by the caller, so nothing
+ * is allocated per stop.
+ */
+public final class RouteGeometry {
+
+  private static final double POLYLINE_FACTOR = 1e5;
+
+  private RouteGeometry() {
+  }
+
+  /**
+   * Haversine length of every leg and the distance travelled up to every stop.
+   * The cosine of each latitude is shared by the two legs touching that stop.
+   *
+   * @param legMeters        receives count - 1 leg lengths, leg i runs from stop i to stop i + 1
+   * @param cumulativeMeters receives count distances, starting with 0 at the first stop
+   * @return total length in meters
+   */
+  public static double legDistances(double[] latitudes, double[] longitudes, int count,
+      double[] legMeters, double[] cumulativeMeters) {
+    if (count == 0) {
+      return 0;
+    }
+    double previousPhi = Math.toRadians(latitudes[0]);
+    double previousCos = Math.cos(previousPhi);
+    double total = 0;
+    cumulativeMeters[0] = 0;
+    for (int i = 1; i < count; i++) {
+      double phi = Math.toRadians(latitudes[i]);
+      double cos = Math.cos(phi);
+      double sinDeltaPhi = Math.sin((phi - previousPhi) / 2);
+      double sinDeltaLambda = Math.sin(Math.toRadians(longitudes[i] - longitudes[i - 1]) / 2);
+      double a = sinDeltaPhi * sinDeltaPhi + previousCos * cos * sinDeltaLambda * sinDeltaLambda;
+      double leg = 2 * GeoDistance.EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+      legMeters[i - 1] = leg;
+      total += leg;
+      cumulativeMeters[i] = total;
+      previousPhi = phi;
+      previousCos = cos;
+    }
+    return total;
+  }
+
+  /**
+   * Box around all stops, ignoring the antimeridian
+   *
+   * @param bounds receives minLatitude, minLongitude, maxLatitude, maxLongitude; left untouched when count is 0
+   */
+  public static void bounds(double[] latitudes, double[] longitudes, int count, double[] bounds) {
+    if (count == 0) {
+      return;
+    }
+    double minLatitude = latitudes[0], maxLatitude = latitudes[0];
+    double minLongitude = longitudes[0], maxLongitude = longitudes[0];
+    for (int i = 1; i < count; i++) {
+      minLatitude = Math.min(minLatitude, latitudes[i]);
+      maxLatitude = Math.max(maxLatitude, latitudes[i]);
+      minLongitude = Math.min(minLongitude, longitudes[i]);
+      maxLongitude = Math.max(maxLongitude, longitudes[i]);
+    }
+    bounds[0] = minLatitude;
+    bounds[1] = minLongitude;
+    bounds[2] = maxLatitude;
+    bounds[3] = maxLongitude;
+  }
+
+  /**
+   * Encoded polyline with 5 decimal places, the format map SDKs decode directly
+   */
+  public static void encodePolyline(double[] latitudes, double[] longitudes, int count, StringBuilder out) {
+    long previousLatitude = 0;
+    long previousLongitude = 0;
+    for (int i = 0; i < count; i++) {
+      long latitude = Math.round(latitudes[i] * POLYLINE_FACTOR);
+      long longitude = Math.round(longitudes[i] * POLYLINE_FACTOR);
+      encodeValue(latitude - previousLatitude, out);
+      encodeValue(longitude - previousLongitude, out);
+      previousLatitude = latitude;
+      previousLongitude = longitude;
+    }
+  }
+
+  // zig-zag encoded, then written in 5-bit groups from the lowest, each flagged when another follows
+  private static void encodeValue(long delta, StringBuilder out) {
+    long value = delta < 0 ? ~(delta << 1) : delta << 1;
+    while (value >= 0x20) {
+      out.append((char) ((0x20 | (value & 0x1f)) + 63));
+      value >>= 5;
+    }
+    out.append((char) (value + 63));
+  }
+}
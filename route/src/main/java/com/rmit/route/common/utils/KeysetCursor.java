@@ -0,0 +1,32 @@
+package com.rmit.route.common.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset pagination cursor over (createdAt, id)
+ * Encoded as URL-safe Base64 so it can be passed back as a query parameter
+ */
+public record KeysetCursor(LocalDateTime createdAt, UUID id) {
+
+  private static final String SEPARATOR = "|";
+
+  public String encode() {
+    String raw = createdAt + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static KeysetCursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separatorIndex = raw.indexOf(SEPARATOR);
+      return new KeysetCursor(
+          LocalDateTime.parse(raw.substring(0, separatorIndex)),
+          UUID.fromString(raw.substring(separatorIndex + 1)));
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package com.rmit.route.common.view;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One stop of a route as loaded into the route stop views, with the route's updatedAt as version
+ */
+public record RouteLink(UUID routeId, UUID destinationId, LocalDateTime updatedAt) {
+}
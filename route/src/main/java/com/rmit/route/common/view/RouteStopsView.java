@@ -0,0 +1,26 @@
+package com.rmit.route.common.view;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An in-memory structure derived from the stops of every route, maintained by {@link RouteStopsViews}
+ */
+public interface RouteStopsView {
+
+  /**
+   * Store the stops of a route, unless a newer version of the route is already held.
+   * Never called for a version that is not newer than the route's deletion, RouteStopsViews drops those.
+   *
+   * @param destinationIds the stops in route order
+   * @param version the route's updatedAt as given by {@link RouteStopsViews#version}
+   */
+  void replace(UUID routeId, List<UUID> destinationIds, long version);
+
+  void remove(UUID routeId);
+
+  /**
+   * Called once the database snapshot has been handed to every view
+   */
+  void loaded();
+}
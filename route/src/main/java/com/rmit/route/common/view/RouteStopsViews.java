@@ -0,0 +1,164 @@
+package com.rmit.route.common.view;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.rmit.route.route.dto.RouteResponse;
+import com.rmit.route.route.external.dto.ChangeType;
+import com.rmit.route.route.external.dto.RouteChangedEvent;
+import com.rmit.route.route.repo.RouteDestinationRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps every {@link RouteStopsView} in step with the stops of all routes.
+ * The views are loaded from one scan of route_destinations once the application is ready. Changes made
+ * on this instance reach them after their transaction commits, and changes made on other replicas arrive
+ * through route.changed. Every route carries its updatedAt as version, so a late event never overwrites
+ * a newer local change. A deletion leaves a tombstone versioned with its time, and stops of a version that
+ * is not newer, from the startup scan or a late event, are not handed to the views, so a deleted route
+ * cannot come back. Tombstones are kept for route.views.tombstone-retention-ms.
+ */
+@Slf4j
+@Component
+public class RouteStopsViews {
+
+  private final RouteDestinationRepository routeDestinationRepository;
+  private final List<RouteStopsView> views;
+  // deletion version of every recently deleted route, guarded by this
+  private final Map<UUID, Long> tombstones = new HashMap<>();
+
+  @Value("${route.views.tombstone-retention-ms}")
+  private long tombstoneRetentionMs;
+
+  public RouteStopsViews(RouteDestinationRepository routeDestinationRepository, List<RouteStopsView> views) {
+    this.routeDestinationRepository = routeDestinationRepository;
+    this.views = views;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public void load() {
+    long started = System.nanoTime();
+    int routeCount = 0;
+    try (Stream<RouteLink> links = routeDestinationRepository.streamAllLinksInStopOrder()) {
+      // links arrive grouped by route, each group in stop order
+      UUID routeId = null;
+      LocalDateTime updatedAt = null;
+      List<UUID> destinationIds = new ArrayList<>();
+      for (RouteLink link : (Iterable<RouteLink>) links::iterator) {
+        if (!link.routeId().equals(routeId)) {
+          if (routeId != null) {
+            loadRoute(routeId, destinationIds, updatedAt);
+            routeCount++;
+          }
+          routeId = link.routeId();
+          updatedAt = link.updatedAt();
+          destinationIds = new ArrayList<>();
+        }
+        destinationIds.add(link.destinationId());
+      }
+      if (routeId != null) {
+        loadRoute(routeId, destinationIds, updatedAt);
+        routeCount++;
+      }
+    }
+    views.forEach(RouteStopsView::loaded);
+    log.info("Loaded the stops of {} routes into {} views in {} ms",
+        routeCount, views.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+  }
+
+  /**
+   * Hand the stops of a created or changed route to every view once the surrounding transaction commits
+   */
+  public void replaceAfterCommit(UUID routeId, List<UUID> destinationIds, LocalDateTime updatedAt) {
+    long version = version(updatedAt);
+    List<UUID> stops = List.copyOf(destinationIds);
+    afterCommit(() -> replace(routeId, stops, version));
+  }
+
+  /**
+   * Drop a deleted route from every view once the surrounding transaction commits
+   */
+  public void removeAfterCommit(UUID routeId) {
+    afterCommit(() -> remove(routeId, version(LocalDateTime.now())));
+  }
+
+  /**
+   * Apply a change published by any replica, including this one
+   */
+  public void apply(RouteChangedEvent event) {
+    RouteResponse route = event.getRoute();
+    if (event.getType() == ChangeType.DELETED || route == null) {
+      LocalDateTime deletedAt = event.getOccurredAt() != null ? event.getOccurredAt() : LocalDateTime.now();
+      remove(event.getRouteId(), version(deletedAt));
+    } else if (route.getListOfDestinationIds() != null) {
+      replace(event.getRouteId(), List.copyOf(route.getListOfDestinationIds()), version(route.getUpdatedAt()));
+    }
+  }
+
+  /**
+   * Version of a route for ordering its changes, increasing with its updatedAt
+   */
+  public static long version(LocalDateTime updatedAt) {
+    return updatedAt == null ? 0 : updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + updatedAt.getNano();
+  }
+
+  @Scheduled(fixedDelayString = "${route.views.tombstone-retention-ms}")
+  public synchronized void pruneTombstones() {
+    long before = version(LocalDateTime.now().minus(Duration.ofMillis(tombstoneRetentionMs)));
+    tombstones.values().removeIf(deletedAt -> deletedAt < before);
+  }
+
+  // a deletion racing with the scan of its route left a tombstone, so the snapshot copy is dropped
+  private void loadRoute(UUID routeId, List<UUID> destinationIds, LocalDateTime updatedAt) {
+    replace(routeId, List.copyOf(destinationIds), version(updatedAt));
+  }
+
+  // the tombstone check and the views' change are one step, so a deletion cannot slip in between
+  private synchronized void replace(UUID routeId, List<UUID> stops, long version) {
+    Long deletedAt = tombstones.get(routeId);
+    if (deletedAt != null) {
+      if (version <= deletedAt) {
+        return;
+      }
+      tombstones.remove(routeId);
+    }
+    views.forEach(view -> view.replace(routeId, stops, version));
+  }
+
+  private synchronized void remove(UUID routeId, long version) {
+    tombstones.merge(routeId, version, Math::max);
+    views.forEach(view -> view.remove(routeId));
+  }
+
+  private static void afterCommit(Runnable change) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          change.run();
+        }
+      });
+    } else {
+      change.run();
+    }
+  }
+}
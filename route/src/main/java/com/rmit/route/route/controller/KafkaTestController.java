@@ -15,14 +15,19 @@ import com.rmit.route.route.external.service.EventProducer;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/kafka/test")
 @Slf4j
 public class KafkaTestController {
 
+  private static final Duration REPLY_TIMEOUT = Duration.ofSeconds(5);
+
   @Autowired
   private EventProducer eventProducer;
 
@@ -31,42 +36,44 @@ public class KafkaTestController {
    * GET /kafka/test/destination?message=Hello
    */
   @GetMapping("/destination")
-  public ResponseEntity<Map<String, Object>> testDestinationKafka(
+  public CompletableFuture<ResponseEntity<Map<String, Object>>> testDestinationKafka(
       @RequestParam(defaultValue = "Test message from route service") String message) {
     Map<String, Object> result = new HashMap<>();
-    
-    try {
-      log.info("Route service: Sending test message to destination service via Kafka");
-      
-      TestKafkaRequest request = TestKafkaRequest.builder()
-          .message(message)
-          .fromService("route-service")
-          .timestamp(System.currentTimeMillis())
-          .build();
 
-      TestKafkaResponse response = eventProducer.sendAndReceive(
-          DestinationTopicRegistry.Topic.TEST_REQUEST_REPLY_REQ,
-          DestinationTopicRegistry.Topic.TEST_REQUEST_REPLY_RES,
-          request,
-          TestKafkaResponse.class);
+    log.info("Route service: Sending test message to destination service via Kafka");
+
+    TestKafkaRequest request = TestKafkaRequest.builder()
+        .message(message)
+        .fromService("route-service")
+        .timestamp(System.currentTimeMillis())
+        .build();
+
+    // The request thread is released while waiting; MVC completes the response from the future
+    return eventProducer.sendAndReceiveAsync(
+            DestinationTopicRegistry.Topic.TEST_REQUEST_REPLY_REQ,
+            request,
+            TestKafkaResponse.class,
+            REPLY_TIMEOUT)
+        .thenApply(response -> {
+          result.put("success", true);
+          result.put("message", "Kafka connection successful");
+          result.put("request", request);
+          result.put("response", response);
+          result.put("status", "connected");
+
+          log.info("Route service: Successfully received response from destination service: {}", response.getMessage());
 
-      result.put("success", true);
-      result.put("message", "Kafka connection successful");
-      result.put("request", request);
-      result.put("response", response);
-      result.put("status", "connected");
-      
-      log.info("Route service: Successfully received response from destination service: {}", response.getMessage());
-      
-      return ResponseEntity.ok(result);
-    } catch (Exception e) {
-      log.error("Route service: Error testing Kafka connection to destination service", e);
-      result.put("success", false);
-      result.put("message", "Kafka connection failed: " + e.getMessage());
-      result.put("error", e.getClass().getSimpleName());
-      result.put("status", "disconnected");
-      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(result);
-    }
+          return ResponseEntity.ok(result);
+        })
+        .exceptionally(e -> {
+          Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+          log.error("Route service: Error testing Kafka connection to destination service", cause);
+          result.put("success", false);
+          result.put("message", "Kafka connection failed: " + cause.getMessage());
+          result.put("error", cause.getClass().getSimpleName());
+          result.put("status", "disconnected");
+          return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(result);
+        });
   }
 
   /**
@@ -1,14 +1,25 @@
 package com.rmit.route.route.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rmit.route.route.dto.JourneyResponse;
+import com.rmit.route.route.dto.RouteMetricsResponse;
+import com.rmit.route.route.dto.RoutePageResponse;
 import com.rmit.route.route.dto.RouteRequest;
 import com.rmit.route.route.dto.RouteResponse;
+import com.rmit.route.route.planner.TripPlannerNotReadyException;
+import com.rmit.route.route.replica.DestinationReplicaNotReadyException;
 import com.rmit.route.route.service.RouteService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,13 +28,19 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class RouteController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String EMBED_DESTINATIONS = "destinations";
+
     private final RouteService routeService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<RouteResponse> createRoute(@Valid @RequestBody RouteRequest request) {
         try {
             RouteResponse response = routeService.createRoute(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (DestinationReplicaNotReadyException e) {
+            return replicaNotReady(e);
         } catch (RuntimeException e) {
             RouteResponse errorResponse = RouteResponse.builder()
                     .message(e.getMessage())
@@ -33,9 +50,14 @@ public class RouteController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<RouteResponse> getRouteById(@PathVariable UUID id) {
+    public ResponseEntity<RouteResponse> getRouteById(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String embed) {
         try {
             RouteResponse response = routeService.getRouteById(id);
+            if (EMBED_DESTINATIONS.equals(embed)) {
+                response = routeService.embedDestinations(response);
+            }
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
             RouteResponse errorResponse = RouteResponse.builder()
@@ -45,12 +67,85 @@ public class RouteController {
         }
     }
 
+    @GetMapping("/{id}/metrics")
+    public ResponseEntity<RouteMetricsResponse> getRouteMetrics(@PathVariable UUID id) {
+        try {
+            RouteMetricsResponse response = routeService.getRouteMetrics(id);
+            return ResponseEntity.ok(response);
+        } catch (DestinationReplicaNotReadyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(RouteMetricsResponse.builder().message(e.getMessage()).build());
+        } catch (RuntimeException e) {
+            RouteMetricsResponse errorResponse = RouteMetricsResponse.builder()
+                    .message(e.getMessage())
+                    .build();
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+    }
+
+    @GetMapping("/plan")
+    public ResponseEntity<JourneyResponse> planJourney(@RequestParam UUID from, @RequestParam UUID to) {
+        try {
+            JourneyResponse response = routeService.planJourney(from, to);
+            return ResponseEntity.ok(response);
+        } catch (DestinationReplicaNotReadyException | TripPlannerNotReadyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(JourneyResponse.builder().message(e.getMessage()).build());
+        } catch (RuntimeException e) {
+            JourneyResponse errorResponse = JourneyResponse.builder()
+                    .message(e.getMessage())
+                    .build();
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+    }
+
+    @GetMapping("/by-destination/{destinationId}")
+    public ResponseEntity<List<RouteResponse>> getRoutesByDestination(@PathVariable UUID destinationId) {
+        List<RouteResponse> response = routeService.getRoutesByDestination(destinationId);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
     public ResponseEntity<List<RouteResponse>> getAllRoutes() {
         List<RouteResponse> response = routeService.getAllRoutes();
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<RoutePageResponse> getRoutesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String embed) {
+        try {
+            RoutePageResponse response = routeService.getRoutesPage(cursor, size);
+            if (EMBED_DESTINATIONS.equals(embed)) {
+                response.setItems(response.getItems().stream()
+                        .map(routeService::embedDestinations)
+                        .toList());
+            }
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamRoutes() {
+        StreamingResponseBody body = outputStream -> routeService.streamAllRoutes(route -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(route));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<RouteResponse> updateRoute(
             @PathVariable UUID id,
@@ -58,6 +153,8 @@ public class RouteController {
         try {
             RouteResponse response = routeService.updateRoute(id, request);
             return ResponseEntity.ok(response);
+        } catch (DestinationReplicaNotReadyException e) {
+            return replicaNotReady(e);
         } catch (RuntimeException e) {
             RouteResponse errorResponse = RouteResponse.builder()
                     .message(e.getMessage())
@@ -77,5 +174,10 @@ public class RouteController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
-}
 
+    private ResponseEntity<RouteResponse> replicaNotReady(DestinationReplicaNotReadyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(RouteResponse.builder().message(e.getMessage()).build());
+    }
+}
@@ -0,0 +1,27 @@
+package com.rmit.route.route.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One ride of a journey, from boarding to alighting on a single route
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JourneyLeg {
+    private UUID routeId;
+    private String routeName;
+    private String routeNumber;
+    private UUID fromDestinationId;
+    private UUID toDestinationId;
+    // every stop passed in travel order, including both ends
+    private List<UUID> destinationIds;
+    private Double distanceMeters;
+}
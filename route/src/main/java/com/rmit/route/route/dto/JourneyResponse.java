@@ -0,0 +1,24 @@
+package com.rmit.route.route.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JourneyResponse {
+    private UUID fromDestinationId;
+    private UUID toDestinationId;
+    private Double totalMeters;
+    private Integer transfers;
+    private List<JourneyLeg> legs;
+    private String message;
+}
@@ -0,0 +1,35 @@
+package com.rmit.route.route.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Geometry of a route over the stops whose coordinates are known, in stop order
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RouteMetricsResponse {
+    private UUID routeId;
+    private Integer stopCount;
+    private Double totalMeters;
+    // leg i runs from located stop i to located stop i + 1
+    private double[] legMeters;
+    private double[] cumulativeMeters;
+    private Double minLatitude;
+    private Double minLongitude;
+    private Double maxLatitude;
+    private Double maxLongitude;
+    private String polyline;
+    // stops left out because their destination is unknown to the replica
+    private List<UUID> unresolvedDestinationIds;
+    private String message;
+}
@@ -0,0 +1,17 @@
+package com.rmit.route.route.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoutePageResponse {
+    private List<RouteResponse> items;
+    private String nextCursor;
+}
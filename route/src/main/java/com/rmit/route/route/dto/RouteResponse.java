@@ -1,5 +1,6 @@
 package com.rmit.route.route.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,12 +13,15 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class RouteResponse {
     private UUID id;
     private String name;
     private String number;
     private List<UUID> listOfDestinationIds;
+    // destination details in stop order, only filled when requested with embed=destinations
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<RouteStop> stops;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private String message;
@@ -0,0 +1,19 @@
+package com.rmit.route.route.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RouteStop {
+    private UUID destinationId;
+    private String name;
+    private Double latitude;
+    private Double longitude;
+}
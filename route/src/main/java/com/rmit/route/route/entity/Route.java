@@ -25,7 +25,7 @@ public class Route {
     @Column(nullable = false)
     private String name;
 
-    @Column(nullable = false)
+    @Column(unique = true, nullable = false)
     private String number;
 
     @Column(name = "created_at")
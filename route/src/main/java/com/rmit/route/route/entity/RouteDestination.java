@@ -1,5 +1,6 @@
 package com.rmit.route.route.entity;
 
+import com.rmit.route.common.persistence.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,7 +18,7 @@ import java.util.UUID;
 public class RouteDestination {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     @Column(nullable = false)
     private UUID id;
 
@@ -26,5 +27,8 @@ public class RouteDestination {
 
     @Column(name = "destination_id", nullable = false)
     private UUID destinationId;
+
+    @Column(name = "position", nullable = false)
+    private Integer position;
 }
 
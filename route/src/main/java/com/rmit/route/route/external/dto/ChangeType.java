@@ -0,0 +1,7 @@
+package com.rmit.route.route.external.dto;
+
+public enum ChangeType {
+  CREATED,
+  UPDATED,
+  DELETED
+}
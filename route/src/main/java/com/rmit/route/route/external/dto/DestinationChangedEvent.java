@@ -0,0 +1,21 @@
+package com.rmit.route.route.external.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DestinationChangedEvent {
+  private ChangeType type;
+  private UUID destinationId;
+  // state after the change, null for DELETED
+  private DestinationDetails destination;
+  private LocalDateTime occurredAt;
+}
@@ -0,0 +1,22 @@
+package com.rmit.route.route.external.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DestinationDetails {
+  private UUID id;
+  private String name;
+  private Double latitude;
+  private Double longitude;
+  private LocalDateTime createdAt;
+  private LocalDateTime updatedAt;
+}
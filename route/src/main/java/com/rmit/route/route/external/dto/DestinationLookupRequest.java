@@ -0,0 +1,20 @@
+package com.rmit.route.route.external.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Asks the destination service which of the given destinations exist
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DestinationLookupRequest {
+  private List<UUID> ids;
+}
@@ -0,0 +1,22 @@
+package com.rmit.route.route.external.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published once per route that stops at a deleted destination, keyed by the route id
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DestinationRemovedEvent {
+  private UUID routeId;
+  private UUID destinationId;
+  private LocalDateTime occurredAt;
+}
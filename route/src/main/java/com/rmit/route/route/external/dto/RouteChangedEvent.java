@@ -0,0 +1,23 @@
+package com.rmit.route.route.external.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.rmit.route.route.dto.RouteResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteChangedEvent {
+  private ChangeType type;
+  private UUID routeId;
+  // state after the change, null for DELETED
+  private RouteResponse route;
+  private LocalDateTime occurredAt;
+}
@@ -0,0 +1,48 @@
+package com.rmit.route.route.external.service;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+/**
+ * Wire format of Kafka message payloads
+ * The format of a record is announced in its content-type header so peers can decode it
+ */
+public interface PayloadCodec {
+
+  /**
+   * Record header carrying the payload content type
+   */
+  String CONTENT_TYPE_HEADER = "content-type";
+
+  /**
+   * @return the content type written to the record header
+   */
+  String contentType();
+
+  /**
+   * Serialize a message
+   * 
+   * @param message the message object
+   * @return the encoded payload
+   */
+  byte[] encode(Object message) throws IOException;
+
+  /**
+   * Deserialize a payload
+   * 
+   * @param payload the encoded payload
+   * @param type the class to deserialize to
+   * @return the decoded message
+   */
+  <T> T decode(byte[] payload, Class<T> type) throws IOException;
+
+  /**
+   * Deserialize a payload into a generic type
+   * 
+   * @param payload the encoded payload
+   * @param type the full type to deserialize to
+   * @return the decoded message
+   */
+  <T> T decode(byte[] payload, JavaType type) throws IOException;
+}
@@ -0,0 +1,165 @@
+package com.rmit.route.route.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.rmit.route.common.index.PostingLists;
+import com.rmit.route.common.index.UuidDictionary;
+import com.rmit.route.common.view.RouteStopsView;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reverse index from destinations to the routes serving them.
+ * Routes and destinations get dense int ids, and every destination keeps a sorted int set of
+ * its routes, so a lookup neither boxes nor touches the database.
+ * Kept up to date by {@link com.rmit.route.common.view.RouteStopsViews}.
+ */
+@Slf4j
+@Component
+public class DestinationRouteIndex implements RouteStopsView {
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final UuidDictionary routes = new UuidDictionary();
+  private final UuidDictionary destinations = new UuidDictionary();
+  private final PostingLists routesByDestination = new PostingLists();
+  private final PostingLists destinationsByRoute = new PostingLists();
+  private long[] routeVersions = new long[1024];
+  private volatile boolean ready;
+
+  public DestinationRouteIndex(MeterRegistry meterRegistry) {
+    Gauge.builder("route.reverse.index.destinations", this, DestinationRouteIndex::destinationCount)
+        .description("Destinations served by at least one route in the reverse index")
+        .register(meterRegistry);
+    Gauge.builder("route.reverse.index.ready", this, index -> index.ready ? 1 : 0)
+        .description("1 once the reverse index has been loaded")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void loaded() {
+    ready = true;
+    log.info("Reverse index loaded {} destinations", destinationCount());
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * Ids of the routes stopping at a destination.
+   * Incomplete until {@link #isReady()}, callers ask the database meanwhile.
+   */
+  public List<UUID> routeIdsFor(UUID destinationId) {
+    lock.readLock().lock();
+    try {
+      return routeIdsOf(destinationId);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Ids of the routes stopping at each of the destinations, read under one lock.
+   * Destinations no route serves map to an empty list.
+   */
+  public Map<UUID, List<UUID>> routeIdsFor(Collection<UUID> destinationIds) {
+    Map<UUID, List<UUID>> result = new HashMap<>(destinationIds.size() * 2);
+    lock.readLock().lock();
+    try {
+      for (UUID destinationId : destinationIds) {
+        result.put(destinationId, routeIdsOf(destinationId));
+      }
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private List<UUID> routeIdsOf(UUID destinationId) {
+    int destination = destinations.idOf(destinationId);
+    if (destination < 0) {
+      return List.of();
+    }
+    int[] routeIds = routesByDestination.values(destination);
+    List<UUID> result = new ArrayList<>(routeIds.length);
+    for (int route : routeIds) {
+      result.add(routes.uuidOf(route));
+    }
+    return result;
+  }
+
+  @Override
+  public void replace(UUID routeId, List<UUID> destinationIds, long version) {
+    lock.writeLock().lock();
+    try {
+      int route = routes.intern(routeId);
+      ensureRoute(route);
+      if (version < routeVersions[route]) {
+        return;
+      }
+      routeVersions[route] = version;
+      unlink(route);
+      for (UUID destinationId : destinationIds) {
+        int destination = destinations.intern(destinationId);
+        if (destinationsByRoute.add(route, destination)) {
+          routesByDestination.add(destination, route);
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void remove(UUID routeId) {
+    lock.writeLock().lock();
+    try {
+      int route = routes.idOf(routeId);
+      if (route >= 0) {
+        unlink(route);
+        // the id is reused, a late replace of the deleted route never gets here, see RouteStopsViews
+        routeVersions[route] = 0;
+        routes.release(routeId);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // removes the route from the sets of its destinations, releasing destinations left without routes
+  private void unlink(int route) {
+    for (int destination : destinationsByRoute.values(route)) {
+      routesByDestination.remove(destination, route);
+      if (routesByDestination.size(destination) == 0) {
+        destinations.release(destinations.uuidOf(destination));
+      }
+    }
+    destinationsByRoute.clear(route);
+  }
+
+  private void ensureRoute(int route) {
+    if (route >= routeVersions.length) {
+      routeVersions = Arrays.copyOf(routeVersions, Math.max(route + 1, routeVersions.length * 2));
+    }
+  }
+
+  private int destinationCount() {
+    lock.readLock().lock();
+    try {
+      return destinations.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+}
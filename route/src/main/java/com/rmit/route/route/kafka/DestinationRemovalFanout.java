@@ -0,0 +1,114 @@
+package com.rmit.route.route.kafka;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.rmit.route.common.outbox.OutboxService;
+import com.rmit.route.common.outbox.ProcessedEvents;
+import com.rmit.route.route.external.dto.ChangeType;
+import com.rmit.route.route.external.dto.DestinationChangedEvent;
+import com.rmit.route.route.external.dto.DestinationRemovedEvent;
+import com.rmit.route.route.external.dto.DestinationTopicRegistry;
+import com.rmit.route.route.external.dto.RouteTopicRegistry;
+import com.rmit.route.route.service.RouteService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tells every route serving a deleted destination about it, one event per route on route.destination_removed.
+ * All instances share one consumer group, so each deletion fans out once.
+ * A poll is handled as a whole: its deletions are marked processed, their routes are looked up in one
+ * reverse-index read and the route events are written to the outbox, all in one transaction.
+ * A redelivered deletion finds its mark and is dropped instead of repeating its route events.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DestinationRemovalFanout {
+
+  static final String CONSUMER = "destination-removal-fanout";
+  private static final String EVENT_TYPE = "DESTINATION_REMOVED";
+
+  private final RouteService routeService;
+  private final OutboxService outboxService;
+  private final ProcessedEvents processedEvents;
+  private final TransactionTemplate transactionTemplate;
+  private final PayloadCodecs payloadCodecs;
+
+  @KafkaListener(
+      topics = DestinationTopicRegistry.Topic.CHANGED,
+      groupId = "${spring.application.name}-destination-fanout",
+      containerFactory = "batchKafkaListenerContainerFactory")
+  public void handleDestinationChanges(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+    List<Deletion> deletions = new ArrayList<>();
+    for (ConsumerRecord<String, byte[]> record : records) {
+      try {
+        DestinationChangedEvent event = payloadCodecs.forRecord(record.headers(), record.value())
+            .decode(record.value(), DestinationChangedEvent.class);
+        if (event.getType() == ChangeType.DELETED) {
+          deletions.add(new Deletion(record, event));
+        }
+      } catch (Exception e) {
+        throw new BatchListenerFailedException("Error decoding destination change", e, record);
+      }
+    }
+    if (!deletions.isEmpty()) {
+      try {
+        transactionTemplate.executeWithoutResult(status -> fanOut(deletions));
+      } catch (Exception e) {
+        // nothing of the poll was committed, so it is retried from its first deletion
+        throw new BatchListenerFailedException("Error fanning out destination removals", e, deletions.get(0).record());
+      }
+    }
+    ack.acknowledge();
+  }
+
+  private void fanOut(List<Deletion> deletions) {
+    List<Deletion> fresh = new ArrayList<>(deletions.size());
+    Set<UUID> destinationIds = new LinkedHashSet<>();
+    for (Deletion deletion : deletions) {
+      if (processedEvents.markProcessed(CONSUMER, deletion.record())) {
+        fresh.add(deletion);
+        destinationIds.add(deletion.event().getDestinationId());
+      }
+    }
+    if (fresh.isEmpty()) {
+      return;
+    }
+    Map<UUID, List<UUID>> routeIdsByDestination = routeService.getRouteIdsByDestinations(destinationIds);
+    int notified = 0;
+    for (Deletion deletion : fresh) {
+      DestinationChangedEvent event = deletion.event();
+      LocalDateTime occurredAt = event.getOccurredAt() != null ? event.getOccurredAt() : LocalDateTime.now();
+      List<UUID> routeIds = routeIdsByDestination.getOrDefault(event.getDestinationId(), List.of());
+      for (UUID routeId : routeIds) {
+        outboxService.record(RouteTopicRegistry.Topic.DESTINATION_REMOVED, routeId, EVENT_TYPE,
+            DestinationRemovedEvent.builder()
+                .routeId(routeId)
+                .destinationId(event.getDestinationId())
+                .occurredAt(occurredAt)
+                .build());
+      }
+      notified += routeIds.size();
+    }
+    if (notified > 0) {
+      log.info("{} destinations were deleted, notified {} route stops", fresh.size(), notified);
+    }
+  }
+
+  private record Deletion(ConsumerRecord<String, byte[]> record, DestinationChangedEvent event) {
+  }
+}
@@ -0,0 +1,106 @@
+package com.rmit.route.route.kafka;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import com.rmit.route.common.cache.CacheInvalidator;
+import com.rmit.route.common.config.CacheConfig;
+import com.rmit.route.common.outbox.RedeliveredEventFilter;
+import com.rmit.route.route.external.dto.DestinationChangedEvent;
+import com.rmit.route.route.external.dto.DestinationTopicRegistry;
+import com.rmit.route.route.index.DestinationRouteIndex;
+import com.rmit.route.route.planner.TripPlanner;
+import com.rmit.route.route.replica.DestinationReplica;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Feeds the destination replica from the destination.changed topic.
+ * Each instance uses its own consumer group and starts from the earliest offset,
+ * so every replica rebuilds the full state from the compacted topic.
+ * Since every instance sees every change, destinations that appeared, moved or disappeared only evict
+ * the local metrics of their routes and are handed to the local trip planner.
+ * Redelivered outbox events are skipped.
+ */
+@Component
+@RequiredArgsConstructor
+public class DestinationReplicaListener implements ConsumerSeekAware {
+
+  private final DestinationReplica destinationReplica;
+  private final PayloadCodecs payloadCodecs;
+  private final ConsumerFactory<String, Object> consumerFactory;
+  private final CacheInvalidator cacheInvalidator;
+  private final DestinationRouteIndex destinationRouteIndex;
+  private final TripPlanner tripPlanner;
+  private final RedeliveredEventFilter redeliveredEventFilter = new RedeliveredEventFilter();
+
+  @Override
+  public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+    try (Consumer<String, Object> consumer = consumerFactory.createConsumer()) {
+      destinationReplica.partitionsAssigned(consumer.endOffsets(assignments.keySet()), assignments);
+    }
+  }
+
+  @KafkaListener(
+      topics = DestinationTopicRegistry.Topic.CHANGED,
+      groupId = "${spring.application.name}-replica-${random.uuid}",
+      containerFactory = "batchKafkaListenerContainerFactory",
+      properties = "auto.offset.reset=earliest")
+  public void handleDestinationChanges(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack,
+      Consumer<?, ?> consumer) {
+    Set<UUID> moved = new HashSet<>();
+    for (ConsumerRecord<String, byte[]> record : records) {
+      if (redeliveredEventFilter.isRedelivery(record)) {
+        continue;
+      }
+      try {
+        DestinationChangedEvent event = payloadCodecs.forRecord(record.headers(), record.value())
+            .decode(record.value(), DestinationChangedEvent.class);
+        if (destinationReplica.apply(event)) {
+          moved.add(event.getDestinationId());
+        }
+        redeliveredEventFilter.applied(record);
+      } catch (Exception e) {
+        // retried by the error handler, then dead-lettered so one bad event cannot block catch-up
+        throw new BatchListenerFailedException("Error applying destination change", e, record);
+      }
+    }
+    ack.acknowledge();
+    if (!destinationReplica.isReady()) {
+      for (TopicPartition partition : consumer.assignment()) {
+        destinationReplica.consumedUpTo(partition, consumer.position(partition));
+      }
+    }
+    // after the readiness check, so the batch completing catch-up lets the planner build its first graph
+    destinationsMoved(moved);
+  }
+
+  private void destinationsMoved(Set<UUID> movedDestinations) {
+    if (movedDestinations.isEmpty()) {
+      return;
+    }
+    tripPlanner.destinationsMoved(movedDestinations);
+    if (!destinationRouteIndex.isReady()) {
+      cacheInvalidator.clearLocal(CacheConfig.ROUTE_METRICS);
+      return;
+    }
+    for (UUID destinationId : movedDestinations) {
+      for (UUID routeId : destinationRouteIndex.routeIdsFor(destinationId)) {
+        cacheInvalidator.evictLocal(CacheConfig.ROUTE_METRICS, routeId);
+      }
+    }
+  }
+}
@@ -1,14 +1,26 @@
 package com.rmit.route.route.kafka;
 
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.stereotype.Component;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rmit.route.common.cache.CacheInvalidator;
+import com.rmit.route.route.external.dto.CacheInvalidationEvent;
+import com.rmit.route.route.external.dto.RouteListRequest;
 import com.rmit.route.route.external.dto.RouteTopicRegistry;
 import com.rmit.route.route.external.dto.TestKafkaRequest;
 import com.rmit.route.route.external.dto.TestKafkaResponse;
+import com.rmit.route.route.external.service.PayloadCodec;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,47 +33,80 @@ import lombok.extern.slf4j.Slf4j;
 public class EventConsumerImpl {
 
   @Autowired
-  private ObjectMapper objectMapper;
+  private PayloadCodecs payloadCodecs;
+
+  @Autowired
+  private CacheInvalidator cacheInvalidator;
+
+  @Autowired
+  private RouteListReplier routeListReplier;
 
   /**
    * Example: Request-Reply pattern listener
+   * The reply is encoded with the same codec as the request and sent to the requester's reply topic
    */
   @KafkaListener(topics = RouteTopicRegistry.Topic.TEST_REQUEST_REPLY_REQ)
-  @SendTo(RouteTopicRegistry.Topic.TEST_REQUEST_REPLY_RES)
-  public byte[] handleTestRequestReply(byte[] requestBytes) {
-    try {
-      TestKafkaRequest request = objectMapper.readValue(requestBytes, TestKafkaRequest.class);
-      log.info("Route service: Received test request-reply message from: {}", request.getFromService());
-      
-      TestKafkaResponse response = TestKafkaResponse.builder()
-          .message("Route service received: " + request.getMessage())
-          .fromService("route-service")
-          .receivedFrom(request.getFromService())
-          .timestamp(System.currentTimeMillis())
-          .success(true)
-          .build();
-      
-      return objectMapper.writeValueAsBytes(response);
-    } catch (Exception e) {
-      log.error("Error handling test request-reply", e);
-      return new byte[0];
-    }
+  @SendTo
+  public Message<byte[]> handleTestRequestReply(ConsumerRecord<String, byte[]> record) throws IOException {
+    PayloadCodec codec = payloadCodecs.forRecord(record.headers(), record.value());
+    TestKafkaRequest request = codec.decode(record.value(), TestKafkaRequest.class);
+    log.info("Route service: Received test request-reply message from: {}", request.getFromService());
+    
+    TestKafkaResponse response = TestKafkaResponse.builder()
+        .message("Route service received: " + request.getMessage())
+        .fromService("route-service")
+        .receivedFrom(request.getFromService())
+        .timestamp(System.currentTimeMillis())
+        .success(true)
+        .build();
+    
+    return payloadCodecs.toReply(codec, response);
   }
 
   /**
-   * Example: Request-Reply pattern listener for list operation
+   * Request-Reply listener for the route list operation.
+   * The answer is streamed back as several chunk records on the requester's reply topic,
+   * all carrying the request correlation id (see RouteListReplier).
    */
   @KafkaListener(topics = RouteTopicRegistry.Topic.LIST_REQ)
-  @SendTo(RouteTopicRegistry.Topic.LIST_RES)
-  public byte[] handleListRequest(byte[] requestBytes) {
-    try {
-      log.info("Route service: Received list request message");
-      // Placeholder response
-      return new byte[0];
-    } catch (Exception e) {
-      log.error("Error handling list request", e);
-      return new byte[0];
+  public void handleListRequest(ConsumerRecord<String, byte[]> record) throws Exception {
+    Header replyTopic = record.headers().lastHeader(KafkaHeaders.REPLY_TOPIC);
+    Header correlationId = record.headers().lastHeader(KafkaHeaders.CORRELATION_ID);
+    if (replyTopic == null || correlationId == null) {
+      log.warn("Route service: Ignoring list request without reply topic or correlation id");
+      return;
+    }
+
+    PayloadCodec codec = payloadCodecs.forRecord(record.headers(), record.value());
+    RouteListRequest request = record.value() == null || record.value().length == 0
+        ? new RouteListRequest()
+        : codec.decode(record.value(), RouteListRequest.class);
+    log.info("Route service: Received list request message");
+
+    routeListReplier.reply(request, codec, new String(replyTopic.value()), correlationId.value());
+  }
+
+  /**
+   * Fire-and-forget batch listener for cache invalidations broadcast by any replica.
+   * Each instance uses its own consumer group so every replica receives every event.
+   * The poll is acknowledged once all of its evictions have been applied. A failing record
+   * is retried from its position in the batch and then dead-lettered by the error handler.
+   */
+  @KafkaListener(
+      topics = RouteTopicRegistry.Topic.CACHE_INVALIDATE,
+      groupId = "${spring.application.name}-cache-${random.uuid}",
+      containerFactory = "batchKafkaListenerContainerFactory")
+  public void handleCacheInvalidations(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+    for (ConsumerRecord<String, byte[]> record : records) {
+      try {
+        CacheInvalidationEvent event = payloadCodecs.forRecord(record.headers(), record.value())
+            .decode(record.value(), CacheInvalidationEvent.class);
+        cacheInvalidator.evictLocal(event.getCacheName(), event.getId());
+      } catch (Exception e) {
+        throw new BatchListenerFailedException("Error handling cache invalidation", e, record);
+      }
     }
+    ack.acknowledge();
+    log.debug("Route service: Applied {} cache invalidations", records.size());
   }
 }
-
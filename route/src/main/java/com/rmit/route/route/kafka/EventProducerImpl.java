@@ -1,15 +1,17 @@
 package com.rmit.route.route.kafka;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.requestreply.ReplyingKafkaTemplate;
-import org.springframework.kafka.requestreply.RequestReplyFuture;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.stereotype.Component;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rmit.route.route.external.service.EventProducer;
 
 import lombok.extern.slf4j.Slf4j;
@@ -19,19 +21,24 @@ import lombok.extern.slf4j.Slf4j;
 public class EventProducerImpl implements EventProducer {
   
   @Autowired
-  private KafkaTemplate<String, Object> kafkaTemplate;
+  private KafkaTemplateRouter kafkaTemplateRouter;
 
   @Autowired
   private ReplyingKafkaTemplate<String, Object, Object> replyingKafkaTemplate;
 
   @Autowired
-  private ObjectMapper objectMapper;
+  private PayloadCodecs payloadCodecs;
+
+  @Autowired
+  private KafkaInstance kafkaInstance;
+
+  @Value("${kafka.request-reply.timeout}")
+  private Duration replyTimeout;
 
   @Override
   public void send(String topic, Object message) {
     try {
-      byte[] messageBytes = objectMapper.writeValueAsBytes(message);
-      kafkaTemplate.send(topic, messageBytes);
+      kafkaTemplateRouter.forTopic(topic).send(payloadCodecs.toRecord(topic, null, message));
       log.debug("Sent message to topic: {}", topic);
     } catch (Exception e) {
       log.error("Error sending message to topic: {}", topic, e);
@@ -42,8 +49,7 @@ public class EventProducerImpl implements EventProducer {
   @Override
   public void send(String topic, String key, Object message) {
     try {
-      byte[] messageBytes = objectMapper.writeValueAsBytes(message);
-      kafkaTemplate.send(topic, key, messageBytes);
+      kafkaTemplateRouter.forTopic(topic).send(payloadCodecs.toRecord(topic, key, message));
       log.debug("Sent message to topic: {} with key: {}", topic, key);
     } catch (Exception e) {
       log.error("Error sending message to topic: {} with key: {}", topic, key, e);
@@ -52,23 +58,52 @@ public class EventProducerImpl implements EventProducer {
   }
 
   @Override
-  public <T> T sendAndReceive(String requestTopic, String replyTopic, Object request, Class<T> responseClass) {
+  public <T> T sendAndReceive(String requestTopic, Object request, Class<T> responseClass) {
     try {
-      byte[] requestBytes = objectMapper.writeValueAsBytes(request);
-      ProducerRecord<String, Object> producerRecord = new ProducerRecord<>(requestTopic, requestBytes);
+      return sendAndReceiveAsync(requestTopic, request, responseClass, replyTimeout).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted during sendAndReceive for topic: " + requestTopic, e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to sendAndReceive for topic: " + requestTopic, e.getCause());
+    }
+  }
+
+  @Override
+  public <T> CompletableFuture<T> sendAndReceiveAsync(String requestTopic, Object request, Class<T> responseClass,
+      Duration timeout) {
+    String replyTopic = kafkaInstance.getReplyTopic();
+    ProducerRecord<String, Object> producerRecord;
+    try {
+      producerRecord = payloadCodecs.toRecord(requestTopic, null, request);
       producerRecord.headers().add(KafkaHeaders.REPLY_TOPIC, replyTopic.getBytes());
+    } catch (Exception e) {
+      log.error("Error serializing request for topic: {}", requestTopic, e);
+      return CompletableFuture.failedFuture(
+          new RuntimeException("Failed to serialize request for topic: " + requestTopic, e));
+    }
 
-      RequestReplyFuture<String, Object, Object> replyFuture = replyingKafkaTemplate.sendAndReceive(producerRecord);
-      ConsumerRecord<String, Object> response = replyFuture.get();
-      
+    // thenApplyAsync moves deserialization off the reply listener's consumer thread
+    return replyingKafkaTemplate.sendAndReceive(producerRecord, timeout)
+        .thenApplyAsync(response -> readReply(response, responseClass))
+        .whenComplete((response, e) -> {
+          if (e != null) {
+            log.error("Error in sendAndReceive for topic: {} -> {}", requestTopic, replyTopic, e);
+          } else {
+            log.debug("Received response for request topic: {} on reply topic: {}", requestTopic, replyTopic);
+          }
+        });
+  }
+
+  private <T> T readReply(ConsumerRecord<String, Object> response, Class<T> responseClass) {
+    try {
       byte[] responseBytes = (byte[]) response.value();
-      T responseObject = objectMapper.readValue(responseBytes, responseClass);
-      log.debug("Received response for request topic: {} on reply topic: {}", requestTopic, replyTopic);
-      return responseObject;
+      if (responseBytes == null || responseBytes.length == 0) {
+        throw new IllegalStateException("Empty reply");
+      }
+      return payloadCodecs.forRecord(response.headers(), responseBytes).decode(responseBytes, responseClass);
     } catch (Exception e) {
-      log.error("Error in sendAndReceive for topic: {} -> {}", requestTopic, replyTopic, e);
-      throw new RuntimeException("Failed to sendAndReceive for topic: " + requestTopic, e);
+      throw new RuntimeException("Failed to deserialize reply from topic: " + response.topic(), e);
     }
   }
 }
-
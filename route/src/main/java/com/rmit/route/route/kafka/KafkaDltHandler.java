@@ -0,0 +1,56 @@
+package com.rmit.route.route.kafka;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Final stop of request records that failed every retry.
+ * The requester is sent an error reply right away instead of waiting for its timeout.
+ */
+@Slf4j
+@Component("kafkaDltHandler")
+@RequiredArgsConstructor
+public class KafkaDltHandler {
+
+  /**
+   * Reply header carrying the failure, turned into an exception by the requester
+   */
+  public static final String REPLY_ERROR_HEADER = "reply-error";
+
+  private final KafkaTemplate<String, Object> kafkaTemplate;
+  private final MeterRegistry meterRegistry;
+
+  public void handleDlt(ConsumerRecord<String, byte[]> record) {
+    String originalTopic = headerValue(record, KafkaHeaders.DLT_ORIGINAL_TOPIC);
+    String error = headerValue(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE);
+    meterRegistry.counter("kafka.dlt.records", "topic", originalTopic == null ? record.topic() : originalTopic)
+        .increment();
+    log.error("Dead-lettered record from {} at offset {}: {}", originalTopic, record.offset(), error);
+
+    Header replyTopic = record.headers().lastHeader(KafkaHeaders.REPLY_TOPIC);
+    Header correlationId = record.headers().lastHeader(KafkaHeaders.CORRELATION_ID);
+    if (replyTopic != null && correlationId != null) {
+      ProducerRecord<String, Object> reply = new ProducerRecord<>(
+          new String(replyTopic.value(), StandardCharsets.UTF_8), new byte[0]);
+      reply.headers().add(KafkaHeaders.CORRELATION_ID, correlationId.value());
+      reply.headers().add(REPLY_ERROR_HEADER,
+          (error == null ? "Request failed" : error).getBytes(StandardCharsets.UTF_8));
+      kafkaTemplate.send(reply);
+    }
+  }
+
+  private static String headerValue(ConsumerRecord<String, byte[]> record, String name) {
+    Header header = record.headers().lastHeader(name);
+    return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,62 @@
+package com.rmit.route.route.kafka;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Identity of this service instance on Kafka.
+ * Every instance receives its replies on its own reply topic, so a reply can never land on
+ * a replica that did not send the request. Requesters put the topic in the kafka_replyTopic
+ * header and responders answer with an empty @SendTo, which replies to that header.
+ */
+@Slf4j
+@Component
+public class KafkaInstance {
+
+  @Getter
+  private final String instanceId;
+  @Getter
+  private final String replyTopic;
+  @Getter
+  private final String replyGroupId;
+
+  private final KafkaAdmin kafkaAdmin;
+  private final boolean deleteOnShutdown;
+
+  public KafkaInstance(
+      KafkaAdmin kafkaAdmin,
+      @Value("${spring.application.name}") String applicationName,
+      // read once: the default is ${random.uuid}, which resolves to a new value on every lookup
+      @Value("${kafka.reply.instance-id}") String instanceId,
+      @Value("${kafka.reply.delete-on-shutdown}") boolean deleteOnShutdown) {
+    this.kafkaAdmin = kafkaAdmin;
+    this.deleteOnShutdown = deleteOnShutdown;
+    this.instanceId = instanceId.replaceAll("[^a-zA-Z0-9._-]", "_");
+    this.replyTopic = applicationName + ".reply." + this.instanceId;
+    this.replyGroupId = applicationName + "-reply-" + this.instanceId;
+  }
+
+  // listener containers are stopped before singletons are destroyed, so nothing consumes the topic anymore
+  @PreDestroy
+  void deleteReplyTopic() {
+    if (!deleteOnShutdown) {
+      return;
+    }
+    try (AdminClient adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+      adminClient.deleteTopics(List.of(replyTopic)).all().get(10, TimeUnit.SECONDS);
+      log.info("Deleted reply topic of instance {}", instanceId);
+    } catch (Exception e) {
+      // left to the topic retention; the topic stays empty once its replies expire
+      log.warn("Could not delete reply topic of instance {}", instanceId, e);
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.rmit.route.route.kafka;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks the producer profile of a topic.
+ * Topics listed in kafka.producer.throughput-topics are sent with the batching and compressing
+ * throughput template, every other topic with the latency template.
+ */
+@Component
+public class KafkaTemplateRouter {
+
+  private final KafkaTemplate<String, Object> latencyTemplate;
+  private final KafkaTemplate<String, Object> throughputTemplate;
+  private final Set<String> throughputTopics;
+
+  public KafkaTemplateRouter(
+      @Qualifier("kafkaTemplate") KafkaTemplate<String, Object> latencyTemplate,
+      @Qualifier("throughputKafkaTemplate") KafkaTemplate<String, Object> throughputTemplate,
+      @Value("${kafka.producer.throughput-topics:}") Set<String> throughputTopics) {
+    this.latencyTemplate = latencyTemplate;
+    this.throughputTemplate = throughputTemplate;
+    this.throughputTopics = throughputTopics;
+  }
+
+  /**
+   * @param topic the topic to send to
+   * @return the template of the topic's producer profile
+   */
+  public KafkaTemplate<String, Object> forTopic(String topic) {
+    return throughputTopics.contains(topic) ? throughputTemplate : latencyTemplate;
+  }
+}
@@ -0,0 +1,52 @@
+package com.rmit.route.route.kafka;
+
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import com.rmit.route.common.outbox.RedeliveredEventFilter;
+import com.rmit.route.common.view.RouteStopsViews;
+import com.rmit.route.route.external.dto.RouteChangedEvent;
+import com.rmit.route.route.external.dto.RouteTopicRegistry;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps the reverse index and the trip planner in step with changes made on other replicas.
+ * Each instance uses its own consumer group and starts at the end of route.changed,
+ * since everything before that is already in the database snapshot they load from.
+ * Redelivered outbox events are skipped.
+ */
+@Component
+@RequiredArgsConstructor
+public class RouteIndexListener {
+
+  private final RouteStopsViews routeStopsViews;
+  private final PayloadCodecs payloadCodecs;
+  private final RedeliveredEventFilter redeliveredEventFilter = new RedeliveredEventFilter();
+
+  @KafkaListener(
+      topics = RouteTopicRegistry.Topic.CHANGED,
+      groupId = "${spring.application.name}-reverse-index-${random.uuid}",
+      containerFactory = "batchKafkaListenerContainerFactory")
+  public void handleRouteChanges(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+    for (ConsumerRecord<String, byte[]> record : records) {
+      if (redeliveredEventFilter.isRedelivery(record)) {
+        continue;
+      }
+      try {
+        RouteChangedEvent event = payloadCodecs.forRecord(record.headers(), record.value())
+            .decode(record.value(), RouteChangedEvent.class);
+        routeStopsViews.apply(event);
+        redeliveredEventFilter.applied(record);
+      } catch (Exception e) {
+        throw new BatchListenerFailedException("Error applying route change to the reverse index and planner", e, record);
+      }
+    }
+    ack.acknowledge();
+  }
+}
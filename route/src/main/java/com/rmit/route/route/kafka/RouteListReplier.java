@@ -0,0 +1,129 @@
+package com.rmit.route.route.kafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import com.rmit.route.route.dto.RoutePageResponse;
+import com.rmit.route.route.dto.RouteResponse;
+import com.rmit.route.route.external.dto.ListChunk;
+import com.rmit.route.route.external.dto.RouteListRequest;
+import com.rmit.route.route.external.service.PayloadCodec;
+import com.rmit.route.route.service.RouteService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Answers route list requests as a sequence of bounded reply records.
+ * Every chunk is one keyset page of the routes matching the request, filtered by the database,
+ * so neither the service nor a single record ever holds the full listing.
+ * The reply fails as a whole when any chunk cannot be sent, which hands the request to the
+ * retry topics and finally to the dead letter handler that answers with an error reply.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RouteListReplier {
+
+  private final RouteService routeService;
+  private final KafkaTemplate<String, Object> kafkaTemplate;
+  private final PayloadCodecs payloadCodecs;
+
+  @Value("${kafka.list.chunk-size}")
+  private int chunkSize;
+
+  @Value("${kafka.list.max-limit}")
+  private int maxLimit;
+
+  @Value("${kafka.request-reply.timeout}")
+  private Duration sendTimeout;
+
+  /**
+   * Stream the routes matching the request to the reply topic
+   *
+   * @param request filter and page parameters
+   * @param codec the codec of the request, used for every chunk
+   * @param replyTopic the requester's reply topic
+   * @param correlationId the request correlation id, copied onto every chunk
+   * @throws KafkaException when a chunk is not acknowledged by the broker within the send timeout
+   */
+  public void reply(RouteListRequest request, PayloadCodec codec, String replyTopic, byte[] correlationId) throws Exception {
+    int limit = request.getLimit() == null ? maxLimit : Math.max(0, Math.min(request.getLimit(), maxLimit));
+    // All chunks share a key so they land on one partition in order
+    String key = HexFormat.of().formatHex(correlationId);
+
+    List<CompletableFuture<?>> sends = new ArrayList<>();
+    String cursor = request.getCursor();
+    String nextCursor = null;
+    int chunkIndex = 0;
+    int returned = 0;
+    while (true) {
+      List<RouteResponse> items = List.of();
+      if (returned < limit) {
+        RoutePageResponse page = routeService.getRoutesPage(cursor, Math.min(chunkSize, limit - returned),
+            request.getNumber(), request.getNameContains());
+        items = page.getItems();
+        nextCursor = page.getNextCursor();
+        cursor = nextCursor;
+        returned += items.size();
+      }
+      // the next cursor is null once the listing is exhausted, and points past the last route otherwise
+      boolean last = returned >= limit || nextCursor == null;
+      sends.add(send(codec, replyTopic, key, correlationId, chunkIndex++, last, items, last ? nextCursor : null));
+      if (last) {
+        break;
+      }
+      // stop producing chunks once the requester can no longer get a complete reply
+      failIfAnyFailed(sends, key);
+    }
+
+    awaitSends(sends, key);
+    log.debug("Route service: Answered list request {} with {} routes in {} chunks", key, returned, chunkIndex);
+  }
+
+  private CompletableFuture<?> send(PayloadCodec codec, String replyTopic, String key, byte[] correlationId, int index,
+      boolean last, List<RouteResponse> items, String nextCursor) throws Exception {
+    ListChunk<RouteResponse> chunk = ListChunk.<RouteResponse>builder()
+        .index(index)
+        .last(last)
+        .items(items)
+        .nextCursor(nextCursor)
+        .build();
+    ProducerRecord<String, Object> reply = new ProducerRecord<>(replyTopic, key, codec.encode(chunk));
+    reply.headers().add(KafkaHeaders.CORRELATION_ID, correlationId);
+    payloadCodecs.addHeader(reply.headers(), codec);
+    return kafkaTemplate.send(reply);
+  }
+
+  private void failIfAnyFailed(List<CompletableFuture<?>> sends, String key) throws Exception {
+    for (CompletableFuture<?> send : sends) {
+      if (send.isCompletedExceptionally()) {
+        awaitSends(List.of(send), key);
+      }
+    }
+  }
+
+  private void awaitSends(List<CompletableFuture<?>> sends, String key) throws Exception {
+    try {
+      CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+          .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      throw new KafkaException("Failed to send a chunk of list reply " + key, e.getCause());
+    } catch (TimeoutException e) {
+      throw new KafkaException("Timed out sending the chunks of list reply " + key, e);
+    }
+  }
+}
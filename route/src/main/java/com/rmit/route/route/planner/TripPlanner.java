@@ -0,0 +1,371 @@
+package com.rmit.route.route.planner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.rmit.route.common.graph.TransitGraph;
+import com.rmit.route.common.view.RouteStopsView;
+import com.rmit.route.route.dto.JourneyLeg;
+import com.rmit.route.route.dto.JourneyResponse;
+import com.rmit.route.route.replica.DestinationReplica;
+import com.rmit.route.route.replica.DestinationReplicaNotReadyException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Journey planning over the network formed by all routes and their shared destinations.
+ * The stop list of every route is kept up to date by {@link com.rmit.route.common.view.RouteStopsViews}.
+ * Changes are queued and applied by a single background thread, which splices only the changed routes into
+ * a new graph and publishes it; queries search whichever graph is published and never wait for an update.
+ * A burst of changes is applied in one pass. The graph is rebuilt from scratch only once replaced routes
+ * outnumber live ones. Destinations without known coordinates are left out of the graph until they arrive.
+ */
+@Slf4j
+@Component
+public class TripPlanner implements RouteStopsView {
+
+  /**
+   * Stops of a route in order, with the route's updatedAt as version
+   */
+  private record RouteStops(long version, List<UUID> destinationIds) {
+  }
+
+  /**
+   * A published graph and the ids its dense stop and route numbers stand for.
+   * Numbers are only ever added until the next full rebuild, so the map and arrays may hold entries
+   * beyond the graph, which older snapshots ignore.
+   */
+  private record Network(TransitGraph graph, Map<UUID, Integer> stopNumbers, UUID[] stopIds, UUID[] routeIds) {
+  }
+
+  private final DestinationReplica destinationReplica;
+  private final double transferPenaltyMeters;
+  private final Timer rebuildTimer;
+  private final Timer updateTimer;
+
+  private final Map<UUID, RouteStops> routes = new ConcurrentHashMap<>();
+  // changes not yet applied to the published graph
+  private final Set<UUID> changedRoutes = ConcurrentHashMap.newKeySet();
+  private final Set<UUID> movedDestinations = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean refreshQueued = new AtomicBoolean();
+  private final ExecutorService refresher = Executors.newSingleThreadExecutor(
+      new CustomizableThreadFactory("trip-planner-"));
+  private volatile Network network;
+  private volatile boolean ready;
+
+  // owned by the refresher thread
+  private Map<UUID, Integer> stopNumbers;
+  private UUID[] stopIds;
+  private double[] latitudes;
+  private double[] longitudes;
+  private int stopCount;
+  private Map<UUID, Integer> routeNumbers;
+  private UUID[] routeIds;
+  private int routeCount;
+  // routes that left out a destination because its coordinates were unknown
+  private Map<UUID, Set<UUID>> routesAwaitingDestination;
+
+  public TripPlanner(
+      DestinationReplica destinationReplica,
+      MeterRegistry meterRegistry,
+      @Value("${route.planner.transfer-penalty-meters}") double transferPenaltyMeters) {
+    this.destinationReplica = destinationReplica;
+    this.transferPenaltyMeters = transferPenaltyMeters;
+    this.rebuildTimer = Timer.builder("route.planner.rebuild")
+        .description("Time to rebuild the journey planning graph from scratch")
+        .register(meterRegistry);
+    this.updateTimer = Timer.builder("route.planner.update")
+        .description("Time to splice changed routes and destinations into the journey planning graph")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void loaded() {
+    ready = true;
+    log.info("Trip planner loaded {} routes", routes.size());
+    requestRefresh();
+  }
+
+  /**
+   * Cheapest journey between two destinations, trading distance against changes of route
+   *
+   * @return the journey, or empty if no combination of routes connects the destinations
+   * @throws TripPlannerNotReadyException while the route network is still loading
+   * @throws DestinationReplicaNotReadyException while destination coordinates are still loading
+   */
+  public Optional<JourneyResponse> plan(UUID fromDestinationId, UUID toDestinationId) {
+    if (!ready) {
+      throw new TripPlannerNotReadyException();
+    }
+    if (!destinationReplica.isReady()) {
+      throw new DestinationReplicaNotReadyException();
+    }
+    Network current = network;
+    if (current == null) {
+      // the first graph is built in the background once routes and destinations are both loaded
+      requestRefresh();
+      throw new TripPlannerNotReadyException();
+    }
+    int origin = stopOf(current, fromDestinationId);
+    int target = stopOf(current, toDestinationId);
+    if (origin < 0 || target < 0) {
+      return Optional.empty();
+    }
+    List<TransitGraph.Leg> legs = current.graph().search(origin, target, true);
+    if (legs == null) {
+      return Optional.empty();
+    }
+
+    List<JourneyLeg> journeyLegs = new ArrayList<>(legs.size());
+    double totalMeters = 0;
+    for (TransitGraph.Leg leg : legs) {
+      List<UUID> stops = new ArrayList<>(leg.stops().length);
+      for (int stop : leg.stops()) {
+        stops.add(current.stopIds()[stop]);
+      }
+      journeyLegs.add(JourneyLeg.builder()
+          .routeId(current.routeIds()[leg.route()])
+          .fromDestinationId(stops.get(0))
+          .toDestinationId(stops.get(stops.size() - 1))
+          .destinationIds(stops)
+          .distanceMeters(leg.meters())
+          .build());
+      totalMeters += leg.meters();
+    }
+    return Optional.of(JourneyResponse.builder()
+        .fromDestinationId(fromDestinationId)
+        .toDestinationId(toDestinationId)
+        .totalMeters(totalMeters)
+        .transfers(Math.max(0, legs.size() - 1))
+        .legs(journeyLegs)
+        .build());
+  }
+
+  /**
+   * Destinations that appeared, moved or disappeared; the routes serving them are spliced in again
+   */
+  public void destinationsMoved(Set<UUID> destinationIds) {
+    movedDestinations.addAll(destinationIds);
+    requestRefresh();
+  }
+
+  @Override
+  public void replace(UUID routeId, List<UUID> destinationIds, long version) {
+    RouteStops updated = new RouteStops(version, destinationIds);
+    RouteStops stored = routes.merge(routeId, updated,
+        (current, candidate) -> candidate.version() >= current.version() ? candidate : current);
+    if (stored == updated) {
+      changedRoutes.add(routeId);
+      requestRefresh();
+    }
+  }
+
+  @Override
+  public void remove(UUID routeId) {
+    if (routes.remove(routeId) != null) {
+      changedRoutes.add(routeId);
+      requestRefresh();
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    refresher.shutdownNow();
+  }
+
+  private static int stopOf(Network network, UUID destinationId) {
+    Integer stop = network.stopNumbers().get(destinationId);
+    // stop numbers outlive the routes that used them, and stops added after this snapshot are not in its graph
+    return stop == null || !network.graph().isServed(stop) ? -1 : stop;
+  }
+
+  private void requestRefresh() {
+    // a queued refresh picks up every change made before it starts
+    if (ready && refreshQueued.compareAndSet(false, true)) {
+      refresher.execute(this::refresh);
+    }
+  }
+
+  private void refresh() {
+    refreshQueued.set(false);
+    if (!destinationReplica.isReady()) {
+      // the destination listener reports what it applies, which queues another refresh
+      return;
+    }
+    try {
+      Network current = network;
+      if (current == null || current.graph().needsCompaction()) {
+        // cleared before reading, so changes made during the rebuild are applied by the next refresh
+        changedRoutes.clear();
+        movedDestinations.clear();
+        network = rebuildTimer.record(this::build);
+      } else if (!changedRoutes.isEmpty() || !movedDestinations.isEmpty()) {
+        Set<UUID> changed = drain(changedRoutes);
+        Set<UUID> moved = drain(movedDestinations);
+        network = updateTimer.record(() -> update(current, changed, moved));
+      }
+    } catch (RuntimeException e) {
+      log.error("Failed to update the journey planning graph, rebuilding it on the next query", e);
+      network = null;
+    }
+  }
+
+  private Network build() {
+    long started = System.nanoTime();
+    stopNumbers = new ConcurrentHashMap<>();
+    stopIds = new UUID[1024];
+    latitudes = new double[1024];
+    longitudes = new double[1024];
+    stopCount = 0;
+    routeNumbers = new HashMap<>();
+    routesAwaitingDestination = new HashMap<>();
+
+    List<UUID> builtRouteIds = new ArrayList<>(routes.size());
+    List<int[]> routeStops = new ArrayList<>(routes.size());
+    for (Map.Entry<UUID, RouteStops> route : routes.entrySet()) {
+      routeNumbers.put(route.getKey(), builtRouteIds.size());
+      builtRouteIds.add(route.getKey());
+      routeStops.add(compile(route.getKey(), route.getValue().destinationIds()));
+    }
+    routeIds = builtRouteIds.toArray(new UUID[0]);
+    routeCount = routeIds.length;
+
+    TransitGraph graph = TransitGraph.build(stopCount, latitudes, longitudes,
+        routeStops.toArray(new int[0][]), transferPenaltyMeters);
+    log.info("Built journey planning graph with {} stops and {} edges in {} ms",
+        graph.stopCount(), graph.edgeCount(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    return new Network(graph, stopNumbers, stopIds, routeIds);
+  }
+
+  private Network update(Network current, Set<UUID> changed, Set<UUID> moved) {
+    TransitGraph graph = current.graph();
+    Set<UUID> affected = new HashSet<>(changed);
+    boolean coordinatesCopied = false;
+    for (UUID destinationId : moved) {
+      Integer stop = stopNumbers.get(destinationId);
+      if (stop != null) {
+        DestinationReplica.DestinationView destination = located(destinationId);
+        if (destination != null) {
+          // the published graph keeps reading the old coordinates
+          if (!coordinatesCopied) {
+            latitudes = latitudes.clone();
+            longitudes = longitudes.clone();
+            coordinatesCopied = true;
+          }
+          latitudes[stop] = destination.latitude();
+          longitudes[stop] = destination.longitude();
+        }
+        for (int route : graph.routesThrough(stop)) {
+          affected.add(routeIds[route]);
+        }
+      }
+      Set<UUID> waiting = routesAwaitingDestination.remove(destinationId);
+      if (waiting != null) {
+        affected.addAll(waiting);
+      }
+    }
+
+    int[] numbers = new int[affected.size()];
+    int[][] paths = new int[affected.size()][];
+    int count = 0;
+    for (UUID routeId : affected) {
+      RouteStops stops = routes.get(routeId);
+      Integer number = routeNumbers.get(routeId);
+      if (stops == null) {
+        if (number == null) {
+          continue;
+        }
+        // the number stays unused until the next full rebuild
+        routeNumbers.remove(routeId);
+        paths[count] = null;
+      } else {
+        if (number == null) {
+          number = addRoute(routeId);
+        }
+        paths[count] = compile(routeId, stops.destinationIds());
+      }
+      numbers[count++] = number;
+    }
+
+    TransitGraph updated = graph.withRoutes(stopCount, latitudes, longitudes,
+        Arrays.copyOf(numbers, count), Arrays.copyOf(paths, count));
+    log.debug("Spliced {} routes into the journey planning graph", count);
+    return new Network(updated, stopNumbers, stopIds, routeIds);
+  }
+
+  // the stops of a route as dense stop numbers, leaving out destinations without known coordinates
+  private int[] compile(UUID routeId, List<UUID> destinationIds) {
+    int[] path = new int[destinationIds.size()];
+    int length = 0;
+    for (UUID destinationId : destinationIds) {
+      DestinationReplica.DestinationView destination = located(destinationId);
+      if (destination == null) {
+        routesAwaitingDestination.computeIfAbsent(destinationId, id -> new HashSet<>()).add(routeId);
+        continue;
+      }
+      Integer stop = stopNumbers.get(destinationId);
+      path[length++] = stop != null ? stop : addStop(destinationId, destination);
+    }
+    return Arrays.copyOf(path, length);
+  }
+
+  // slots past the stop count of a published graph are never read through it, so they are written in place
+  private int addStop(UUID destinationId, DestinationReplica.DestinationView destination) {
+    int stop = stopCount++;
+    if (stop == stopIds.length) {
+      stopIds = Arrays.copyOf(stopIds, stop * 2);
+      latitudes = Arrays.copyOf(latitudes, stop * 2);
+      longitudes = Arrays.copyOf(longitudes, stop * 2);
+    }
+    stopIds[stop] = destinationId;
+    latitudes[stop] = destination.latitude();
+    longitudes[stop] = destination.longitude();
+    stopNumbers.put(destinationId, stop);
+    return stop;
+  }
+
+  private int addRoute(UUID routeId) {
+    int number = routeCount++;
+    if (number == routeIds.length) {
+      routeIds = Arrays.copyOf(routeIds, Math.max(16, number * 2));
+    }
+    routeIds[number] = routeId;
+    routeNumbers.put(routeId, number);
+    return number;
+  }
+
+  private DestinationReplica.DestinationView located(UUID destinationId) {
+    return destinationReplica.get(destinationId)
+        .filter(view -> view.latitude() != null && view.longitude() != null)
+        .orElse(null);
+  }
+
+  private static Set<UUID> drain(Set<UUID> pending) {
+    Set<UUID> drained = new HashSet<>();
+    for (Iterator<UUID> iterator = pending.iterator(); iterator.hasNext(); ) {
+      drained.add(iterator.next());
+      iterator.remove();
+    }
+    return drained;
+  }
+}
@@ -0,0 +1,10 @@
+package com.rmit.route.route.planner;
+
+/**
+ * Thrown when a journey is requested before the route network has been loaded
+ */
+public class TripPlannerNotReadyException extends RuntimeException {
+  public TripPlannerNotReadyException() {
+    super("The route network is still loading, please retry shortly");
+  }
+}
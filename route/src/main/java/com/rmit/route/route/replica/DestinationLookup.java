@@ -0,0 +1,46 @@
+package com.rmit.route.route.replica;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.rmit.route.route.external.dto.DestinationLookupRequest;
+import com.rmit.route.route.external.dto.DestinationLookupResponse;
+import com.rmit.route.route.external.dto.DestinationTopicRegistry;
+import com.rmit.route.route.external.service.EventProducer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Asks the destination service directly whether destinations exist.
+ * Only used for ids the {@link DestinationReplica} does not hold, which are either unknown or created
+ * so recently that their change event has not been replicated yet; the service decides between the two.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DestinationLookup {
+
+  private final EventProducer eventProducer;
+
+  /**
+   * @param ids destination ids to check
+   * @return the ids the destination service does not know, in request order
+   * @throws DestinationReplicaNotReadyException when the destination service does not answer within
+   *         kafka.request-reply.timeout, so the caller can retry shortly
+   */
+  public List<UUID> findMissing(List<UUID> ids) {
+    DestinationLookupResponse response;
+    try {
+      response = eventProducer.sendAndReceive(DestinationTopicRegistry.Topic.LOOKUP_REQ,
+          DestinationLookupRequest.builder().ids(ids).build(), DestinationLookupResponse.class);
+    } catch (RuntimeException e) {
+      log.warn("Destination lookup of {} ids failed", ids.size(), e);
+      throw new DestinationReplicaNotReadyException(
+          "Destination ids could not be confirmed yet, please retry shortly", e);
+    }
+    return response.getMissingIds() == null ? List.of() : response.getMissingIds();
+  }
+}
@@ -0,0 +1,159 @@
+package com.rmit.route.route.replica;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import com.rmit.route.route.external.dto.ChangeType;
+import com.rmit.route.route.external.dto.DestinationChangedEvent;
+import com.rmit.route.route.external.dto.DestinationDetails;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory copy of the destination rows, fed from the compacted destination.changed topic.
+ * Every instance replays the topic from the beginning at startup and is ready once it has
+ * reached the end offsets seen when its partitions were assigned.
+ * Applying an event stores the latest state of its destination, so redelivered events are harmless.
+ */
+@Slf4j
+@Component
+public class DestinationReplica {
+
+  /**
+   * Replicated fields of a destination
+   */
+  public record DestinationView(UUID id, String name, Double latitude, Double longitude) {
+  }
+
+  private final Map<UUID, DestinationView> destinations = new ConcurrentHashMap<>();
+  // partitions still being replayed, with the offset that counts as caught up
+  private final Map<TopicPartition, Long> catchUpTargets = new ConcurrentHashMap<>();
+  private final long startedAt = System.nanoTime();
+  private volatile boolean ready;
+
+  private final Timer bootstrapTimer;
+  private final Timer eventLagTimer;
+
+  public DestinationReplica(MeterRegistry meterRegistry) {
+    Gauge.builder("route.destination.replica.size", destinations, Map::size)
+        .description("Destinations held by the local replica")
+        .register(meterRegistry);
+    Gauge.builder("route.destination.replica.ready", this, replica -> replica.ready ? 1 : 0)
+        .description("1 once the replica has caught up with the destination.changed topic")
+        .register(meterRegistry);
+    this.bootstrapTimer = Timer.builder("route.destination.replica.bootstrap")
+        .description("Time from startup until the replica caught up")
+        .register(meterRegistry);
+    this.eventLagTimer = Timer.builder("route.destination.replica.event.lag")
+        .description("Time between a destination change and its application to the replica")
+        .register(meterRegistry);
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  public int size() {
+    return destinations.size();
+  }
+
+  public Optional<DestinationView> get(UUID id) {
+    return Optional.ofNullable(destinations.get(id));
+  }
+
+  /**
+   * @param ids destination ids to check
+   * @return the ids not present in the replica, in request order
+   * @throws DestinationReplicaNotReadyException while the replica is still catching up
+   */
+  public List<UUID> findMissing(Collection<UUID> ids) {
+    if (!ready) {
+      throw new DestinationReplicaNotReadyException();
+    }
+    List<UUID> missing = new ArrayList<>();
+    for (UUID id : ids) {
+      if (!destinations.containsKey(id)) {
+        missing.add(id);
+      }
+    }
+    return missing;
+  }
+
+  /**
+   * @return true if the destination's location changed for anything computed from this replica: it was
+   *         seen for the first time, got or changed coordinates, or was removed
+   */
+  public boolean apply(DestinationChangedEvent event) {
+    boolean moved;
+    if (event.getType() == ChangeType.DELETED || event.getDestination() == null) {
+      moved = destinations.remove(event.getDestinationId()) != null;
+    } else {
+      DestinationDetails details = event.getDestination();
+      DestinationView previous = destinations.put(event.getDestinationId(),
+          new DestinationView(event.getDestinationId(), details.getName(), details.getLatitude(), details.getLongitude()));
+      // a route may have been read while this replica lagged behind, leaving the destination unresolved
+      moved = previous == null || !Objects.equals(previous.latitude(), details.getLatitude())
+          || !Objects.equals(previous.longitude(), details.getLongitude());
+    }
+    if (ready && event.getOccurredAt() != null) {
+      Duration lag = Duration.between(event.getOccurredAt(), LocalDateTime.now());
+      eventLagTimer.record(Math.max(0, lag.toMillis()), TimeUnit.MILLISECONDS);
+    }
+    return moved;
+  }
+
+  /**
+   * Start tracking catch-up of newly assigned partitions
+   *
+   * @param endOffsets the log end offset of each partition at assignment
+   * @param positions the offset each partition will be consumed from
+   */
+  public void partitionsAssigned(Map<TopicPartition, Long> endOffsets, Map<TopicPartition, Long> positions) {
+    endOffsets.forEach((partition, endOffset) -> {
+      long position = positions.getOrDefault(partition, 0L);
+      if (position < endOffset) {
+        catchUpTargets.put(partition, endOffset);
+      }
+    });
+    checkCaughtUp();
+  }
+
+  /**
+   * Record the consumer position of a partition after a batch was applied
+   */
+  public void consumedUpTo(TopicPartition partition, long position) {
+    if (ready) {
+      return;
+    }
+    Long target = catchUpTargets.get(partition);
+    if (target != null && position >= target) {
+      catchUpTargets.remove(partition);
+    }
+    checkCaughtUp();
+  }
+
+  private void checkCaughtUp() {
+    if (!ready && catchUpTargets.isEmpty()) {
+      ready = true;
+      long elapsed = System.nanoTime() - startedAt;
+      bootstrapTimer.record(elapsed, TimeUnit.NANOSECONDS);
+      log.info("Destination replica caught up with {} destinations in {} ms",
+          destinations.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package com.rmit.route.route.replica;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reports the instance out of service until the destination replica has caught up,
+ * used by the readiness health group
+ */
+@Component("destinationReplica")
+@RequiredArgsConstructor
+public class DestinationReplicaHealthIndicator implements HealthIndicator {
+
+  private final DestinationReplica destinationReplica;
+
+  @Override
+  public Health health() {
+    Health.Builder builder = destinationReplica.isReady() ? Health.up() : Health.outOfService();
+    return builder.withDetail("destinations", destinationReplica.size()).build();
+  }
+}
@@ -0,0 +1,15 @@
+package com.rmit.route.route.replica;
+
+/**
+ * Thrown when destination data is needed before it is available, either because the replica
+ * has not caught up yet or because the destination service could not confirm ids it lacks
+ */
+public class DestinationReplicaNotReadyException extends RuntimeException {
+  public DestinationReplicaNotReadyException() {
+    super("Destination data is still loading, please retry shortly");
+  }
+
+  public DestinationReplicaNotReadyException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -1,15 +1,43 @@
 package com.rmit.route.route.repo;
 
+import com.rmit.route.common.view.RouteLink;
 import com.rmit.route.route.entity.RouteDestination;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface RouteDestinationRepository extends JpaRepository<RouteDestination, UUID> {
-    List<RouteDestination> findByRouteId(UUID routeId);
-    void deleteByRouteId(UUID routeId);
-}
+    List<RouteDestination> findByRouteIdOrderByPositionAsc(UUID routeId);
+    List<RouteDestination> findByRouteIdInOrderByPositionAsc(Collection<UUID> routeIds);
+
+    @Query("SELECT DISTINCT rd.routeId FROM RouteDestination rd WHERE rd.destinationId = :destinationId")
+    List<UUID> findRouteIdsByDestinationId(@Param("destinationId") UUID destinationId);
+
+    @Query("SELECT DISTINCT new com.rmit.route.common.view.RouteLink(rd.routeId, rd.destinationId, r.updatedAt) " +
+            "FROM RouteDestination rd JOIN Route r ON r.id = rd.routeId WHERE rd.destinationId IN :destinationIds")
+    List<RouteLink> findLinksByDestinationIdIn(@Param("destinationIds") Collection<UUID> destinationIds);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT new com.rmit.route.common.view.RouteLink(rd.routeId, rd.destinationId, r.updatedAt) " +
+            "FROM RouteDestination rd JOIN Route r ON r.id = rd.routeId ORDER BY rd.routeId, rd.position")
+    Stream<RouteLink> streamAllLinksInStopOrder();
+
+    @Modifying
+    @Query("DELETE FROM RouteDestination rd WHERE rd.routeId = :routeId")
+    int deleteByRouteId(@Param("routeId") UUID routeId);
+
+    @Modifying
+    @Query("DELETE FROM RouteDestination rd WHERE rd.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
+}
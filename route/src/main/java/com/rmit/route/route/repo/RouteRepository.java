@@ -1,13 +1,48 @@
 package com.rmit.route.route.repo;
 
 import com.rmit.route.route.entity.Route;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface RouteRepository extends JpaRepository<Route, UUID> {
     boolean existsByNumber(String number);
-}
 
+    Optional<Route> findByNumber(String number);
+
+    @Query("SELECT r FROM Route r ORDER BY r.createdAt ASC, r.id ASC")
+    List<Route> findFirstPage(Pageable pageable);
+
+    @Query("SELECT r FROM Route r " +
+            "WHERE r.createdAt > :createdAt OR (r.createdAt = :createdAt AND r.id > :id) " +
+            "ORDER BY r.createdAt ASC, r.id ASC")
+    List<Route> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT r FROM Route r " +
+            "WHERE LOWER(r.name) LIKE :namePattern ESCAPE '!' " +
+            "ORDER BY r.createdAt ASC, r.id ASC")
+    List<Route> findFirstPageByName(@Param("namePattern") String namePattern, Pageable pageable);
+
+    @Query("SELECT r FROM Route r " +
+            "WHERE LOWER(r.name) LIKE :namePattern ESCAPE '!' " +
+            "AND (r.createdAt > :createdAt OR (r.createdAt = :createdAt AND r.id > :id)) " +
+            "ORDER BY r.createdAt ASC, r.id ASC")
+    List<Route> findPageAfterByName(@Param("namePattern") String namePattern,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT r FROM Route r ORDER BY r.createdAt ASC, r.id ASC")
+    Stream<Route> streamAllOrdered();
+}
@@ -1,16 +1,30 @@
 package com.rmit.route.route.service;
 
+import com.rmit.route.route.dto.RoutePageResponse;
+import com.rmit.route.route.dto.JourneyResponse;
+import com.rmit.route.route.dto.RouteMetricsResponse;
 import com.rmit.route.route.dto.RouteRequest;
 import com.rmit.route.route.dto.RouteResponse;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface RouteService {
     RouteResponse createRoute(RouteRequest request);
     RouteResponse getRouteById(UUID id);
     List<RouteResponse> getAllRoutes();
+    RoutePageResponse getRoutesPage(String cursor, int size);
+    RoutePageResponse getRoutesPage(String cursor, int size, String number, String nameContains);
+    void streamAllRoutes(Consumer<RouteResponse> consumer);
     RouteResponse updateRoute(UUID id, RouteRequest request);
     void deleteRoute(UUID id);
+    RouteResponse embedDestinations(RouteResponse route);
+    RouteMetricsResponse getRouteMetrics(UUID id);
+    List<UUID> getRouteIdsByDestination(UUID destinationId);
+    Map<UUID, List<UUID>> getRouteIdsByDestinations(Collection<UUID> destinationIds);
+    List<RouteResponse> getRoutesByDestination(UUID destinationId);
+    JourneyResponse planJourney(UUID fromDestinationId, UUID toDestinationId);
 }
-
@@ -1,26 +1,74 @@
 package com.rmit.route.route.service.impl;
 
+import com.rmit.route.common.cache.CacheInvalidator;
+import com.rmit.route.common.config.CacheConfig;
+import com.rmit.route.common.outbox.OutboxService;
+import com.rmit.route.common.view.RouteLink;
+import com.rmit.route.common.view.RouteStopsViews;
+import com.rmit.route.common.spatial.RouteGeometry;
+import com.rmit.route.common.utils.KeysetCursor;
+import com.rmit.route.route.dto.RoutePageResponse;
+import com.rmit.route.route.dto.JourneyLeg;
+import com.rmit.route.route.dto.JourneyResponse;
+import com.rmit.route.route.dto.RouteMetricsResponse;
 import com.rmit.route.route.dto.RouteRequest;
 import com.rmit.route.route.dto.RouteResponse;
+import com.rmit.route.route.dto.RouteStop;
 import com.rmit.route.route.entity.Route;
 import com.rmit.route.route.entity.RouteDestination;
+import com.rmit.route.route.external.dto.ChangeType;
+import com.rmit.route.route.external.dto.RouteChangedEvent;
+import com.rmit.route.route.external.dto.RouteTopicRegistry;
+import com.rmit.route.route.index.DestinationRouteIndex;
+import com.rmit.route.route.planner.TripPlanner;
 import com.rmit.route.route.repo.RouteDestinationRepository;
+import com.rmit.route.route.replica.DestinationLookup;
+import com.rmit.route.route.replica.DestinationReplica;
+import com.rmit.route.route.replica.DestinationReplicaNotReadyException;
 import com.rmit.route.route.repo.RouteRepository;
 import com.rmit.route.route.service.RouteService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class RouteServiceImpl implements RouteService {
 
+        private static final int MAX_PAGE_SIZE = 500;
+        private static final int STREAM_CHUNK_SIZE = 500;
+
         private final RouteRepository routeRepository;
         private final RouteDestinationRepository routeDestinationRepository;
+        private final EntityManager entityManager;
+        private final CacheInvalidator cacheInvalidator;
+        private final OutboxService outboxService;
+        private final DestinationReplica destinationReplica;
+        private final DestinationLookup destinationLookup;
+        private final DestinationRouteIndex destinationRouteIndex;
+        private final TripPlanner tripPlanner;
+        private final RouteStopsViews routeStopsViews;
 
         @Override
         @Transactional
@@ -29,6 +77,7 @@ public class RouteServiceImpl implements RouteService {
                 if (routeRepository.existsByNumber(request.getNumber())) {
                         throw new RuntimeException("Route with this number already exists");
                 }
+                validateDestinationIds(request.getListOfDestinationIds());
 
                 // Create new route
                 Route route = routeRepository.save(Route.builder()
@@ -37,19 +86,21 @@ public class RouteServiceImpl implements RouteService {
                                 .build());
 
                 // Create RouteDestination entities
-                List<RouteDestination> routeDestinations = request.getListOfDestinationIds().stream()
-                                .map(destinationId -> RouteDestination.builder()
-                                                .routeId(route.getId())
-                                                .destinationId(destinationId)
-                                                .build())
-                                .collect(Collectors.toList());
+                List<UUID> destinationIds = request.getListOfDestinationIds();
+                List<RouteDestination> routeDestinations = new ArrayList<>(destinationIds.size());
+                for (int position = 0; position < destinationIds.size(); position++) {
+                        routeDestinations.add(newRouteDestination(route.getId(), destinationIds.get(position), position));
+                }
 
                 routeDestinationRepository.saveAll(routeDestinations);
+                recordChange(ChangeType.CREATED, route.getId(), mapToResponse(route, destinationIds, null));
+                routeStopsViews.replaceAfterCommit(route.getId(), destinationIds, route.getUpdatedAt());
 
-                return mapToResponse(route, "Route created successfully");
+                return mapToResponse(route, destinationIds, "Route created successfully");
         }
 
         @Override
+        @Cacheable(cacheNames = CacheConfig.ROUTES, key = "#id", sync = true)
         public RouteResponse getRouteById(UUID id) {
                 Route route = routeRepository.findById(id)
                                 .orElseThrow(() -> new RuntimeException("Route not found with id: " + id));
@@ -59,9 +110,70 @@ public class RouteServiceImpl implements RouteService {
 
         @Override
         public List<RouteResponse> getAllRoutes() {
-                return routeRepository.findAll().stream()
-                                .map(route -> mapToResponse(route, null))
-                                .collect(Collectors.toList());
+                return mapToResponses(routeRepository.findAll());
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public RoutePageResponse getRoutesPage(String cursor, int size) {
+                return getRoutesPage(cursor, size, null, null);
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public RoutePageResponse getRoutesPage(String cursor, int size, String number, String nameContains) {
+                int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+                PageRequest limit = PageRequest.ofSize(pageSize);
+                KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+                String name = nameContains == null ? null : nameContains.toLowerCase(Locale.ROOT);
+
+                List<Route> routes;
+                if (number != null) {
+                        // numbers are unique, so the unique index yields the whole listing
+                        routes = routeRepository.findByNumber(number)
+                                        .filter(route -> after == null || isAfter(route, after))
+                                        .filter(route -> name == null || route.getName().toLowerCase(Locale.ROOT).contains(name))
+                                        .map(List::of)
+                                        .orElse(List.of());
+                } else if (name != null) {
+                        String namePattern = "%" + escapeLike(name) + "%";
+                        routes = after == null
+                                        ? routeRepository.findFirstPageByName(namePattern, limit)
+                                        : routeRepository.findPageAfterByName(namePattern, after.createdAt(), after.id(), limit);
+                } else {
+                        routes = after == null
+                                        ? routeRepository.findFirstPage(limit)
+                                        : routeRepository.findPageAfter(after.createdAt(), after.id(), limit);
+                }
+
+                String nextCursor = null;
+                if (routes.size() == pageSize) {
+                        Route last = routes.get(routes.size() - 1);
+                        nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+                }
+
+                return RoutePageResponse.builder()
+                                .items(mapToResponses(routes))
+                                .nextCursor(nextCursor)
+                                .build();
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public void streamAllRoutes(Consumer<RouteResponse> consumer) {
+                try (Stream<Route> routes = routeRepository.streamAllOrdered()) {
+                        Iterator<Route> iterator = routes.iterator();
+                        List<Route> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+                        while (iterator.hasNext()) {
+                                chunk.add(iterator.next());
+                                if (chunk.size() == STREAM_CHUNK_SIZE || !iterator.hasNext()) {
+                                        mapToResponses(chunk).forEach(consumer);
+                                        chunk.clear();
+                                        // Detach emitted rows so the persistence context stays bounded
+                                        entityManager.clear();
+                                }
+                        }
+                }
         }
 
         @Override
@@ -75,23 +187,25 @@ public class RouteServiceImpl implements RouteService {
                                 routeRepository.existsByNumber(request.getNumber())) {
                         throw new RuntimeException("Route with this number already exists");
                 }
+                validateDestinationIds(request.getListOfDestinationIds());
 
                 // Update route
                 route.setName(request.getName());
                 route.setNumber(request.getNumber());
-                route = routeRepository.save(route);
+                // Flush so the event carries the new updatedAt
+                route = routeRepository.saveAndFlush(route);
 
-                // Delete existing destinations and create new ones
-                routeDestinationRepository.deleteByRouteId(id);
-                List<RouteDestination> routeDestinations = request.getListOfDestinationIds().stream()
-                                .map(destinationId -> RouteDestination.builder()
-                                                .routeId(id)
-                                                .destinationId(destinationId)
-                                                .build())
-                                .collect(Collectors.toList());
-                routeDestinationRepository.saveAll(routeDestinations);
+                // Apply only the difference between the stored and requested destinations
+                boolean stopsChanged = syncRouteDestinations(id, request.getListOfDestinationIds());
+                cacheInvalidator.invalidate(CacheConfig.ROUTES, id);
+                if (stopsChanged) {
+                        // Metrics only depend on the stops, a rename keeps them
+                        cacheInvalidator.invalidate(CacheConfig.ROUTE_METRICS, id);
+                        routeStopsViews.replaceAfterCommit(id, request.getListOfDestinationIds(), route.getUpdatedAt());
+                }
+                recordChange(ChangeType.UPDATED, id, mapToResponse(route, request.getListOfDestinationIds(), null));
 
-                return mapToResponse(route, "Route updated successfully");
+                return mapToResponse(route, request.getListOfDestinationIds(), "Route updated successfully");
         }
 
         @Override
@@ -103,14 +217,291 @@ public class RouteServiceImpl implements RouteService {
                 // Delete associated route destinations first
                 routeDestinationRepository.deleteByRouteId(id);
                 routeRepository.deleteById(id);
+                cacheInvalidator.invalidate(CacheConfig.ROUTES, id);
+                cacheInvalidator.invalidate(CacheConfig.ROUTE_METRICS, id);
+                recordChange(ChangeType.DELETED, id, null);
+                routeStopsViews.removeAfterCommit(id);
+        }
+
+        @Override
+        public RouteResponse embedDestinations(RouteResponse route) {
+                if (route.getListOfDestinationIds() == null) {
+                        return route;
+                }
+                List<RouteStop> stops = new ArrayList<>(route.getListOfDestinationIds().size());
+                for (UUID destinationId : route.getListOfDestinationIds()) {
+                        RouteStop.RouteStopBuilder stop = RouteStop.builder().destinationId(destinationId);
+                        destinationReplica.get(destinationId).ifPresent(destination -> stop
+                                        .name(destination.name())
+                                        .latitude(destination.latitude())
+                                        .longitude(destination.longitude()));
+                        stops.add(stop.build());
+                }
+                // Copy, the given response may be a cached instance
+                return route.toBuilder().stops(stops).build();
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        @Cacheable(cacheNames = CacheConfig.ROUTE_METRICS, key = "#id", sync = true)
+        public RouteMetricsResponse getRouteMetrics(UUID id) {
+                if (!destinationReplica.isReady()) {
+                        throw new DestinationReplicaNotReadyException();
+                }
+                if (!routeRepository.existsById(id)) {
+                        throw new RuntimeException("Route not found with id: " + id);
+                }
+                List<RouteDestination> stops = routeDestinationRepository.findByRouteIdOrderByPositionAsc(id);
+
+                // Coordinates of the located stops, packed into primitive arrays for the geometry loops
+                double[] latitudes = new double[stops.size()];
+                double[] longitudes = new double[stops.size()];
+                List<UUID> unresolved = new ArrayList<>();
+                int located = 0;
+                for (RouteDestination stop : stops) {
+                        DestinationReplica.DestinationView destination = destinationReplica.get(stop.getDestinationId())
+                                        .filter(view -> view.latitude() != null && view.longitude() != null)
+                                        .orElse(null);
+                        if (destination == null) {
+                                unresolved.add(stop.getDestinationId());
+                        } else {
+                                latitudes[located] = destination.latitude();
+                                longitudes[located] = destination.longitude();
+                                located++;
+                        }
+                }
+
+                double[] legMeters = new double[Math.max(0, located - 1)];
+                double[] cumulativeMeters = new double[located];
+                double totalMeters = RouteGeometry.legDistances(latitudes, longitudes, located, legMeters, cumulativeMeters);
+                StringBuilder polyline = new StringBuilder(located * 8);
+                RouteGeometry.encodePolyline(latitudes, longitudes, located, polyline);
+
+                RouteMetricsResponse.RouteMetricsResponseBuilder metrics = RouteMetricsResponse.builder()
+                                .routeId(id)
+                                .stopCount(stops.size())
+                                .totalMeters(totalMeters)
+                                .legMeters(legMeters)
+                                .cumulativeMeters(cumulativeMeters)
+                                .polyline(polyline.toString())
+                                .unresolvedDestinationIds(unresolved.isEmpty() ? null : unresolved);
+                if (located > 0) {
+                        double[] bounds = new double[4];
+                        RouteGeometry.bounds(latitudes, longitudes, located, bounds);
+                        metrics.minLatitude(bounds[0])
+                                        .minLongitude(bounds[1])
+                                        .maxLatitude(bounds[2])
+                                        .maxLongitude(bounds[3]);
+                }
+                return metrics.build();
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public List<UUID> getRouteIdsByDestination(UUID destinationId) {
+                // The indexed query covers the time the reverse index is still loading
+                return destinationRouteIndex.isReady()
+                                ? destinationRouteIndex.routeIdsFor(destinationId)
+                                : routeDestinationRepository.findRouteIdsByDestinationId(destinationId);
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public Map<UUID, List<UUID>> getRouteIdsByDestinations(Collection<UUID> destinationIds) {
+                if (destinationRouteIndex.isReady()) {
+                        return destinationRouteIndex.routeIdsFor(destinationIds);
+                }
+                Map<UUID, List<UUID>> routeIds = new HashMap<>();
+                for (UUID destinationId : destinationIds) {
+                        routeIds.put(destinationId, new ArrayList<>());
+                }
+                for (RouteLink link : routeDestinationRepository.findLinksByDestinationIdIn(destinationIds)) {
+                        routeIds.get(link.destinationId()).add(link.routeId());
+                }
+                return routeIds;
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public List<RouteResponse> getRoutesByDestination(UUID destinationId) {
+                List<UUID> routeIds = getRouteIdsByDestination(destinationId);
+                if (routeIds.isEmpty()) {
+                        return Collections.emptyList();
+                }
+                return mapToResponses(routeRepository.findAllById(routeIds));
+        }
+
+        @Override
+        public JourneyResponse planJourney(UUID fromDestinationId, UUID toDestinationId) {
+                JourneyResponse journey = tripPlanner.plan(fromDestinationId, toDestinationId)
+                                .orElseThrow(() -> new RuntimeException(
+                                                "No journey found from " + fromDestinationId + " to " + toDestinationId));
+
+                // Label the legs with route names and numbers, one query for the few routes involved
+                Map<UUID, Route> routes = routeRepository.findAllById(journey.getLegs().stream()
+                                                .map(JourneyLeg::getRouteId)
+                                                .distinct()
+                                                .collect(Collectors.toList()))
+                                .stream()
+                                .collect(Collectors.toMap(Route::getId, route -> route));
+                for (JourneyLeg leg : journey.getLegs()) {
+                        Route route = routes.get(leg.getRouteId());
+                        if (route != null) {
+                                leg.setRouteName(route.getName());
+                                leg.setRouteNumber(route.getNumber());
+                        }
+                }
+                return journey;
+        }
+
+        /**
+         * Reject destination ids that do not exist.
+         * The local replica answers almost every request. Ids it lacks may belong to destinations created
+         * moments ago whose change event has not arrived yet, so those are confirmed with the destination
+         * service, and only the ids it also lacks are rejected. If it does not answer the request fails with
+         * 503 and Retry-After rather than a 400 the client could not correct.
+         */
+        private void validateDestinationIds(List<UUID> destinationIds) {
+                List<UUID> missing = destinationReplica.findMissing(destinationIds);
+                if (!missing.isEmpty()) {
+                        missing = destinationLookup.findMissing(missing);
+                }
+                if (!missing.isEmpty()) {
+                        throw new RuntimeException("Unknown destination ids: " + missing);
+                }
+        }
+
+        /**
+         * Add a change event to the outbox, committed together with the change itself
+         */
+        private void recordChange(ChangeType type, UUID routeId, RouteResponse route) {
+                outboxService.record(RouteTopicRegistry.Topic.CHANGED, routeId, type.name(), RouteChangedEvent.builder()
+                                .type(type)
+                                .routeId(routeId)
+                                .route(route)
+                                .occurredAt(LocalDateTime.now())
+                                .build());
+        }
+
+        /**
+         * Reconcile the stored stops of a route with the requested list.
+         * Existing rows are reused where the destination is still present (only their
+         * position is updated when it moved), stops that are gone are removed with one
+         * bulk delete and new stops are inserted together. An unchanged list writes nothing.
+         *
+         * @return true if the stop list changed
+         */
+        private boolean syncRouteDestinations(UUID routeId, List<UUID> destinationIds) {
+                List<RouteDestination> existing = routeDestinationRepository.findByRouteIdOrderByPositionAsc(routeId);
+                if (isSameStopList(existing, destinationIds)) {
+                        return false;
+                }
+
+                // A destination may appear more than once on a route, so keep every row per destination
+                Map<UUID, Deque<RouteDestination>> reusable = new HashMap<>();
+                for (RouteDestination routeDestination : existing) {
+                        reusable.computeIfAbsent(routeDestination.getDestinationId(), key -> new ArrayDeque<>())
+                                        .addLast(routeDestination);
+                }
+
+                List<RouteDestination> toInsert = new ArrayList<>();
+                for (int position = 0; position < destinationIds.size(); position++) {
+                        UUID destinationId = destinationIds.get(position);
+                        Deque<RouteDestination> candidates = reusable.get(destinationId);
+                        RouteDestination routeDestination = candidates == null ? null : candidates.pollFirst();
+                        if (routeDestination == null) {
+                                toInsert.add(newRouteDestination(routeId, destinationId, position));
+                        } else if (!Objects.equals(routeDestination.getPosition(), position)) {
+                                // Managed entity, flushed as an UPDATE by dirty checking
+                                routeDestination.setPosition(position);
+                        }
+                }
+
+                List<UUID> toDelete = reusable.values().stream()
+                                .flatMap(Deque::stream)
+                                .map(RouteDestination::getId)
+                                .collect(Collectors.toList());
+                if (!toDelete.isEmpty()) {
+                        routeDestinationRepository.deleteByIdIn(toDelete);
+                }
+                if (!toInsert.isEmpty()) {
+                        routeDestinationRepository.saveAll(toInsert);
+                }
+                return true;
+        }
+
+        private boolean isSameStopList(List<RouteDestination> existing, List<UUID> destinationIds) {
+                if (existing.size() != destinationIds.size()) {
+                        return false;
+                }
+                for (int position = 0; position < existing.size(); position++) {
+                        RouteDestination routeDestination = existing.get(position);
+                        if (!routeDestination.getDestinationId().equals(destinationIds.get(position))
+                                        || !Objects.equals(routeDestination.getPosition(), position)) {
+                                return false;
+                        }
+                }
+                return true;
+        }
+
+        // same order as the keyset queries; PostgreSQL compares uuids as unsigned bytes
+        private boolean isAfter(Route route, KeysetCursor after) {
+                int byCreatedAt = route.getCreatedAt().compareTo(after.createdAt());
+                if (byCreatedAt != 0) {
+                        return byCreatedAt > 0;
+                }
+                UUID id = route.getId();
+                int byHigh = Long.compareUnsigned(id.getMostSignificantBits(), after.id().getMostSignificantBits());
+                return byHigh != 0
+                                ? byHigh > 0
+                                : Long.compareUnsigned(id.getLeastSignificantBits(), after.id().getLeastSignificantBits()) > 0;
+        }
+
+        private String escapeLike(String value) {
+                return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        }
+
+        private RouteDestination newRouteDestination(UUID routeId, UUID destinationId, int position) {
+                return RouteDestination.builder()
+                                .routeId(routeId)
+                                .destinationId(destinationId)
+                                .position(position)
+                                .build();
         }
 
         private RouteResponse mapToResponse(Route route, String message) {
                 // Fetch destination IDs from RouteDestination repository
-                List<UUID> destinationIds = routeDestinationRepository.findByRouteId(route.getId()).stream()
+                List<UUID> destinationIds = routeDestinationRepository.findByRouteIdOrderByPositionAsc(route.getId()).stream()
                                 .map(RouteDestination::getDestinationId)
                                 .collect(Collectors.toList());
 
+                return mapToResponse(route, destinationIds, message);
+        }
+
+        private List<RouteResponse> mapToResponses(List<Route> routes) {
+                if (routes.isEmpty()) {
+                        return Collections.emptyList();
+                }
+
+                // Load the destinations of every route in one query instead of one per route
+                List<UUID> routeIds = routes.stream()
+                                .map(Route::getId)
+                                .collect(Collectors.toList());
+                Map<UUID, List<UUID>> destinationIdsByRouteId = routeDestinationRepository.findByRouteIdInOrderByPositionAsc(routeIds).stream()
+                                .collect(Collectors.groupingBy(
+                                                RouteDestination::getRouteId,
+                                                LinkedHashMap::new,
+                                                Collectors.mapping(RouteDestination::getDestinationId, Collectors.toList())));
+
+                return routes.stream()
+                                .map(route -> mapToResponse(
+                                                route,
+                                                destinationIdsByRouteId.getOrDefault(route.getId(), Collections.emptyList()),
+                                                null))
+                                .collect(Collectors.toList());
+        }
+
+        private RouteResponse mapToResponse(Route route, List<UUID> destinationIds, String message) {
                 return RouteResponse.builder()
                                 .id(route.getId())
                                 .name(route.getName())
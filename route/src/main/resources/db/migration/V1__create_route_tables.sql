@@ -0,0 +1,16 @@
+-- Baseline schema as previously generated by Hibernate (ddl-auto: update)
+CREATE TABLE IF NOT EXISTS routes (
+    id         UUID         NOT NULL,
+    name       VARCHAR(255) NOT NULL,
+    number     VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS route_destinations (
+    id             UUID NOT NULL,
+    route_id       UUID NOT NULL,
+    destination_id UUID NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,27 @@
+-- Stop order column, may already exist on databases upgraded by ddl-auto: update
+ALTER TABLE route_destinations ADD COLUMN IF NOT EXISTS position INTEGER;
+
+-- Number the stops of routes written before the column existed, keeping any positions already set
+-- first; these rows carry no other order, so the rest follow by id
+UPDATE route_destinations rd
+SET position = s.rn - 1
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY route_id ORDER BY position NULLS LAST, id) rn
+      FROM route_destinations
+      WHERE route_id IN (SELECT route_id FROM route_destinations WHERE position IS NULL)) s
+WHERE rd.id = s.id;
+
+ALTER TABLE route_destinations ALTER COLUMN position SET NOT NULL;
+
+-- existsByNumber
+CREATE UNIQUE INDEX IF NOT EXISTS uk_routes_number ON routes (number);
+
+-- keyset pagination and streaming order
+CREATE INDEX IF NOT EXISTS idx_routes_created_at_id ON routes (created_at, id);
+
+-- findByRouteId*/deleteByRouteId and (route, destination) lookups
+CREATE INDEX IF NOT EXISTS idx_route_destinations_route_id_destination_id
+    ON route_destinations (route_id, destination_id);
+
+-- ordered stop list of a route, answered from the index alone
+CREATE INDEX IF NOT EXISTS idx_route_destinations_route_id_position
+    ON route_destinations (route_id, position) INCLUDE (destination_id);
@@ -0,0 +1,3 @@
+-- routes serving a destination, answered from the index alone
+CREATE INDEX IF NOT EXISTS idx_route_destinations_destination_id_route_id
+    ON route_destinations (destination_id, route_id);
@@ -0,0 +1,23 @@
+-- Single lease row: the relay holding it drains the outbox, renewing it before every wave of sends,
+-- so no transaction has to stay open while the broker acknowledges
+CREATE TABLE IF NOT EXISTS outbox_relay_lease (
+    id SMALLINT PRIMARY KEY,
+    owner VARCHAR(64),
+    lease_until TIMESTAMP NOT NULL
+);
+
+INSERT INTO outbox_relay_lease (id, owner, lease_until)
+VALUES (1, NULL, now())
+ON CONFLICT (id) DO NOTHING;
+
+-- Events a shared consumer group has already acted on, keyed by the producer's outbox event id,
+-- so a redelivered event is not acted on twice
+CREATE TABLE IF NOT EXISTS processed_events (
+    consumer VARCHAR(64) NOT NULL,
+    event_id BIGINT NOT NULL,
+    processed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (consumer, event_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_processed_events_processed_at
+    ON processed_events (processed_at);
@@ -0,0 +1,57 @@
+package com.rmit.route.common.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaRetryPropertiesTest {
+
+	private final KafkaRetryProperties properties = new KafkaRetryProperties();
+
+	@BeforeEach
+	void setUp() {
+		properties.setRequest(policy(3, 200L, 2.0, 1000L));
+		properties.setBroadcast(policy(4, 1000L, 2.0, 10000L));
+	}
+
+	@Test
+	void topicsWithoutOverrideUseTheDefaults() {
+		assertThat(properties.requestPolicy("route.list_req")).isSameAs(properties.getRequest());
+		assertThat(properties.broadcastPolicy("destination.changed")).isSameAs(properties.getBroadcast());
+	}
+
+	@Test
+	void overrideKeepsTheDefaultsForValuesItLeavesOut() {
+		properties.getTopics().put("route.list_req", policy(2, null, null, null));
+
+		KafkaRetryProperties.Policy policy = properties.requestPolicy("route.list_req");
+
+		assertThat(policy.getAttempts()).isEqualTo(2);
+		assertThat(policy.getInitialIntervalMs()).isEqualTo(200L);
+		assertThat(policy.getMultiplier()).isEqualTo(2.0);
+		assertThat(policy.getMaxIntervalMs()).isEqualTo(1000L);
+	}
+
+	@Test
+	void broadcastOverrideFallsBackToTheBroadcastDefaults() {
+		properties.getTopics().put("destination.changed", policy(null, 50L, null, null));
+
+		KafkaRetryProperties.Policy policy = properties.broadcastPolicy("destination.changed");
+
+		assertThat(policy.getAttempts()).isEqualTo(4);
+		assertThat(policy.getInitialIntervalMs()).isEqualTo(50L);
+		assertThat(policy.getMaxIntervalMs()).isEqualTo(10000L);
+		// attempts include the first delivery
+		assertThat(policy.toBackOff().getMaxAttempts()).isEqualTo(3);
+	}
+
+	private static KafkaRetryProperties.Policy policy(Integer attempts, Long initialIntervalMs, Double multiplier, Long maxIntervalMs) {
+		KafkaRetryProperties.Policy policy = new KafkaRetryProperties.Policy();
+		policy.setAttempts(attempts);
+		policy.setInitialIntervalMs(initialIntervalMs);
+		policy.setMultiplier(multiplier);
+		policy.setMaxIntervalMs(maxIntervalMs);
+		return policy;
+	}
+}
@@ -0,0 +1,134 @@
+package com.rmit.route.common.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Journey search with A* and with plain Dijkstra, and the cost of a full rebuild against splicing in
+ * one changed route, on a grid city.
+ * Stops sit on a square grid about 200 m apart. Routes of 30 stops run along every other row and
+ * column and overlap their neighbours by 5 stops, so most journeys need a few changes.
+ *
+ * Run from the route module with:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.rmit.route.common.graph.TransitGraphBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class TransitGraphBenchmark {
+
+	private static final double CENTER_LATITUDE = -37.8136;
+	private static final double CENTER_LONGITUDE = 144.9631;
+	private static final double SPACING_DEGREES = 0.002;
+	private static final int ROUTE_LENGTH = 30;
+	private static final int ROUTE_OVERLAP = 5;
+	private static final int QUERIES = 256;
+
+	@Param({ "10000", "40000" })
+	public int stops;
+
+	private int width;
+	private double[] latitudes;
+	private double[] longitudes;
+	private int[][] routes;
+	private TransitGraph graph;
+	private int[][] queries;
+	private int next;
+	private int nextRoute;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		width = (int) Math.sqrt(stops);
+		int stopCount = width * width;
+		latitudes = new double[stopCount];
+		longitudes = new double[stopCount];
+		for (int stop = 0; stop < stopCount; stop++) {
+			latitudes[stop] = CENTER_LATITUDE + (stop / width) * SPACING_DEGREES;
+			longitudes[stop] = CENTER_LONGITUDE + (stop % width) * SPACING_DEGREES;
+		}
+		List<int[]> lines = new ArrayList<>();
+		for (int line = 0; line < width; line += 2) {
+			for (int start = 0; start < width - 1; start += ROUTE_LENGTH - ROUTE_OVERLAP) {
+				int length = Math.min(ROUTE_LENGTH, width - start);
+				int[] row = new int[length];
+				int[] column = new int[length];
+				for (int i = 0; i < length; i++) {
+					row[i] = line * width + start + i;
+					column[i] = (start + i) * width + line;
+				}
+				lines.add(row);
+				lines.add(column);
+			}
+		}
+		routes = lines.toArray(new int[0][]);
+		graph = TransitGraph.build(stopCount, latitudes, longitudes, routes, 500);
+
+		// stops where a row and a column route cross, so every query has a journey
+		Random random = new Random(42);
+		queries = new int[QUERIES][];
+		for (int i = 0; i < QUERIES; i++) {
+			queries[i] = new int[] { crossing(random), crossing(random) };
+		}
+	}
+
+	@Benchmark
+	public List<TransitGraph.Leg> aStar() {
+		int[] query = nextQuery();
+		return graph.search(query[0], query[1], true);
+	}
+
+	@Benchmark
+	public List<TransitGraph.Leg> dijkstra() {
+		int[] query = nextQuery();
+		return graph.search(query[0], query[1], false);
+	}
+
+	@Benchmark
+	public TransitGraph rebuild() {
+		return TransitGraph.build(width * width, latitudes, longitudes, routes, 500);
+	}
+
+	@Benchmark
+	public TransitGraph spliceOneRoute() {
+		nextRoute = (nextRoute + 1) % routes.length;
+		return graph.withRoutes(width * width, latitudes, longitudes,
+				new int[] { nextRoute }, new int[][] { routes[nextRoute] });
+	}
+
+	private int crossing(Random random) {
+		int half = (width + 1) / 2;
+		return random.nextInt(half) * 2 * width + random.nextInt(half) * 2;
+	}
+
+	private int[] nextQuery() {
+		next = (next + 1) & (QUERIES - 1);
+		return queries[next];
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(TransitGraphBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
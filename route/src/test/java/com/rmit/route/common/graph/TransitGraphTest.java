@@ -0,0 +1,126 @@
+package com.rmit.route.common.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TransitGraphTest {
+
+	private static final double TRANSFER_PENALTY = 500;
+
+	@Test
+	void changesRouteWhereTwoRoutesShareAStop() {
+		// a 5 x 5 grid of stops about 1.1 km apart, one route along row 0 and one along column 4
+		double[] latitudes = new double[25];
+		double[] longitudes = new double[25];
+		for (int stop = 0; stop < 25; stop++) {
+			latitudes[stop] = (stop / 5) * 0.01;
+			longitudes[stop] = (stop % 5) * 0.01;
+		}
+		int[][] routes = { { 0, 1, 2, 3, 4 }, { 24, 19, 14, 9, 4 } };
+		TransitGraph graph = TransitGraph.build(25, latitudes, longitudes, routes, TRANSFER_PENALTY);
+
+		List<TransitGraph.Leg> legs = graph.search(1, 14, true);
+
+		assertThat(legs).hasSize(2);
+		assertThat(legs.get(0).route()).isZero();
+		assertThat(legs.get(0).stops()).containsExactly(1, 2, 3, 4);
+		assertThat(legs.get(1).route()).isEqualTo(1);
+		// routes are ridden in either direction
+		assertThat(legs.get(1).stops()).containsExactly(4, 9, 14);
+		assertThat(graph.search(1, 20, true)).isNull();
+		assertThat(graph.search(3, 3, true)).isEmpty();
+	}
+
+	@Test
+	void aStarFindsJourneysAsCheapAsDijkstra() {
+		Random random = new Random(9);
+		int stops = 2000;
+		double[] latitudes = new double[stops];
+		double[] longitudes = new double[stops];
+		for (int stop = 0; stop < stops; stop++) {
+			latitudes[stop] = -37.81 + random.nextGaussian() * 0.1;
+			longitudes[stop] = 144.96 + random.nextGaussian() * 0.1;
+		}
+		int[][] routes = new int[150][];
+		for (int route = 0; route < routes.length; route++) {
+			routes[route] = random.ints(2 + random.nextInt(40), 0, stops).toArray();
+		}
+		TransitGraph graph = TransitGraph.build(stops, latitudes, longitudes, routes, TRANSFER_PENALTY);
+
+		for (int query = 0; query < 200; query++) {
+			int origin = random.nextInt(stops);
+			int target = random.nextInt(stops);
+			List<TransitGraph.Leg> aStar = graph.search(origin, target, true);
+			List<TransitGraph.Leg> dijkstra = graph.search(origin, target, false);
+
+			if (dijkstra == null) {
+				assertThat(aStar).isNull();
+				continue;
+			}
+			assertThat(cost(aStar)).isCloseTo(cost(dijkstra), within(1e-6));
+			if (!aStar.isEmpty()) {
+				assertThat(aStar.get(0).stops()[0]).isEqualTo(origin);
+				int[] last = aStar.get(aStar.size() - 1).stops();
+				assertThat(last[last.length - 1]).isEqualTo(target);
+			}
+		}
+	}
+
+	@Test
+	void splicedRoutesSearchLikeAFreshBuild() {
+		Random random = new Random(17);
+		int stops = 1000;
+		double[] latitudes = new double[stops + 100];
+		double[] longitudes = new double[stops + 100];
+		for (int stop = 0; stop < latitudes.length; stop++) {
+			latitudes[stop] = -37.81 + random.nextGaussian() * 0.1;
+			longitudes[stop] = 144.96 + random.nextGaussian() * 0.1;
+		}
+		int[][] routes = new int[80][];
+		for (int route = 0; route < routes.length; route++) {
+			routes[route] = random.ints(2 + random.nextInt(30), 0, stops).toArray();
+		}
+		TransitGraph spliced = TransitGraph.build(stops, latitudes, longitudes, routes, TRANSFER_PENALTY);
+
+		// replace, remove and add routes over a few rounds, the last rounds also add stops
+		int[][] current = routes.clone();
+		int stopCount = stops;
+		for (int round = 0; round < 5; round++) {
+			stopCount += round >= 3 ? 50 : 0;
+			int[] changed = random.ints(12, 0, current.length + 4).distinct().toArray();
+			int[][] paths = new int[changed.length][];
+			current = Arrays.copyOf(current, Math.max(current.length, Arrays.stream(changed).max().getAsInt() + 1));
+			for (int i = 0; i < changed.length; i++) {
+				paths[i] = random.nextInt(4) == 0 ? null : random.ints(2 + random.nextInt(30), 0, stopCount).toArray();
+				current[changed[i]] = paths[i];
+			}
+			spliced = spliced.withRoutes(stopCount, latitudes, longitudes, changed, paths);
+		}
+		TransitGraph fresh = TransitGraph.build(stopCount, latitudes, longitudes, current, TRANSFER_PENALTY);
+
+		assertThat(spliced.edgeCount()).isEqualTo(fresh.edgeCount());
+		for (int query = 0; query < 200; query++) {
+			int origin = random.nextInt(stopCount);
+			int target = random.nextInt(stopCount);
+			List<TransitGraph.Leg> expected = fresh.search(origin, target, true);
+			List<TransitGraph.Leg> actual = spliced.search(origin, target, true);
+
+			if (expected == null) {
+				assertThat(actual).isNull();
+			} else {
+				assertThat(cost(actual)).isCloseTo(cost(expected), within(1e-6));
+			}
+		}
+	}
+
+	private static double cost(List<TransitGraph.Leg> legs) {
+		double meters = legs.stream().mapToDouble(TransitGraph.Leg::meters).sum();
+		return meters + TRANSFER_PENALTY * Math.max(0, legs.size() - 1);
+	}
+}
@@ -0,0 +1,154 @@
+package com.rmit.route.common.outbox;
+
+import com.rmit.route.route.kafka.KafkaTemplateRouter;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+	private static final String TOPIC = "route.changed";
+
+	@Mock
+	private OutboxEventRepository outboxEventRepository;
+
+	@Mock
+	private KafkaTemplateRouter kafkaTemplateRouter;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Mock
+	private KafkaTemplate<String, Object> kafkaTemplate;
+
+	private final UUID first = UUID.randomUUID();
+	private final UUID second = UUID.randomUUID();
+	private final List<Long> sentIds = new ArrayList<>();
+	private final List<Long> failingIds = new ArrayList<>();
+	private OutboxRelay relay;
+
+	@BeforeEach
+	void setUp() {
+		relay = new OutboxRelay(outboxEventRepository, kafkaTemplateRouter, transactionTemplate);
+		ReflectionTestUtils.setField(relay, "batchSize", 10);
+		ReflectionTestUtils.setField(relay, "sendTimeout", Duration.ofSeconds(1));
+		ReflectionTestUtils.setField(relay, "lease", Duration.ofSeconds(30));
+		when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+				invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+		lenient().when(outboxEventRepository.tryAcquireRelayLease(anyString(), anyDouble())).thenReturn(1);
+		lenient().when(kafkaTemplateRouter.forTopic(TOPIC)).thenReturn(kafkaTemplate);
+		lenient().when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+			ProducerRecord<String, Object> record = invocation.getArgument(0);
+			long id = Long.parseLong(new String(record.headers().lastHeader(OutboxRelay.EVENT_ID_HEADER).value(),
+					StandardCharsets.UTF_8));
+			sentIds.add(id);
+			return failingIds.contains(id)
+					? CompletableFuture.failedFuture(new IllegalStateException("broker unavailable"))
+					: CompletableFuture.completedFuture(null);
+		});
+	}
+
+	@Test
+	void eventsOfOneAggregateAreSentInOrderAfterTheirPredecessor() {
+		when(outboxEventRepository.findUnpublished(any()))
+				.thenReturn(List.of(event(1, first), event(2, second), event(3, first), event(4, first)));
+
+		relay.relay();
+
+		// one event per aggregate at a time: 1 and 2 together, then 3, then 4, each wave marked on its own
+		assertThat(sentIds).containsExactly(1L, 2L, 3L, 4L);
+		InOrder inOrder = inOrder(outboxEventRepository);
+		inOrder.verify(outboxEventRepository).markPublished(eq(List.of(1L, 2L)), any());
+		inOrder.verify(outboxEventRepository).markPublished(eq(List.of(3L)), any());
+		inOrder.verify(outboxEventRepository).markPublished(eq(List.of(4L)), any());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void failedEventHoldsBackTheRestOfItsAggregateOnly() {
+		failingIds.add(1L);
+		when(outboxEventRepository.findUnpublished(any()))
+				.thenReturn(List.of(event(1, first), event(2, second), event(3, first), event(4, second)));
+
+		relay.relay();
+
+		assertThat(sentIds).containsExactly(1L, 2L, 4L);
+		ArgumentCaptor<List<Long>> published = ArgumentCaptor.forClass(List.class);
+		verify(outboxEventRepository, times(2)).markPublished(published.capture(), any());
+		assertThat(published.getAllValues().stream().flatMap(List::stream)).containsExactly(2L, 4L);
+	}
+
+	@Test
+	void nothingIsMarkedWhenEverySendFails() {
+		failingIds.add(1L);
+		when(outboxEventRepository.findUnpublished(any())).thenReturn(List.of(event(1, first), event(2, first)));
+
+		relay.relay();
+
+		assertThat(sentIds).containsExactly(1L);
+		verify(outboxEventRepository, never()).markPublished(anyCollection(), any());
+	}
+
+	@Test
+	void nothingIsSentWithoutTheLease() {
+		when(outboxEventRepository.tryAcquireRelayLease(anyString(), anyDouble())).thenReturn(0);
+
+		relay.relay();
+
+		verify(outboxEventRepository, never()).findUnpublished(any());
+		assertThat(sentIds).isEmpty();
+	}
+
+	@Test
+	void stopsSendingOnceTheLeaseIsLost() {
+		when(outboxEventRepository.tryAcquireRelayLease(anyString(), anyDouble())).thenReturn(1, 0);
+		when(outboxEventRepository.findUnpublished(any())).thenReturn(List.of(event(1, first), event(2, first)));
+
+		relay.relay();
+
+		// the first wave went out and was marked, the second is left to the new lease holder
+		assertThat(sentIds).containsExactly(1L);
+		verify(outboxEventRepository).markPublished(eq(List.of(1L)), any());
+	}
+
+	private static OutboxEvent event(long id, UUID aggregateId) {
+		return OutboxEvent.builder()
+				.id(id)
+				.aggregateId(aggregateId)
+				.eventType("UPDATED")
+				.topic(TOPIC)
+				.contentType("application/json")
+				.payload(new byte[0])
+				.build();
+	}
+}
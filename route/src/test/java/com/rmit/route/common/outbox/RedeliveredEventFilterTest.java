@@ -0,0 +1,58 @@
+package com.rmit.route.common.outbox;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedeliveredEventFilterTest {
+
+	private final RedeliveredEventFilter filter = new RedeliveredEventFilter();
+	private long offset;
+
+	@Test
+	void appliedEventIsARedeliveryAfterwards() {
+		ConsumerRecord<String, byte[]> record = record("a", 5L);
+
+		assertThat(filter.isRedelivery(record)).isFalse();
+		filter.applied(record);
+
+		assertThat(filter.isRedelivery(record("a", 5L))).isTrue();
+		assertThat(filter.isRedelivery(record("a", 4L))).isTrue();
+		assertThat(filter.isRedelivery(record("a", 6L))).isFalse();
+	}
+
+	@Test
+	void failedEventIsNotSkippedOnRetry() {
+		ConsumerRecord<String, byte[]> record = record("a", 5L);
+
+		assertThat(filter.isRedelivery(record)).isFalse();
+		// not applied, e.g. the listener threw and the error handler retries it
+		assertThat(filter.isRedelivery(record)).isFalse();
+	}
+
+	@Test
+	void keysAreTrackedSeparately() {
+		filter.applied(record("a", 9L));
+
+		assertThat(filter.isRedelivery(record("b", 3L))).isFalse();
+	}
+
+	@Test
+	void recordsWithoutEventIdAreAlwaysApplied() {
+		ConsumerRecord<String, byte[]> record = record("a", null);
+		filter.applied(record);
+
+		assertThat(filter.isRedelivery(record)).isFalse();
+	}
+
+	private ConsumerRecord<String, byte[]> record(String key, Long eventId) {
+		ConsumerRecord<String, byte[]> record = new ConsumerRecord<>("destination.changed", 0, offset++, key, new byte[0]);
+		if (eventId != null) {
+			record.headers().add(OutboxRelay.EVENT_ID_HEADER, eventId.toString().getBytes(StandardCharsets.UTF_8));
+		}
+		return record;
+	}
+}
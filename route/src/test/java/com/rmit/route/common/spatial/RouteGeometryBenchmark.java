@@ -0,0 +1,101 @@
+package com.rmit.route.common.spatial;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Route metrics for routes of 10 to 10,000 stops, compared with calling GeoDistance once per leg.
+ * Buffers are reused between invocations like a caller sizing them once per route would,
+ * so run with -prof gc to confirm the geometry loops allocate nothing.
+ *
+ * Run from the route module with:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.rmit.route.common.spatial.RouteGeometryBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteGeometryBenchmark {
+
+	@Param({ "10", "100", "1000", "10000" })
+	public int stops;
+
+	private double[] latitudes;
+	private double[] longitudes;
+	private double[] legMeters;
+	private double[] cumulativeMeters;
+	private double[] bounds;
+	private StringBuilder polyline;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(42);
+		latitudes = new double[stops];
+		longitudes = new double[stops];
+		// a walk through the city with stops a few hundred meters apart
+		double latitude = -37.8136;
+		double longitude = 144.9631;
+		for (int i = 0; i < stops; i++) {
+			latitude += random.nextGaussian() * 0.003;
+			longitude += random.nextGaussian() * 0.003;
+			latitudes[i] = latitude;
+			longitudes[i] = longitude;
+		}
+		legMeters = new double[stops - 1];
+		cumulativeMeters = new double[stops];
+		bounds = new double[4];
+		polyline = new StringBuilder(stops * 8);
+	}
+
+	@Benchmark
+	public double legDistances() {
+		return RouteGeometry.legDistances(latitudes, longitudes, stops, legMeters, cumulativeMeters);
+	}
+
+	@Benchmark
+	public double legDistancesPerLeg() {
+		double total = 0;
+		cumulativeMeters[0] = 0;
+		for (int i = 1; i < stops; i++) {
+			legMeters[i - 1] = GeoDistance.meters(latitudes[i - 1], longitudes[i - 1], latitudes[i], longitudes[i]);
+			total += legMeters[i - 1];
+			cumulativeMeters[i] = total;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public void allMetrics(Blackhole blackhole) {
+		blackhole.consume(RouteGeometry.legDistances(latitudes, longitudes, stops, legMeters, cumulativeMeters));
+		RouteGeometry.bounds(latitudes, longitudes, stops, bounds);
+		polyline.setLength(0);
+		RouteGeometry.encodePolyline(latitudes, longitudes, stops, polyline);
+		blackhole.consume(bounds);
+		blackhole.consume(polyline);
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(RouteGeometryBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,67 @@
+package com.rmit.route.common.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RouteGeometryTest {
+
+	@Test
+	void legDistancesMatchHaversine() {
+		Random random = new Random(3);
+		int count = 500;
+		double[] latitudes = new double[count];
+		double[] longitudes = new double[count];
+		for (int i = 0; i < count; i++) {
+			latitudes[i] = -37.81 + random.nextGaussian() * 0.2;
+			longitudes[i] = 144.96 + random.nextGaussian() * 0.2;
+		}
+		double[] legMeters = new double[count - 1];
+		double[] cumulativeMeters = new double[count];
+
+		double total = RouteGeometry.legDistances(latitudes, longitudes, count, legMeters, cumulativeMeters);
+
+		double expectedTotal = 0;
+		for (int i = 0; i < count - 1; i++) {
+			double leg = GeoDistance.meters(latitudes[i], longitudes[i], latitudes[i + 1], longitudes[i + 1]);
+			assertThat(legMeters[i]).isCloseTo(leg, within(1e-6));
+			expectedTotal += leg;
+			assertThat(cumulativeMeters[i + 1]).isCloseTo(expectedTotal, within(1e-6));
+		}
+		assertThat(cumulativeMeters[0]).isZero();
+		assertThat(total).isCloseTo(expectedTotal, within(1e-6));
+	}
+
+	@Test
+	void boundsEncloseAllStops() {
+		double[] bounds = new double[4];
+
+		RouteGeometry.bounds(new double[] { -37.8, -37.9, -37.7 }, new double[] { 145.0, 144.9, 144.95 }, 3, bounds);
+
+		assertThat(bounds).containsExactly(-37.9, 144.9, -37.7, 145.0);
+	}
+
+	@Test
+	void polylineMatchesReferenceEncoding() {
+		// the example of the encoded polyline format documentation
+		StringBuilder polyline = new StringBuilder();
+
+		RouteGeometry.encodePolyline(new double[] { 38.5, 40.7, 43.252 }, new double[] { -120.2, -120.95, -126.453 }, 3,
+				polyline);
+
+		assertThat(polyline.toString()).isEqualTo("_p~iF~ps|U_ulLnnqC_mqNvxq`@");
+	}
+
+	@Test
+	void emptyAndSingleStopRoutesHaveNoLength() {
+		double[] cumulativeMeters = new double[1];
+
+		assertThat(RouteGeometry.legDistances(new double[0], new double[0], 0, new double[0], new double[0])).isZero();
+		assertThat(RouteGeometry.legDistances(new double[] { 1 }, new double[] { 2 }, 1, new double[0], cumulativeMeters))
+				.isZero();
+		assertThat(cumulativeMeters[0]).isZero();
+	}
+}
@@ -0,0 +1,77 @@
+package com.rmit.route.route.controller;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop load generator for comparing platform and virtual thread request handling.
+ * Each level keeps the given number of requests in flight against a running route service
+ * and prints completed requests/sec, p99 latency and errors. Run it once with
+ * VIRTUAL_THREADS_ENABLED=false and once with true: with platform threads, throughput stops
+ * growing and p99 climbs once the levels exceed Tomcat's 200 worker threads.
+ *
+ * Run from the route module with:
+ * mvn test-compile
+ * java -cp target/test-classes com.rmit.route.route.controller.InFlightLoadBenchmark [url] [seconds per level]
+ */
+public class InFlightLoadBenchmark {
+
+	private static final int[] IN_FLIGHT_LEVELS = { 50, 100, 200, 400, 800, 1600 };
+
+	public static void main(String[] args) throws Exception {
+		// a blocking JDBC endpoint, so each in-flight request holds a request thread
+		URI target = URI.create(args.length > 0 ? args[0] : "http://localhost:8082/routes/page?size=50");
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+		HttpClient client = HttpClient.newBuilder()
+				.connectTimeout(Duration.ofSeconds(5))
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.build();
+
+		System.out.printf("%-10s %12s %10s %8s%n", "in-flight", "req/sec", "p99 ms", "errors");
+		for (int inFlight : IN_FLIGHT_LEVELS) {
+			runLevel(client, target, inFlight, seconds);
+		}
+	}
+
+	private static void runLevel(HttpClient client, URI target, int inFlight, int seconds) {
+		List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+		AtomicInteger errors = new AtomicInteger();
+		long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+		HttpRequest request = HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(30)).GET().build();
+
+		try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < inFlight; i++) {
+				workers.submit(() -> {
+					while (System.nanoTime() < deadline) {
+						long start = System.nanoTime();
+						try {
+							HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+							if (response.statusCode() >= 400) {
+								errors.incrementAndGet();
+							}
+						} catch (Exception e) {
+							errors.incrementAndGet();
+						}
+						latencies.add(System.nanoTime() - start);
+					}
+					return null;
+				});
+			}
+		}
+
+		List<Long> sorted = new ArrayList<>(latencies);
+		Collections.sort(sorted);
+		double p99Ms = sorted.isEmpty() ? 0 : sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1) / 1e6;
+		System.out.printf("%-10d %12.0f %10.1f %8d%n", inFlight, sorted.size() / (double) seconds, p99Ms, errors.get());
+	}
+}
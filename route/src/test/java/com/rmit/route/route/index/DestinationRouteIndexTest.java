@@ -0,0 +1,158 @@
+package com.rmit.route.route.index;
+
+import com.rmit.route.common.view.RouteLink;
+import com.rmit.route.common.view.RouteStopsViews;
+import com.rmit.route.route.dto.RouteResponse;
+import com.rmit.route.route.external.dto.ChangeType;
+import com.rmit.route.route.external.dto.RouteChangedEvent;
+import com.rmit.route.route.repo.RouteDestinationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DestinationRouteIndexTest {
+
+	private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+	private final UUID routeA = UUID.randomUUID();
+	private final UUID routeB = UUID.randomUUID();
+	private final UUID stop1 = UUID.randomUUID();
+	private final UUID stop2 = UUID.randomUUID();
+	private final UUID stop3 = UUID.randomUUID();
+
+	private final RouteDestinationRepository repository = mock(RouteDestinationRepository.class);
+	private final DestinationRouteIndex index = new DestinationRouteIndex(new SimpleMeterRegistry());
+	private final RouteStopsViews views = new RouteStopsViews(repository, List.of(index));
+
+	@BeforeEach
+	void setUp() {
+		when(repository.streamAllLinksInStopOrder()).thenReturn(Stream.of(
+				new RouteLink(routeA, stop1, T0),
+				new RouteLink(routeA, stop2, T0),
+				new RouteLink(routeB, stop2, T0)));
+	}
+
+	@Test
+	void loadsRoutesOfEveryDestination() {
+		views.load();
+
+		assertThat(index.isReady()).isTrue();
+		assertThat(index.routeIdsFor(stop1)).containsExactly(routeA);
+		assertThat(index.routeIdsFor(stop2)).containsExactlyInAnyOrder(routeA, routeB);
+		assertThat(index.routeIdsFor(stop3)).isEmpty();
+	}
+
+	@Test
+	void looksUpSeveralDestinationsAtOnce() {
+		views.load();
+
+		Map<UUID, List<UUID>> routeIds = index.routeIdsFor(List.of(stop1, stop2, stop3));
+
+		assertThat(routeIds).containsOnlyKeys(stop1, stop2, stop3);
+		assertThat(routeIds.get(stop1)).containsExactly(routeA);
+		assertThat(routeIds.get(stop2)).containsExactlyInAnyOrder(routeA, routeB);
+		assertThat(routeIds.get(stop3)).isEmpty();
+	}
+
+	@Test
+	void updatesReplaceTheStopsOfARoute() {
+		views.load();
+		views.apply(changed(routeA, T0.plusMinutes(1), stop2, stop3, stop3));
+
+		assertThat(index.routeIdsFor(stop1)).isEmpty();
+		assertThat(index.routeIdsFor(stop2)).containsExactlyInAnyOrder(routeA, routeB);
+		assertThat(index.routeIdsFor(stop3)).containsExactly(routeA);
+	}
+
+	@Test
+	void olderEventsDoNotUndoNewerChanges() {
+		views.load();
+		views.apply(changed(routeA, T0.plusMinutes(2), stop3));
+		views.apply(changed(routeA, T0.plusMinutes(1), stop1));
+
+		assertThat(index.routeIdsFor(stop1)).isEmpty();
+		assertThat(index.routeIdsFor(stop3)).containsExactly(routeA);
+	}
+
+	@Test
+	void deletedRoutesAreRemovedFromEveryDestination() {
+		views.load();
+		views.apply(deleted(routeA));
+
+		assertThat(index.routeIdsFor(stop1)).isEmpty();
+		assertThat(index.routeIdsFor(stop2)).containsExactly(routeB);
+	}
+
+	@Test
+	void lateChangesOfDeletedRoutesDoNotBringThemBack() {
+		views.load();
+		views.apply(deleted(routeA, T0.plusMinutes(5)));
+
+		// e.g. the local afterCommit update arriving after the deletion event of another replica
+		views.apply(changed(routeA, T0.plusMinutes(1), stop1, stop3));
+		views.apply(changed(routeA, T0.plusMinutes(5), stop1, stop3));
+
+		assertThat(index.routeIdsFor(stop1)).isEmpty();
+		assertThat(index.routeIdsFor(stop3)).isEmpty();
+		assertThat(index.routeIdsFor(stop2)).containsExactly(routeB);
+	}
+
+	@Test
+	void deletedRoutesAcceptNewerChanges() {
+		views.load();
+		views.apply(deleted(routeA, T0.plusMinutes(5)));
+		views.apply(changed(routeA, T0.plusMinutes(6), stop3));
+
+		assertThat(index.routeIdsFor(stop3)).containsExactly(routeA);
+	}
+
+	@Test
+	void routesDeletedWhileLoadingStayDeleted() {
+		// the deletion arrives after the first stop of route A was read but before its group is handed over
+		when(repository.streamAllLinksInStopOrder()).thenReturn(Stream.of(
+				new RouteLink(routeA, stop1, T0),
+				new RouteLink(routeA, stop2, T0),
+				new RouteLink(routeB, stop2, T0))
+				.peek(link -> {
+					if (link.destinationId().equals(stop2) && link.routeId().equals(routeA)) {
+						views.apply(deleted(routeA));
+					}
+				}));
+
+		views.load();
+
+		assertThat(index.isReady()).isTrue();
+		assertThat(index.routeIdsFor(stop1)).isEmpty();
+		assertThat(index.routeIdsFor(stop2)).containsExactly(routeB);
+	}
+
+	private RouteChangedEvent deleted(UUID routeId) {
+		return RouteChangedEvent.builder().type(ChangeType.DELETED).routeId(routeId).build();
+	}
+
+	private RouteChangedEvent deleted(UUID routeId, LocalDateTime occurredAt) {
+		return RouteChangedEvent.builder().type(ChangeType.DELETED).routeId(routeId).occurredAt(occurredAt).build();
+	}
+
+	private RouteChangedEvent changed(UUID routeId, LocalDateTime updatedAt, UUID... destinationIds) {
+		return RouteChangedEvent.builder()
+				.type(ChangeType.UPDATED)
+				.routeId(routeId)
+				.route(RouteResponse.builder()
+						.id(routeId)
+						.listOfDestinationIds(List.of(destinationIds))
+						.updatedAt(updatedAt)
+						.build())
+				.build();
+	}
+}
@@ -0,0 +1,178 @@
+package com.rmit.route.route.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rmit.route.common.outbox.OutboxService;
+import com.rmit.route.common.outbox.ProcessedEvents;
+import com.rmit.route.route.external.dto.ChangeType;
+import com.rmit.route.route.external.dto.DestinationChangedEvent;
+import com.rmit.route.route.external.dto.DestinationRemovedEvent;
+import com.rmit.route.route.external.dto.RouteTopicRegistry;
+import com.rmit.route.route.service.RouteService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DestinationRemovalFanoutTest {
+
+	@Mock
+	private RouteService routeService;
+
+	@Mock
+	private OutboxService outboxService;
+
+	@Mock
+	private ProcessedEvents processedEvents;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Mock
+	private Acknowledgment ack;
+
+	private final PayloadCodecs payloadCodecs = new PayloadCodecs(new ObjectMapper().findAndRegisterModules(), "json");
+	private DestinationRemovalFanout fanout;
+	private long offset;
+
+	@BeforeEach
+	void setUp() {
+		fanout = new DestinationRemovalFanout(routeService, outboxService, processedEvents,
+				new TransactionTemplate(transactionManager), payloadCodecs);
+	}
+
+	@Test
+	void pollIsFannedOutInOneTransactionWithOneRouteLookup() throws Exception {
+		inTransaction();
+		UUID first = UUID.randomUUID();
+		UUID second = UUID.randomUUID();
+		UUID routeA = UUID.randomUUID();
+		UUID routeB = UUID.randomUUID();
+		UUID routeC = UUID.randomUUID();
+		List<ConsumerRecord<String, byte[]>> records = List.of(
+				record(ChangeType.DELETED, first),
+				record(ChangeType.UPDATED, UUID.randomUUID()),
+				record(ChangeType.DELETED, second));
+		when(processedEvents.markProcessed(eq(DestinationRemovalFanout.CONSUMER), any())).thenReturn(true);
+		when(routeService.getRouteIdsByDestinations(anyCollection()))
+				.thenReturn(Map.of(first, List.of(routeA, routeB), second, List.of(routeC)));
+
+		fanout.handleDestinationChanges(records, ack);
+
+		verify(transactionManager, times(1)).getTransaction(any());
+		verify(transactionManager, times(1)).commit(any());
+		ArgumentCaptor<Collection<UUID>> lookedUp = ArgumentCaptor.captor();
+		verify(routeService, times(1)).getRouteIdsByDestinations(lookedUp.capture());
+		assertThat(lookedUp.getValue()).containsExactly(first, second);
+		verify(routeService, never()).getRouteIdsByDestination(any());
+		ArgumentCaptor<Object> events = ArgumentCaptor.captor();
+		verify(outboxService, times(3)).record(eq(RouteTopicRegistry.Topic.DESTINATION_REMOVED), any(), anyString(), events.capture());
+		assertThat(events.getAllValues()).map(DestinationRemovedEvent.class::cast)
+				.extracting(DestinationRemovedEvent::getRouteId, DestinationRemovedEvent::getDestinationId)
+				.containsExactly(
+						tuple(routeA, first),
+						tuple(routeB, first),
+						tuple(routeC, second));
+		verify(ack).acknowledge();
+	}
+
+	@Test
+	void redeliveredDeletionsAreDropped() throws Exception {
+		inTransaction();
+		UUID redelivered = UUID.randomUUID();
+		UUID fresh = UUID.randomUUID();
+		UUID routeId = UUID.randomUUID();
+		ConsumerRecord<String, byte[]> redeliveredRecord = record(ChangeType.DELETED, redelivered);
+		ConsumerRecord<String, byte[]> freshRecord = record(ChangeType.DELETED, fresh);
+		when(processedEvents.markProcessed(eq(DestinationRemovalFanout.CONSUMER), same(redeliveredRecord))).thenReturn(false);
+		when(processedEvents.markProcessed(eq(DestinationRemovalFanout.CONSUMER), same(freshRecord))).thenReturn(true);
+		when(routeService.getRouteIdsByDestinations(anyCollection())).thenReturn(Map.of(fresh, List.of(routeId)));
+
+		fanout.handleDestinationChanges(List.of(redeliveredRecord, freshRecord), ack);
+
+		ArgumentCaptor<Collection<UUID>> lookedUp = ArgumentCaptor.captor();
+		verify(routeService).getRouteIdsByDestinations(lookedUp.capture());
+		assertThat(lookedUp.getValue()).containsExactly(fresh);
+		verify(outboxService, times(1)).record(eq(RouteTopicRegistry.Topic.DESTINATION_REMOVED), eq(routeId), anyString(), any());
+		verify(ack).acknowledge();
+	}
+
+	@Test
+	void fullyRedeliveredPollLooksNothingUp() throws Exception {
+		inTransaction();
+		when(processedEvents.markProcessed(eq(DestinationRemovalFanout.CONSUMER), any())).thenReturn(false);
+
+		fanout.handleDestinationChanges(List.of(record(ChangeType.DELETED, UUID.randomUUID())), ack);
+
+		verifyNoInteractions(routeService, outboxService);
+		verify(ack).acknowledge();
+	}
+
+	@Test
+	void pollWithoutDeletionsOpensNoTransaction() throws Exception {
+		fanout.handleDestinationChanges(List.of(
+				record(ChangeType.CREATED, UUID.randomUUID()),
+				record(ChangeType.UPDATED, UUID.randomUUID())), ack);
+
+		verifyNoInteractions(transactionManager, processedEvents, routeService, outboxService);
+		verify(ack).acknowledge();
+	}
+
+	@Test
+	void failedPollIsRetriedFromItsFirstDeletion() throws Exception {
+		inTransaction();
+		ConsumerRecord<String, byte[]> update = record(ChangeType.UPDATED, UUID.randomUUID());
+		ConsumerRecord<String, byte[]> deletion = record(ChangeType.DELETED, UUID.randomUUID());
+		when(processedEvents.markProcessed(eq(DestinationRemovalFanout.CONSUMER), any())).thenReturn(true);
+		when(routeService.getRouteIdsByDestinations(anyCollection())).thenThrow(new IllegalStateException("db down"));
+
+		assertThatThrownBy(() -> fanout.handleDestinationChanges(List.of(update, deletion), ack))
+				.isInstanceOfSatisfying(BatchListenerFailedException.class,
+						e -> assertThat(e.getRecord()).isSameAs(deletion));
+
+		verify(transactionManager).rollback(any());
+		verify(ack, never()).acknowledge();
+	}
+
+	private void inTransaction() {
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+	}
+
+	private ConsumerRecord<String, byte[]> record(ChangeType type, UUID destinationId) throws Exception {
+		DestinationChangedEvent event = DestinationChangedEvent.builder()
+				.type(type)
+				.destinationId(destinationId)
+				.occurredAt(LocalDateTime.now())
+				.build();
+		return new ConsumerRecord<>("destination.changed", 0, offset++, destinationId.toString(),
+				payloadCodecs.defaultCodec().encode(event));
+	}
+}
@@ -0,0 +1,118 @@
+package com.rmit.route.route.kafka;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.rmit.route.route.dto.RouteResponse;
+import com.rmit.route.route.external.dto.TestKafkaRequest;
+import com.rmit.route.route.external.service.PayloadCodec;
+
+/**
+ * Compares the Kafka payload codecs on message size and ser/deser cost.
+ * The encoded size of each message is reported as the payloadBytes counter.
+ *
+ * Run from the route module with:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.rmit.route.route.kafka.PayloadCodecBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadCodecBenchmark {
+
+	@Param({ "json", "smile" })
+	public String codecName;
+
+	@Param({ "TestKafkaRequest", "RouteResponse" })
+	public String messageType;
+
+	private PayloadCodec codec;
+	private Object message;
+	private Class<?> messageClass;
+	private byte[] encoded;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		PayloadCodecs codecs = new PayloadCodecs(JsonMapper.builder().findAndAddModules().build(), codecName);
+		codec = codecs.defaultCodec();
+		if ("RouteResponse".equals(messageType)) {
+			message = routeResponse();
+			messageClass = RouteResponse.class;
+		} else {
+			message = testKafkaRequest();
+			messageClass = TestKafkaRequest.class;
+		}
+		encoded = codec.encode(message);
+	}
+
+	@Benchmark
+	public byte[] encode(PayloadSize size) throws Exception {
+		byte[] bytes = codec.encode(message);
+		size.payloadBytes = bytes.length;
+		return bytes;
+	}
+
+	@Benchmark
+	public Object decode() throws Exception {
+		return codec.decode(encoded, messageClass);
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class PayloadSize {
+		public long payloadBytes;
+	}
+
+	private static TestKafkaRequest testKafkaRequest() {
+		return TestKafkaRequest.builder()
+				.message("Hello from destination service")
+				.fromService("destination-service")
+				.timestamp(System.currentTimeMillis())
+				.build();
+	}
+
+	private static RouteResponse routeResponse() {
+		List<UUID> destinationIds = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			destinationIds.add(UUID.randomUUID());
+		}
+		return RouteResponse.builder()
+				.id(UUID.randomUUID())
+				.name("City Loop")
+				.number("R-101")
+				.listOfDestinationIds(destinationIds)
+				.createdAt(LocalDateTime.now())
+				.updatedAt(LocalDateTime.now())
+				.message("Route retrieved successfully")
+				.build();
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(PayloadCodecBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,92 @@
+package com.rmit.route.route.kafka;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import com.rmit.route.common.config.KafkaProducerConfig;
+
+/**
+ * Local load generator for the producer profiles against an embedded broker.
+ * Sends the same fire-and-forget load through the latency and throughput templates
+ * and prints msgs/sec and the p99 send-to-ack latency of each.
+ *
+ * Run from the route module with:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.rmit.route.route.kafka.ProducerProfileBenchmark [messages]
+ */
+public class ProducerProfileBenchmark {
+
+	private static final String TOPIC = "benchmark.producer_profiles";
+	private static final int PAYLOAD_BYTES = 256;
+
+	public static void main(String[] args) throws Exception {
+		int messages = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+		EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 3, TOPIC);
+		broker.afterPropertiesSet();
+		try {
+			ProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(Map.of(
+					ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+					ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+					ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class));
+
+			// same values as kafka.producer.* in application.yml
+			KafkaProducerConfig config = new KafkaProducerConfig();
+			KafkaTemplate<String, Object> latency = config.kafkaTemplate(producerFactory, 0, 16384, "none");
+			KafkaTemplate<String, Object> throughput = config.throughputKafkaTemplate(producerFactory, 20, 131072, "lz4");
+
+			// warm up connections and metadata before measuring
+			run("warmup", latency, messages / 10);
+			run("warmup", throughput, messages / 10);
+
+			run("latency", latency, messages);
+			run("throughput", throughput, messages);
+		} finally {
+			broker.destroy();
+		}
+	}
+
+	private static void run(String profile, KafkaTemplate<String, Object> template, int messages) throws Exception {
+		byte[] payload = new byte[PAYLOAD_BYTES];
+		Arrays.fill(payload, (byte) 'x');
+		long[] latencies = new long[messages];
+		AtomicInteger failures = new AtomicInteger();
+		CountDownLatch acked = new CountDownLatch(messages);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < messages; i++) {
+			int index = i;
+			long sentAt = System.nanoTime();
+			template.send(TOPIC, Integer.toString(i), payload).whenComplete((result, e) -> {
+				latencies[index] = System.nanoTime() - sentAt;
+				if (e != null) {
+					failures.incrementAndGet();
+				}
+				acked.countDown();
+			});
+		}
+		template.flush();
+		acked.await(5, TimeUnit.MINUTES);
+		long elapsed = System.nanoTime() - start;
+
+		if ("warmup".equals(profile)) {
+			return;
+		}
+		Arrays.sort(latencies);
+		double msgsPerSec = messages / (elapsed / 1e9);
+		double p99Ms = latencies[(int) Math.ceil(messages * 0.99) - 1] / 1e6;
+		System.out.printf("%-10s %,d msgs  %,.0f msgs/sec  p99 %.2f ms  failures %d%n",
+				profile, messages, msgsPerSec, p99Ms, failures.get());
+	}
+}
@@ -0,0 +1,195 @@
+package com.rmit.route.route.kafka;
+
+import com.rmit.route.common.config.KafkaConsumerConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.requestreply.ReplyingKafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two requester instances and two replicas of the responding service share one broker.
+ * Requests are spread over both responder replicas, and every reply has to come back to the
+ * instance that sent the request, or its future would time out.
+ * Because every instance consumes only its own reply topic, adding requester instances should add
+ * reply throughput instead of sharing it, which the scaling test checks for 1 and 3 requesters.
+ */
+class ReplyRoutingTest {
+
+	private static final String REQUEST_TOPIC = "route.test_request_reply_req";
+	private static final int REQUESTS_PER_INSTANCE = 500;
+	private static final int IN_FLIGHT_PER_INSTANCE = 4;
+	private static final Duration MEASUREMENT = Duration.ofSeconds(5);
+
+	private static EmbeddedKafkaKraftBroker broker;
+
+	@BeforeAll
+	static void startBroker() {
+		broker = new EmbeddedKafkaKraftBroker(1, 4, REQUEST_TOPIC);
+		broker.afterPropertiesSet();
+	}
+
+	@AfterAll
+	static void stopBroker() {
+		broker.destroy();
+	}
+
+	@Test
+	void everyReplyReachesTheInstanceThatSentTheRequest() throws Exception {
+		List<ConcurrentMessageListenerContainer<String, Object>> responders = List.of(responder(), responder());
+		List<Requester> requesters = List.of(requester("instance-a"), requester("instance-b"));
+		try {
+			List<CompletableFuture<Void>> replies = new ArrayList<>();
+			for (Requester requester : requesters) {
+				for (int i = 0; i < REQUESTS_PER_INSTANCE; i++) {
+					byte[] payload = (requester.instance().getInstanceId() + "-" + i).getBytes(StandardCharsets.UTF_8);
+					ProducerRecord<String, Object> request = new ProducerRecord<>(REQUEST_TOPIC, Integer.toString(i), payload);
+					request.headers().add(KafkaHeaders.REPLY_TOPIC,
+							requester.instance().getReplyTopic().getBytes(StandardCharsets.UTF_8));
+					replies.add(requester.template().sendAndReceive(request, Duration.ofSeconds(30)).thenAccept(reply -> {
+						assertThat(reply.topic()).isEqualTo(requester.instance().getReplyTopic());
+						assertThat((byte[]) reply.value()).isEqualTo(payload);
+					}));
+				}
+			}
+
+			CompletableFuture.allOf(replies.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+			assertThat(replies).allMatch(reply -> reply.isDone() && !reply.isCompletedExceptionally());
+		} finally {
+			requesters.forEach(requester -> requester.template().stop());
+			responders.forEach(ConcurrentMessageListenerContainer::stop);
+		}
+	}
+
+	@Test
+	void replyThroughputGrowsWithRequesterInstances() throws Exception {
+		List<ConcurrentMessageListenerContainer<String, Object>> responders = List.of(responder(), responder());
+		try {
+			// warm up producers, consumers and the broker before the first measurement
+			repliesPerSecond(List.of(requester("warmup")));
+			double single = repliesPerSecond(List.of(requester("single-a")));
+			double three = repliesPerSecond(List.of(requester("three-a"), requester("three-b"), requester("three-c")));
+
+			// each requester keeps a fixed number of requests in flight, so its rate is bound by reply latency;
+			// linear scaling would be 3x, anything below 2x means the instances are sharing replies or a consumer
+			assertThat(three).isGreaterThanOrEqualTo(2 * single);
+		} finally {
+			responders.forEach(ConcurrentMessageListenerContainer::stop);
+		}
+	}
+
+	// closed loop: every requester keeps IN_FLIGHT_PER_INSTANCE requests outstanding for MEASUREMENT
+	private double repliesPerSecond(List<Requester> requesters) throws Exception {
+		ExecutorService workers = Executors.newFixedThreadPool(requesters.size() * IN_FLIGHT_PER_INSTANCE);
+		AtomicLong completed = new AtomicLong();
+		long deadline = System.nanoTime() + MEASUREMENT.toNanos();
+		try {
+			List<Future<?>> loops = new ArrayList<>();
+			for (Requester requester : requesters) {
+				for (int w = 0; w < IN_FLIGHT_PER_INSTANCE; w++) {
+					loops.add(workers.submit(() -> {
+						while (System.nanoTime() < deadline) {
+							ProducerRecord<String, Object> request = new ProducerRecord<>(REQUEST_TOPIC,
+									UUID.randomUUID().toString(), new byte[16]);
+							request.headers().add(KafkaHeaders.REPLY_TOPIC,
+									requester.instance().getReplyTopic().getBytes(StandardCharsets.UTF_8));
+							requester.template().sendAndReceive(request, Duration.ofSeconds(30)).get(30, TimeUnit.SECONDS);
+							completed.incrementAndGet();
+						}
+						return null;
+					}));
+				}
+			}
+			for (Future<?> loop : loops) {
+				loop.get(MEASUREMENT.toSeconds() + 60, TimeUnit.SECONDS);
+			}
+			return completed.get() / (double) MEASUREMENT.toSeconds();
+		} finally {
+			workers.shutdownNow();
+			requesters.forEach(requester -> requester.template().stop());
+		}
+	}
+
+	// one replica of the responding service: answers like a bare @SendTo, to the request's reply topic header
+	private ConcurrentMessageListenerContainer<String, Object> responder() {
+		KafkaTemplate<String, Object> replyTemplate = new KafkaTemplate<>(producerFactory());
+		ContainerProperties containerProperties = new ContainerProperties(REQUEST_TOPIC);
+		containerProperties.setGroupId("route-service");
+		containerProperties.setMessageListener((MessageListener<String, Object>) record -> {
+			String replyTopic = new String(record.headers().lastHeader(KafkaHeaders.REPLY_TOPIC).value(),
+					StandardCharsets.UTF_8);
+			ProducerRecord<String, Object> reply = new ProducerRecord<>(replyTopic, record.key(), record.value());
+			reply.headers().add(record.headers().lastHeader(KafkaHeaders.CORRELATION_ID));
+			replyTemplate.send(reply);
+		});
+		ConcurrentMessageListenerContainer<String, Object> container =
+				new ConcurrentMessageListenerContainer<>(consumerFactory(), containerProperties);
+		container.start();
+		return container;
+	}
+
+	// one instance of the requesting service, wired like KafkaTopicConfig and KafkaConsumerConfig do
+	private Requester requester(String instanceId) throws Exception {
+		KafkaAdmin kafkaAdmin = new KafkaAdmin(Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()));
+		KafkaInstance instance = new KafkaInstance(kafkaAdmin, "route", instanceId, false);
+		broker.addTopics(new NewTopic(instance.getReplyTopic(), 1, (short) 1));
+
+		ConcurrentMessageListenerContainer<String, Object> replyContainer =
+				new KafkaConsumerConfig().replyListenerContainer(consumerFactory(), instance);
+		ReplyingKafkaTemplate<String, Object, Object> template = new ReplyingKafkaTemplate<>(producerFactory(), replyContainer);
+		template.start();
+		assertThat(template.waitForAssignment(Duration.ofSeconds(30))).isTrue();
+		return new Requester(instance, template);
+	}
+
+	private ProducerFactory<String, Object> producerFactory() {
+		return new DefaultKafkaProducerFactory<>(Map.of(
+				ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+				ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+				ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class));
+	}
+
+	private ConsumerFactory<String, Object> consumerFactory() {
+		return new DefaultKafkaConsumerFactory<>(Map.of(
+				ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+				ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+				ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class,
+				ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest"));
+	}
+
+	private record Requester(KafkaInstance instance, ReplyingKafkaTemplate<String, Object, Object> template) {
+	}
+}
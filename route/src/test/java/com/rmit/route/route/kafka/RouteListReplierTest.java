@@ -0,0 +1,168 @@
+package com.rmit.route.route.kafka;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rmit.route.route.dto.RoutePageResponse;
+import com.rmit.route.route.dto.RouteResponse;
+import com.rmit.route.route.external.dto.ListChunk;
+import com.rmit.route.route.external.dto.RouteListRequest;
+import com.rmit.route.route.external.service.PayloadCodec;
+import com.rmit.route.route.service.RouteService;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RouteListReplierTest {
+
+	private static final String REPLY_TOPIC = "destination.replies";
+	private static final byte[] CORRELATION_ID = { 1, 2, 3 };
+
+	@Mock
+	private RouteService routeService;
+
+	@Mock
+	private KafkaTemplate<String, Object> kafkaTemplate;
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+	private final PayloadCodecs payloadCodecs = new PayloadCodecs(objectMapper, "json");
+	private final PayloadCodec codec = payloadCodecs.defaultCodec();
+	private RouteListReplier replier;
+
+	@BeforeEach
+	void setUp() {
+		replier = new RouteListReplier(routeService, kafkaTemplate, payloadCodecs);
+		ReflectionTestUtils.setField(replier, "chunkSize", 2);
+		ReflectionTestUtils.setField(replier, "maxLimit", 100);
+		ReflectionTestUtils.setField(replier, "sendTimeout", Duration.ofSeconds(1));
+	}
+
+	@Test
+	void filtersAreHandedToTheServiceAndEveryPageBecomesOneChunk() throws Exception {
+		acknowledgeEverySend();
+		when(routeService.getRoutesPage(null, 2, "7", "city")).thenReturn(page("c1", route(), route()));
+		when(routeService.getRoutesPage("c1", 2, "7", "city")).thenReturn(page("c2", route(), route()));
+		when(routeService.getRoutesPage("c2", 1, "7", "city")).thenReturn(page("c3", route()));
+
+		replier.reply(request("7", "city", 5), codec, REPLY_TOPIC, CORRELATION_ID);
+
+		List<ListChunk<RouteResponse>> chunks = sentChunks(3);
+		assertThat(chunks).extracting(ListChunk::getIndex).containsExactly(0, 1, 2);
+		assertThat(chunks).extracting(chunk -> chunk.getItems().size()).containsExactly(2, 2, 1);
+		assertThat(chunks).extracting(ListChunk::isLast).containsExactly(false, false, true);
+		// the limit was reached with routes left, so the requester can resume after the last one
+		assertThat(chunks.get(2).getNextCursor()).isEqualTo("c3");
+	}
+
+	@Test
+	void exhaustedListingEndsWithoutCursor() throws Exception {
+		acknowledgeEverySend();
+		when(routeService.getRoutesPage(null, 2, null, null)).thenReturn(page("c1", route(), route()));
+		when(routeService.getRoutesPage("c1", 2, null, null)).thenReturn(page(null, route()));
+
+		replier.reply(request(null, null, null), codec, REPLY_TOPIC, CORRELATION_ID);
+
+		List<ListChunk<RouteResponse>> chunks = sentChunks(2);
+		assertThat(chunks.get(1).isLast()).isTrue();
+		assertThat(chunks.get(1).getNextCursor()).isNull();
+	}
+
+	@Test
+	void zeroLimitAnswersWithOneEmptyLastChunk() throws Exception {
+		acknowledgeEverySend();
+
+		replier.reply(request(null, null, 0), codec, REPLY_TOPIC, CORRELATION_ID);
+
+		List<ListChunk<RouteResponse>> chunks = sentChunks(1);
+		assertThat(chunks.get(0).isLast()).isTrue();
+		assertThat(chunks.get(0).getItems()).isEmpty();
+		verify(routeService, never()).getRoutesPage(any(), anyInt(), any(), any());
+	}
+
+	@Test
+	void failedChunkFailsTheReplyAndStopsListing() throws Exception {
+		when(kafkaTemplate.send(any(ProducerRecord.class)))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+		when(routeService.getRoutesPage(null, 2, null, null)).thenReturn(page("c1", route(), route()));
+
+		assertThatThrownBy(() -> replier.reply(request(null, null, 10), codec, REPLY_TOPIC, CORRELATION_ID))
+				.isInstanceOf(KafkaException.class)
+				.hasRootCauseMessage("broker unavailable");
+
+		verify(routeService, times(1)).getRoutesPage(any(), anyInt(), any(), any());
+		verify(routeService, never()).getRoutesPage(anyString(), anyInt(), any(), any());
+	}
+
+	@Test
+	void unacknowledgedChunkFailsTheReplyAfterTheTimeout() throws Exception {
+		ReflectionTestUtils.setField(replier, "sendTimeout", Duration.ofMillis(20));
+		when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(new CompletableFuture<>());
+		when(routeService.getRoutesPage(null, 2, null, null)).thenReturn(page(null, route()));
+
+		assertThatThrownBy(() -> replier.reply(request(null, null, 10), codec, REPLY_TOPIC, CORRELATION_ID))
+				.isInstanceOf(KafkaException.class);
+	}
+
+	private void acknowledgeEverySend() {
+		when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<ListChunk<RouteResponse>> sentChunks(int count) throws Exception {
+		ArgumentCaptor<ProducerRecord<String, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+		verify(kafkaTemplate, times(count)).send(captor.capture());
+		JavaType chunkType = objectMapper.getTypeFactory().constructParametricType(ListChunk.class, RouteResponse.class);
+		List<ListChunk<RouteResponse>> chunks = new ArrayList<>();
+		for (ProducerRecord<String, Object> record : captor.getAllValues()) {
+			assertThat(record.topic()).isEqualTo(REPLY_TOPIC);
+			assertThat(record.key()).isEqualTo("010203");
+			Header correlationId = record.headers().lastHeader(KafkaHeaders.CORRELATION_ID);
+			assertThat(correlationId.value()).isEqualTo(CORRELATION_ID);
+			chunks.add(codec.decode((byte[]) record.value(), chunkType));
+		}
+		return chunks;
+	}
+
+	private static RouteListRequest request(String number, String nameContains, Integer limit) {
+		return RouteListRequest.builder().number(number).nameContains(nameContains).limit(limit).build();
+	}
+
+	private static RoutePageResponse page(String nextCursor, RouteResponse... routes) {
+		return RoutePageResponse.builder().items(List.of(routes)).nextCursor(nextCursor).build();
+	}
+
+	private static RouteResponse route() {
+		return RouteResponse.builder()
+				.id(UUID.randomUUID())
+				.name("City Loop")
+				.number("7")
+				.createdAt(LocalDateTime.now())
+				.build();
+	}
+}
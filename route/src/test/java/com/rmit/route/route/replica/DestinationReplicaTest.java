@@ -0,0 +1,115 @@
+package com.rmit.route.route.replica;
+
+import com.rmit.route.route.external.dto.ChangeType;
+import com.rmit.route.route.external.dto.DestinationChangedEvent;
+import com.rmit.route.route.external.dto.DestinationDetails;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DestinationReplicaTest {
+
+	private final DestinationReplica replica = new DestinationReplica(new SimpleMeterRegistry());
+	private final UUID destinationId = UUID.randomUUID();
+
+	@Test
+	void reportsDestinationsSeenForTheFirstTime() {
+		assertThat(replica.apply(changed("Flinders Street", null, null))).isTrue();
+		assertThat(replica.get(destinationId)).isPresent();
+	}
+
+	@Test
+	void reportsCoordinatesGainedOrChangedButNotRenames() {
+		replica.apply(changed("Flinders Street", null, null));
+
+		assertThat(replica.apply(changed("Flinders Street", -37.8183, 144.9671))).isTrue();
+		assertThat(replica.apply(changed("Flinders St Station", -37.8183, 144.9671))).isFalse();
+		assertThat(replica.apply(changed("Flinders St Station", -37.8190, 144.9671))).isTrue();
+	}
+
+	@Test
+	void reportsRemovalOfKnownDestinationsOnly() {
+		replica.apply(changed("Flinders Street", -37.8183, 144.9671));
+
+		assertThat(replica.apply(deleted())).isTrue();
+		assertThat(replica.get(destinationId)).isEmpty();
+		assertThat(replica.apply(deleted())).isFalse();
+	}
+
+	@Test
+	void isReadyAtOnceWhenEveryPartitionStartsAtItsEnd() {
+		replica.partitionsAssigned(Map.of(partition(0), 5L, partition(1), 0L), Map.of(partition(0), 5L));
+
+		assertThat(replica.isReady()).isTrue();
+	}
+
+	@Test
+	void becomesReadyOnceEveryPartitionReachedItsEndOffsetAtAssignment() {
+		replica.partitionsAssigned(Map.of(partition(0), 10L, partition(1), 4L), Map.of(partition(0), 0L, partition(1), 0L));
+		assertThat(replica.isReady()).isFalse();
+
+		replica.consumedUpTo(partition(0), 6);
+		replica.consumedUpTo(partition(1), 4);
+		assertThat(replica.isReady()).isFalse();
+
+		// records appended after the assignment do not move the target
+		replica.consumedUpTo(partition(0), 10);
+		assertThat(replica.isReady()).isTrue();
+	}
+
+	@Test
+	void partitionsAssignedLaterDoNotUndoReadiness() {
+		replica.partitionsAssigned(Map.of(partition(0), 0L), Map.of());
+		replica.partitionsAssigned(Map.of(partition(1), 8L), Map.of(partition(1), 0L));
+
+		assertThat(replica.isReady()).isTrue();
+	}
+
+	@Test
+	void findMissingRefusesToAnswerWhileCatchingUp() {
+		replica.partitionsAssigned(Map.of(partition(0), 10L), Map.of(partition(0), 0L));
+
+		assertThatThrownBy(() -> replica.findMissing(List.of(destinationId)))
+				.isInstanceOf(DestinationReplicaNotReadyException.class);
+	}
+
+	@Test
+	void findMissingReturnsUnknownIdsInRequestOrder() {
+		replica.partitionsAssigned(Map.of(partition(0), 1L), Map.of(partition(0), 0L));
+		replica.apply(changed("Flinders Street", -37.8183, 144.9671));
+		replica.consumedUpTo(partition(0), 1);
+		UUID first = UUID.randomUUID();
+		UUID second = UUID.randomUUID();
+
+		assertThat(replica.findMissing(List.of(second, destinationId, first))).containsExactly(second, first);
+		assertThat(replica.findMissing(List.of(destinationId))).isEmpty();
+	}
+
+	private static TopicPartition partition(int number) {
+		return new TopicPartition("destination.changed", number);
+	}
+
+	private DestinationChangedEvent changed(String name, Double latitude, Double longitude) {
+		return DestinationChangedEvent.builder()
+				.type(ChangeType.UPDATED)
+				.destinationId(destinationId)
+				.destination(DestinationDetails.builder()
+						.id(destinationId)
+						.name(name)
+						.latitude(latitude)
+						.longitude(longitude)
+						.build())
+				.build();
+	}
+
+	private DestinationChangedEvent deleted() {
+		return DestinationChangedEvent.builder().type(ChangeType.DELETED).destinationId(destinationId).build();
+	}
+}
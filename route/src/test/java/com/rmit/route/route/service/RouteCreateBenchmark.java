@@ -0,0 +1,117 @@
+package com.rmit.route.route.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.rmit.route.RouteApplication;
+import com.rmit.route.route.dto.RouteRequest;
+import com.rmit.route.route.external.dto.ChangeType;
+import com.rmit.route.route.external.dto.DestinationChangedEvent;
+import com.rmit.route.route.external.dto.DestinationDetails;
+import com.rmit.route.route.replica.DestinationReplica;
+
+/**
+ * Measures createRoute end to end, with the route, its stops and the outbox event written to Postgres,
+ * for routes of 10, 200 and 1000 stops. jdbcBatchSize 1 turns JDBC batching off, for comparison with
+ * the configured batch size. The stops are placed in the destination replica directly, so no
+ * destination service is needed.
+ *
+ * Needs the route database (DATABASE_URL etc., as for the service) and Kafka running.
+ * Routes created by the benchmark are deleted again after each trial.
+ *
+ * Run from the route module with:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.rmit.route.route.service.RouteCreateBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteCreateBenchmark {
+
+	@Param({ "10", "200", "1000" })
+	public int stops;
+
+	@Param({ "50", "1" })
+	public int jdbcBatchSize;
+
+	private ConfigurableApplicationContext context;
+	private RouteService routeService;
+	private List<UUID> destinationIds;
+	private final List<UUID> createdRouteIds = new ArrayList<>();
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(RouteApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties(
+						"spring.jpa.show-sql=false",
+						"spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+						"eureka.client.enabled=false")
+				.run();
+		routeService = context.getBean(RouteService.class);
+
+		// ready without waiting for destination.changed, the benchmark stops are added below
+		DestinationReplica replica = context.getBean(DestinationReplica.class);
+		replica.partitionsAssigned(Map.of(), Map.of());
+		destinationIds = new ArrayList<>(stops);
+		for (int i = 0; i < stops; i++) {
+			UUID id = UUID.randomUUID();
+			destinationIds.add(id);
+			replica.apply(DestinationChangedEvent.builder()
+					.type(ChangeType.CREATED)
+					.destinationId(id)
+					.destination(DestinationDetails.builder()
+							.id(id)
+							.name("Benchmark stop " + i)
+							.latitude(-37.81 + i * 0.001)
+							.longitude(144.96 + i * 0.001)
+							.build())
+					.occurredAt(LocalDateTime.now())
+					.build());
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		createdRouteIds.forEach(routeService::deleteRoute);
+		context.close();
+	}
+
+	@Benchmark
+	public UUID createRoute() {
+		String number = UUID.randomUUID().toString();
+		UUID id = routeService.createRoute(new RouteRequest("Benchmark " + number, number, destinationIds)).getId();
+		createdRouteIds.add(id);
+		return id;
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(RouteCreateBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,128 @@
+package com.rmit.route.route.service.impl;
+
+import com.rmit.route.common.cache.CacheInvalidator;
+import com.rmit.route.common.outbox.OutboxService;
+import com.rmit.route.common.view.RouteStopsViews;
+import com.rmit.route.route.dto.RoutePageResponse;
+import com.rmit.route.route.dto.RouteResponse;
+import com.rmit.route.route.entity.Route;
+import com.rmit.route.route.entity.RouteDestination;
+import com.rmit.route.route.index.DestinationRouteIndex;
+import com.rmit.route.route.planner.TripPlanner;
+import com.rmit.route.route.replica.DestinationLookup;
+import com.rmit.route.route.replica.DestinationReplica;
+import com.rmit.route.route.repo.RouteDestinationRepository;
+import com.rmit.route.route.repo.RouteRepository;
+import com.rmit.route.route.service.RouteService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements Hibernate prepares for route listings against the real schema,
+ * so a listing that falls back to one stop query per route fails here.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(RouteServiceImpl.class)
+class RouteListingQueryCountTest {
+
+	private static final int ROUTES = 20;
+	private static final int STOPS_PER_ROUTE = 5;
+
+	@Container
+	@ServiceConnection
+	static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@MockitoBean
+	private CacheInvalidator cacheInvalidator;
+
+	@MockitoBean
+	private OutboxService outboxService;
+
+	@MockitoBean
+	private DestinationReplica destinationReplica;
+
+	@MockitoBean
+	private DestinationLookup destinationLookup;
+
+	@MockitoBean
+	private DestinationRouteIndex destinationRouteIndex;
+
+	@MockitoBean
+	private TripPlanner tripPlanner;
+
+	@MockitoBean
+	private RouteStopsViews routeStopsViews;
+
+	@Autowired
+	private RouteService routeService;
+
+	@Autowired
+	private RouteRepository routeRepository;
+
+	@Autowired
+	private RouteDestinationRepository routeDestinationRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < ROUTES; i++) {
+			Route route = routeRepository.save(Route.builder().name("Route " + i).number(String.valueOf(i)).build());
+			for (int position = 0; position < STOPS_PER_ROUTE; position++) {
+				routeDestinationRepository.save(RouteDestination.builder()
+						.routeId(route.getId())
+						.destinationId(UUID.randomUUID())
+						.position(position)
+						.build());
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void routesPageRunsOneQueryForTheRoutesAndOneForAllTheirStops() {
+		RoutePageResponse page = routeService.getRoutesPage(null, ROUTES);
+
+		assertThat(page.getItems()).hasSize(ROUTES);
+		assertEveryRouteHasItsStops(page.getItems());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void allRoutesRunOneQueryForTheRoutesAndOneForAllTheirStops() {
+		List<RouteResponse> routes = routeService.getAllRoutes();
+
+		assertThat(routes).hasSize(ROUTES);
+		assertEveryRouteHasItsStops(routes);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	private static void assertEveryRouteHasItsStops(List<RouteResponse> routes) {
+		assertThat(routes).allSatisfy(route -> assertThat(route.getListOfDestinationIds()).hasSize(STOPS_PER_ROUTE));
+	}
+}
@@ -0,0 +1,229 @@
+package com.rmit.route.route.service.impl;
+
+import com.rmit.route.common.cache.CacheInvalidator;
+import com.rmit.route.common.config.CacheConfig;
+import com.rmit.route.common.outbox.OutboxService;
+import com.rmit.route.common.view.RouteStopsViews;
+import com.rmit.route.route.dto.RoutePageResponse;
+import com.rmit.route.route.dto.RouteRequest;
+import com.rmit.route.route.dto.RouteResponse;
+import com.rmit.route.route.entity.Route;
+import com.rmit.route.route.entity.RouteDestination;
+import com.rmit.route.route.external.dto.RouteTopicRegistry;
+import com.rmit.route.route.index.DestinationRouteIndex;
+import com.rmit.route.route.planner.TripPlanner;
+import com.rmit.route.route.replica.DestinationLookup;
+import com.rmit.route.route.replica.DestinationReplica;
+import com.rmit.route.route.replica.DestinationReplicaNotReadyException;
+import com.rmit.route.route.repo.RouteDestinationRepository;
+import com.rmit.route.route.repo.RouteRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RouteServiceImplTest {
+
+	@Mock
+	private RouteRepository routeRepository;
+
+	@Mock
+	private RouteDestinationRepository routeDestinationRepository;
+
+	@Mock
+	private CacheInvalidator cacheInvalidator;
+
+	@Mock
+	private OutboxService outboxService;
+
+	@Mock
+	private DestinationReplica destinationReplica;
+
+	@Mock
+	private DestinationLookup destinationLookup;
+
+	@Mock
+	private DestinationRouteIndex destinationRouteIndex;
+
+	@Mock
+	private TripPlanner tripPlanner;
+
+	@Mock
+	private RouteStopsViews routeStopsViews;
+
+	@InjectMocks
+	private RouteServiceImpl routeService;
+
+	@Test
+	void getAllRoutesSkipsDestinationQueryWhenThereAreNoRoutes() {
+		when(routeRepository.findAll()).thenReturn(List.of());
+
+		assertThat(routeService.getAllRoutes()).isEmpty();
+		verify(routeDestinationRepository, never()).findByRouteIdInOrderByPositionAsc(anyCollection());
+	}
+
+	@Test
+	void routesPageFiltersByNameInTheDatabaseWithWildcardsEscaped() {
+		Route route = Route.builder().id(UUID.randomUUID()).name("100% Express").number("9").createdAt(LocalDateTime.now()).build();
+		when(routeRepository.findFirstPageByName(eq("%100!% e%"), any())).thenReturn(List.of(route));
+
+		RoutePageResponse page = routeService.getRoutesPage(null, 10, null, "100% E");
+
+		assertThat(page.getItems()).extracting(RouteResponse::getId).containsExactly(route.getId());
+		assertThat(page.getNextCursor()).isNull();
+		verify(routeRepository, never()).findFirstPage(any());
+	}
+
+	@Test
+	void routesPageByNumberUsesTheUniqueNumberAndHonoursTheCursor() {
+		Route route = Route.builder().id(UUID.randomUUID()).name("City Circle").number("35").createdAt(LocalDateTime.now()).build();
+		when(routeRepository.findByNumber("35")).thenReturn(Optional.of(route));
+
+		RoutePageResponse first = routeService.getRoutesPage(null, 1, "35", "circle");
+		RoutePageResponse second = routeService.getRoutesPage(first.getNextCursor(), 1, "35", "circle");
+
+		assertThat(first.getItems()).extracting(RouteResponse::getId).containsExactly(route.getId());
+		assertThat(second.getItems()).isEmpty();
+		assertThat(second.getNextCursor()).isNull();
+		assertThat(routeService.getRoutesPage(null, 10, "35", "express").getItems()).isEmpty();
+	}
+
+	@Test
+	void updateRouteWritesNothingWhenStopListIsUnchanged() {
+		Route route = Route.builder().id(UUID.randomUUID()).name("City Circle").number("35").build();
+		List<RouteDestination> stops = stops(route.getId(), UUID.randomUUID(), UUID.randomUUID());
+		when(routeRepository.findById(route.getId())).thenReturn(Optional.of(route));
+		when(routeRepository.saveAndFlush(route)).thenReturn(route);
+		when(routeDestinationRepository.findByRouteIdOrderByPositionAsc(route.getId())).thenReturn(stops);
+
+		routeService.updateRoute(route.getId(), new RouteRequest("City Circle", "35",
+				List.of(stops.get(0).getDestinationId(), stops.get(1).getDestinationId())));
+
+		verify(routeDestinationRepository, never()).deleteByIdIn(anyCollection());
+		verify(routeDestinationRepository, never()).saveAll(anyIterable());
+		verify(cacheInvalidator, never()).invalidate(CacheConfig.ROUTE_METRICS, route.getId());
+		verify(routeStopsViews, never()).replaceAfterCommit(any(), any(), any());
+	}
+
+	@Test
+	void updateRouteOnlyDeletesRemovedAndInsertsAddedStops() {
+		Route route = Route.builder().id(UUID.randomUUID()).name("City Circle").number("35").build();
+		UUID kept = UUID.randomUUID();
+		UUID removed = UUID.randomUUID();
+		UUID added = UUID.randomUUID();
+		List<RouteDestination> stops = stops(route.getId(), removed, kept);
+		when(routeRepository.findById(route.getId())).thenReturn(Optional.of(route));
+		when(routeRepository.saveAndFlush(route)).thenReturn(route);
+		when(routeDestinationRepository.findByRouteIdOrderByPositionAsc(route.getId())).thenReturn(stops);
+
+		RouteResponse response = routeService.updateRoute(route.getId(),
+				new RouteRequest("City Circle", "35", List.of(kept, added)));
+
+		assertThat(response.getListOfDestinationIds()).containsExactly(kept, added);
+		assertThat(stops.get(1).getPosition()).isZero();
+		verify(routeDestinationRepository).deleteByIdIn(List.of(stops.get(0).getId()));
+		verify(routeDestinationRepository).saveAll(argThat((Iterable<RouteDestination> inserted) -> {
+			RouteDestination only = inserted.iterator().next();
+			return only.getDestinationId().equals(added) && only.getPosition() == 1;
+		}));
+		verify(outboxService).record(eq(RouteTopicRegistry.Topic.CHANGED), eq(route.getId()), eq("UPDATED"), any());
+		verify(cacheInvalidator).invalidate(CacheConfig.ROUTE_METRICS, route.getId());
+		verify(routeStopsViews).replaceAfterCommit(eq(route.getId()), eq(List.of(kept, added)), any());
+	}
+
+	@Test
+	void createRouteAcceptsDestinationsTheReplicaHasNotSeenYet() {
+		UUID known = UUID.randomUUID();
+		UUID justCreated = UUID.randomUUID();
+		when(destinationReplica.findMissing(List.of(known, justCreated))).thenReturn(List.of(justCreated));
+		when(destinationLookup.findMissing(List.of(justCreated))).thenReturn(List.of());
+		when(routeRepository.save(any(Route.class))).thenAnswer(invocation -> {
+			Route route = invocation.getArgument(0);
+			route.setId(UUID.randomUUID());
+			return route;
+		});
+
+		RouteResponse response = routeService.createRoute(new RouteRequest("City Circle", "35", List.of(known, justCreated)));
+
+		assertThat(response.getListOfDestinationIds()).containsExactly(known, justCreated);
+		verify(routeDestinationRepository).saveAll(anyIterable());
+	}
+
+	@Test
+	void createRouteRejectsDestinationsTheDestinationServiceDoesNotKnow() {
+		UUID unknown = UUID.randomUUID();
+		when(destinationReplica.findMissing(List.of(unknown))).thenReturn(List.of(unknown));
+		when(destinationLookup.findMissing(List.of(unknown))).thenReturn(List.of(unknown));
+
+		assertThatThrownBy(() -> routeService.createRoute(new RouteRequest("City Circle", "35", List.of(unknown))))
+				.hasMessage("Unknown destination ids: [" + unknown + "]");
+		verify(routeRepository, never()).save(any());
+	}
+
+	@Test
+	void createRouteAsksToRetryWhenMissingDestinationsCannotBeConfirmed() {
+		UUID unknown = UUID.randomUUID();
+		when(destinationReplica.findMissing(List.of(unknown))).thenReturn(List.of(unknown));
+		when(destinationLookup.findMissing(List.of(unknown)))
+				.thenThrow(new DestinationReplicaNotReadyException("timed out", new RuntimeException()));
+
+		assertThatThrownBy(() -> routeService.createRoute(new RouteRequest("City Circle", "35", List.of(unknown))))
+				.isInstanceOf(DestinationReplicaNotReadyException.class);
+		verify(routeRepository, never()).save(any());
+	}
+
+	@Test
+	void createRouteSkipsTheLookupWhenTheReplicaKnowsEveryDestination() {
+		UUID known = UUID.randomUUID();
+		when(routeRepository.save(any(Route.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+		routeService.createRoute(new RouteRequest("City Circle", "35", List.of(known)));
+
+		verify(destinationReplica).findMissing(List.of(known));
+		verify(destinationLookup, never()).findMissing(any());
+	}
+
+	@Test
+	void routesByDestinationFallBackToTheIndexedQueryWhileTheIndexLoads() {
+		UUID destinationId = UUID.randomUUID();
+		UUID routeId = UUID.randomUUID();
+		when(destinationRouteIndex.isReady()).thenReturn(false);
+		when(routeDestinationRepository.findRouteIdsByDestinationId(destinationId)).thenReturn(List.of(routeId));
+
+		assertThat(routeService.getRouteIdsByDestination(destinationId)).containsExactly(routeId);
+		verify(destinationRouteIndex, never()).routeIdsFor(any());
+	}
+
+	private List<RouteDestination> stops(UUID routeId, UUID... destinationIds) {
+		List<RouteDestination> stops = new ArrayList<>();
+		for (int position = 0; position < destinationIds.length; position++) {
+			stops.add(RouteDestination.builder()
+					.id(UUID.randomUUID())
+					.routeId(routeId)
+					.destinationId(destinationIds[position])
+					.position(position)
+					.build());
+		}
+		return stops;
+	}
+
+}